@@ -0,0 +1,9 @@
+package com.markesiano.auth_service.application.entities;
+
+public record TokenClaims(
+    String clientId,
+    long issuedAtMillis,
+    long expiresAtMillis
+) {
+
+}
@@ -0,0 +1,7 @@
+package com.markesiano.auth_service.application.exceptions;
+
+public class InvalidCredentialsException extends RuntimeException {
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.markesiano.auth_service.application.interfaces;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveJwtKey {
+    Mono<String> generateToken(String clientId);
+}
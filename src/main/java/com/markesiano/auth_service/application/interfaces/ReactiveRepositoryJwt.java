@@ -0,0 +1,9 @@
+package com.markesiano.auth_service.application.interfaces;
+
+import reactor.core.publisher.Mono;
+
+// An empty Mono from getJwtCached means there is no cached token for the client
+public interface ReactiveRepositoryJwt<TToken> {
+    Mono<TToken> getJwtCached(String clientId);
+    Mono<Void> saveJwt(String clientId, TToken token);
+}
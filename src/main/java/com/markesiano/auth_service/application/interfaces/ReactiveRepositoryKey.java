@@ -0,0 +1,7 @@
+package com.markesiano.auth_service.application.interfaces;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveRepositoryKey {
+    Mono<Boolean> isValidClient(String clientId, String productKey);
+}
@@ -1,9 +1,50 @@
 package com.markesiano.auth_service.application.interfaces;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface RepositoryJwt<TToken> {
     CompletableFuture<TToken> getJwtCached(String clientId);
     CompletableFuture<Void> saveJwt(String clientId, TToken token);
-    
+
+    /**
+     * Cached tokens of the given clients; clients without one are left out of the map.
+     * The default looks every client up on its own, stores that can answer several keys
+     * in one round trip override it.
+     */
+    default CompletableFuture<Map<String, TToken>> getAll(Collection<String> clientIds) {
+        Map<String, CompletableFuture<TToken>> lookups = new LinkedHashMap<>();
+        for (String clientId : clientIds) {
+            if (!lookups.containsKey(clientId)) {
+                lookups.put(clientId, getJwtCached(clientId));
+            }
+        }
+        return CompletableFuture.allOf(lookups.values().toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                Map<String, TToken> tokens = new HashMap<>();
+                lookups.forEach((clientId, lookup) -> {
+                    TToken token = lookup.join();
+                    if (token != null) {
+                        tokens.put(clientId, token);
+                    }
+                });
+                return tokens;
+            });
+    }
+
+    /**
+     * Stores every token under its clientId. The default issues one saveJwt per entry
+     * and completes once all of them did, failing if any failed.
+     */
+    default CompletableFuture<Void> saveAll(Map<String, TToken> tokens) {
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[tokens.size()];
+        int i = 0;
+        for (Map.Entry<String, TToken> entry : tokens.entrySet()) {
+            writes[i++] = saveJwt(entry.getKey(), entry.getValue());
+        }
+        return CompletableFuture.allOf(writes);
+    }
 }
@@ -0,0 +1,12 @@
+package com.markesiano.auth_service.application.interfaces;
+
+/**
+ * Tells whether a cached token was signed with a key that has since been retired.
+ * Such a token no longer verifies, so it is re-minted instead of handed out.
+ */
+public interface SigningKeyCheck {
+
+    SigningKeyCheck NONE = token -> false;
+
+    boolean isRetired(String token);
+}
@@ -0,0 +1,12 @@
+package com.markesiano.auth_service.application.interfaces;
+
+/**
+ * Told about every token handed out, so tokens of busy clients can be replaced
+ * before they expire instead of on the next request after.
+ */
+public interface TokenRefresher {
+
+    TokenRefresher NONE = (clientId, token) -> { };
+
+    void onTokenServed(String clientId, String token);
+}
@@ -0,0 +1,10 @@
+package com.markesiano.auth_service.application.interfaces;
+
+import com.markesiano.auth_service.application.entities.TokenClaims;
+
+public interface TokenVerifier {
+    /**
+     * Claims of 'token' if it was signed by this service and has not expired, otherwise null.
+     */
+    TokenClaims verify(String token);
+}
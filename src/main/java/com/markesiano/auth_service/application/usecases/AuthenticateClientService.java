@@ -1,27 +1,83 @@
 package com.markesiano.auth_service.application.usecases;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.markesiano.auth_service.application.exceptions.InvalidCredentialsException;
 import com.markesiano.auth_service.application.interfaces.JwtKey;
 import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
 import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.application.interfaces.SigningKeyCheck;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
 import com.markesiano.auth_service.application.usecases.interfaces.AuthenticateClientUseCase;
 import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
 import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
 
+/**
+ * Returns the cached token of a client or mints and stores a new one.
+ *
+ * Cache misses are single-flight per clientId: while a token is being generated and
+ * saved for a client, further misses for that client wait on the same future instead
+ * of signing and writing their own token. The mints in flight are kept in InFlightMints,
+ * shared with ReactiveAuthenticateClientService.
+ *
+ * Every token handed out is reported to the TokenRefresher, which may replace the
+ * tokens of busy clients before they expire.
+ *
+ * A cached token whose signing key has been retired no longer verifies; it is treated
+ * as a miss and re-minted, one client at a time as they come back, instead of re-signing
+ * every cached token when the key rotates.
+ *
+ * authenticateAll serves a batch with the same rules but batched I/O: every credential
+ * check is started at once, the valid clients' tokens are read with one getAll, and the
+ * misses are minted in parallel and stored with one saveAll. Each item gets its own
+ * response, a rejected or failed item does not affect the others.
+ */
 @Service
 public class AuthenticateClientService implements AuthenticateClientUseCase<AuthResponse, AuthRequest> {
     private final RepositoryKey repository;
     private final JwtKey jwtProvider;
     private final RepositoryJwt<String> repositoryJwt;
+    private final TokenRefresher tokenRefresher;
+    private final SigningKeyCheck signingKeyCheck;
+    private final InFlightMints inFlightMints;
+    private final LongAdder retiredKeyMints = new LongAdder();
 
     public AuthenticateClientService(RepositoryKey repository, JwtKey jwtProvider, RepositoryJwt<String> repositoryJwt) {
+        this(repository, jwtProvider, repositoryJwt, TokenRefresher.NONE);
+    }
+
+    public AuthenticateClientService(RepositoryKey repository, JwtKey jwtProvider, RepositoryJwt<String> repositoryJwt,
+                                     TokenRefresher tokenRefresher) {
+        this(repository, jwtProvider, repositoryJwt, tokenRefresher, SigningKeyCheck.NONE);
+    }
+
+    public AuthenticateClientService(RepositoryKey repository, JwtKey jwtProvider, RepositoryJwt<String> repositoryJwt,
+                                     TokenRefresher tokenRefresher, SigningKeyCheck signingKeyCheck) {
+        this(repository, jwtProvider, repositoryJwt, tokenRefresher, signingKeyCheck, new InFlightMints());
+    }
+
+    @Autowired
+    public AuthenticateClientService(RepositoryKey repository, JwtKey jwtProvider, RepositoryJwt<String> repositoryJwt,
+                                     TokenRefresher tokenRefresher, SigningKeyCheck signingKeyCheck,
+                                     InFlightMints inFlightMints) {
         this.repository = repository;
         this.jwtProvider = jwtProvider;
         this.repositoryJwt = repositoryJwt;
+        this.tokenRefresher = tokenRefresher;
+        this.signingKeyCheck = signingKeyCheck;
+        this.inFlightMints = inFlightMints;
     }
 
     @Override
@@ -36,17 +92,198 @@ public class AuthenticateClientService implements AuthenticateClientUseCase<Auth
                     .thenCompose(jwt -> {
 
                         if (jwt != null) {
-                            return CompletableFuture.completedFuture(new AuthResponse(jwt));
+                            if (!signingKeyCheck.isRetired(jwt)) {
+                                tokenRefresher.onTokenServed(request.clientId(), jwt);
+                                return CompletableFuture.completedFuture(new AuthResponse(jwt));
+                            }
+                            retiredKeyMints.increment();
                         }
 
-                        return jwtProvider.generateToken(request.clientId())
-                            .thenCompose(token ->
-                                repositoryJwt.saveJwt(request.clientId(), token)
-                                    .thenApply(v -> new AuthResponse(token))
-                            );
+                        return mintOnce(request.clientId()).thenApply(token -> {
+                            tokenRefresher.onTokenServed(request.clientId(), token);
+                            return new AuthResponse(token);
+                        });
                     });
             });
     }
 
+    @Override
+    public CompletableFuture<List<AuthResponse>> authenticateAll(List<AuthRequest> requests) {
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>(requests.size());
+        for (AuthRequest request : requests) {
+            checks.add(checkCredentials(request));
+        }
+        return settled(checks).thenCompose(ignored -> {
+            Set<String> validClients = new LinkedHashSet<>();
+            for (int i = 0; i < requests.size(); i++) {
+                if (isTrue(checks.get(i))) {
+                    validClients.add(requests.get(i).clientId());
+                }
+            }
+            return tokensFor(validClients).handle((tokens, error) -> {
+                List<CompletableFuture<AuthResponse>> responses = new ArrayList<>(requests.size());
+                for (int i = 0; i < requests.size(); i++) {
+                    String clientId = requests.get(i).clientId();
+                    CompletableFuture<Boolean> check = checks.get(i);
+                    if (check.isCompletedExceptionally()) {
+                        responses.add(CompletableFuture.completedFuture(failed(failure(check))));
+                    } else if (!isTrue(check)) {
+                        responses.add(CompletableFuture.completedFuture(
+                            AuthResponse.error("Authentication failed", "Invalid client ID or product key")));
+                    } else if (error != null) {
+                        responses.add(CompletableFuture.completedFuture(failed(unwrap(error))));
+                    } else {
+                        responses.add(tokens.get(clientId).handle((token, mintError) -> {
+                            if (mintError != null) {
+                                return failed(unwrap(mintError));
+                            }
+                            tokenRefresher.onTokenServed(clientId, token);
+                            return new AuthResponse(token);
+                        }));
+                    }
+                }
+                return responses;
+            });
+        }).thenCompose(responses -> settled(responses)
+            .thenApply(ignored -> responses.stream().map(CompletableFuture::join).toList()));
+    }
+
+    private CompletableFuture<Boolean> checkCredentials(AuthRequest request) {
+        try {
+            return repository.isValidClient(request.clientId(), request.productKey());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Cached token or in-flight mint of every client, from one getAll and one saveAll
+    private CompletableFuture<Map<String, CompletableFuture<String>>> tokensFor(Set<String> clientIds) {
+        if (clientIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        CompletableFuture<Map<String, String>> cached;
+        try {
+            cached = repositoryJwt.getAll(clientIds);
+        } catch (RuntimeException e) {
+            cached = CompletableFuture.failedFuture(e);
+        }
+        return cached.thenApply(found -> {
+            Map<String, CompletableFuture<String>> tokens = new HashMap<>();
+            List<String> misses = new ArrayList<>();
+            for (String clientId : clientIds) {
+                String jwt = found.get(clientId);
+                if (jwt != null && !signingKeyCheck.isRetired(jwt)) {
+                    tokens.put(clientId, CompletableFuture.completedFuture(jwt));
+                    continue;
+                }
+                if (jwt != null) {
+                    retiredKeyMints.increment();
+                }
+                misses.add(clientId);
+            }
+            tokens.putAll(mintAll(misses));
+            return tokens;
+        });
+    }
+
+    // Batch counterpart of mintOnce: joins mints already in flight and saves the rest together
+    private Map<String, CompletableFuture<String>> mintAll(List<String> clientIds) {
+        Map<String, CompletableFuture<String>> results = new HashMap<>();
+        Map<String, CompletableFuture<String>> owned = new HashMap<>();
+        for (String clientId : clientIds) {
+            CompletableFuture<String> mint = new CompletableFuture<>();
+            CompletableFuture<String> inFlight = inFlightMints.claim(clientId, mint);
+            if (inFlight != null) {
+                results.put(clientId, inFlight);
+            } else {
+                results.put(clientId, mint);
+                owned.put(clientId, mint);
+            }
+        }
+        if (owned.isEmpty()) {
+            return results;
+        }
+        Map<String, CompletableFuture<String>> generated = new HashMap<>();
+        for (String clientId : owned.keySet()) {
+            try {
+                generated.put(clientId, jwtProvider.generateToken(clientId));
+            } catch (RuntimeException e) {
+                generated.put(clientId, CompletableFuture.failedFuture(e));
+            }
+        }
+        settled(generated.values()).thenCompose(ignored -> {
+            Map<String, String> tokens = new HashMap<>();
+            generated.forEach((clientId, token) -> {
+                if (!token.isCompletedExceptionally()) {
+                    tokens.put(clientId, token.join());
+                }
+            });
+            if (tokens.isEmpty()) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            try {
+                return repositoryJwt.saveAll(tokens);
+            } catch (RuntimeException e) {
+                return CompletableFuture.<Void>failedFuture(e);
+            }
+        }).whenComplete((ignored, saveError) -> owned.forEach((clientId, mint) -> {
+            CompletableFuture<String> token = generated.get(clientId);
+            if (token.isCompletedExceptionally()) {
+                inFlightMints.complete(clientId, mint, null, failure(token));
+            } else {
+                inFlightMints.complete(clientId, mint, token.join(), saveError);
+            }
+        }));
+        return results;
+    }
+
+    private static AuthResponse failed(Throwable error) {
+        return AuthResponse.error("Authentication failed", error.getMessage());
+    }
+
+    // Completes once every future has, whatever their outcome
+    private static CompletableFuture<Void> settled(Collection<? extends CompletableFuture<?>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).handle((ignored, error) -> null);
+    }
+
+    private static boolean isTrue(CompletableFuture<Boolean> check) {
+        return !check.isCompletedExceptionally() && Boolean.TRUE.equals(check.join());
+    }
+
+    // Cause of a future that already completed exceptionally
+    private static Throwable failure(CompletableFuture<?> future) {
+        return future.handle((ignored, error) -> unwrap(error)).join();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private CompletableFuture<String> mintOnce(String clientId) {
+        return inFlightMints.mintOnce(clientId, () -> jwtProvider.generateToken(clientId)
+            .thenCompose(token -> repositoryJwt.saveJwt(clientId, token).thenApply(v -> token)));
+    }
+
+    /**
+     * Tokens actually generated because of a cache miss.
+     */
+    public long mintCount() {
+        return inFlightMints.mintCount();
+    }
+
+    /**
+     * Cache misses that joined a mint already in flight for the same client.
+     */
+    public long coalescedCount() {
+        return inFlightMints.coalescedCount();
+    }
+
+    /**
+     * Cached tokens re-minted because the key that signed them was retired.
+     */
+    public long retiredKeyMintCount() {
+        return retiredKeyMints.sum();
+    }
+
 
 }
@@ -0,0 +1,91 @@
+package com.markesiano.auth_service.application.usecases;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Token mints in flight, per clientId, shared by AuthenticateClientService and
+ * ReactiveAuthenticateClientService so a miss on either path joins a mint already
+ * started by the other instead of signing and writing its own token.
+ *
+ * A mint is registered with claim, which returns the mint already in flight for the
+ * client if there is one, and ended with complete, which removes it before completing
+ * it so a follow-up miss starts a fresh mint.
+ */
+@Component
+public class InFlightMints {
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder mints = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Registers 'mint' as the mint of the client.
+     *
+     * @return the mint already in flight for the client, or null if 'mint' was registered
+     *         and the caller has to complete it
+     */
+    public CompletableFuture<String> claim(String clientId, CompletableFuture<String> mint) {
+        CompletableFuture<String> current = inFlight.putIfAbsent(clientId, mint);
+        if (current != null) {
+            coalesced.increment();
+        } else {
+            mints.increment();
+        }
+        return current;
+    }
+
+    /**
+     * Ends a mint registered with claim, with the saved token or the error that stopped it.
+     */
+    public void complete(String clientId, CompletableFuture<String> mint, String token, Throwable error) {
+        inFlight.remove(clientId, mint);
+        if (error != null) {
+            mint.completeExceptionally(unwrap(error));
+        } else {
+            mint.complete(token);
+        }
+    }
+
+    /**
+     * The mint in flight for the client, or a new one running 'generateAndSave'.
+     */
+    public CompletableFuture<String> mintOnce(String clientId, Supplier<CompletableFuture<String>> generateAndSave) {
+        CompletableFuture<String> mint = new CompletableFuture<>();
+        CompletableFuture<String> current = claim(clientId, mint);
+        if (current != null) {
+            return current;
+        }
+        CompletableFuture<String> saved;
+        try {
+            saved = generateAndSave.get();
+        } catch (RuntimeException e) {
+            saved = CompletableFuture.failedFuture(e);
+        }
+        saved.whenComplete((token, error) -> complete(clientId, mint, token, error));
+        return mint;
+    }
+
+    /**
+     * Tokens actually generated because of a cache miss.
+     */
+    public long mintCount() {
+        return mints.sum();
+    }
+
+    /**
+     * Cache misses that joined a mint already in flight for the same client.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
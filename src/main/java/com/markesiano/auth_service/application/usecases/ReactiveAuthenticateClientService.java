@@ -0,0 +1,83 @@
+package com.markesiano.auth_service.application.usecases;
+
+import com.markesiano.auth_service.application.exceptions.InvalidCredentialsException;
+import com.markesiano.auth_service.application.interfaces.ReactiveJwtKey;
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryKey;
+import com.markesiano.auth_service.application.interfaces.SigningKeyCheck;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
+import com.markesiano.auth_service.application.usecases.interfaces.ReactiveAuthenticateClientUseCase;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Mono based counterpart of {@link AuthenticateClientService}. Nothing in the chain
+ * blocks, so remote cache lookups hold no thread while they are in flight.
+ * A cached token signed with a retired key is treated as a miss. Every token handed
+ * out, cached or minted, is reported to the TokenRefresher.
+ *
+ * Misses are single-flight per clientId through InFlightMints; given the same instance
+ * as AuthenticateClientService, a request here and a batch there also share one mint.
+ */
+public class ReactiveAuthenticateClientService implements ReactiveAuthenticateClientUseCase<AuthResponse, AuthRequest> {
+    private final ReactiveRepositoryKey repository;
+    private final ReactiveJwtKey jwtProvider;
+    private final ReactiveRepositoryJwt<String> repositoryJwt;
+    private final TokenRefresher tokenRefresher;
+    private final SigningKeyCheck signingKeyCheck;
+    private final InFlightMints inFlightMints;
+
+    public ReactiveAuthenticateClientService(ReactiveRepositoryKey repository, ReactiveJwtKey jwtProvider,
+                                             ReactiveRepositoryJwt<String> repositoryJwt) {
+        this(repository, jwtProvider, repositoryJwt, TokenRefresher.NONE);
+    }
+
+    public ReactiveAuthenticateClientService(ReactiveRepositoryKey repository, ReactiveJwtKey jwtProvider,
+                                             ReactiveRepositoryJwt<String> repositoryJwt, TokenRefresher tokenRefresher) {
+        this(repository, jwtProvider, repositoryJwt, tokenRefresher, SigningKeyCheck.NONE);
+    }
+
+    public ReactiveAuthenticateClientService(ReactiveRepositoryKey repository, ReactiveJwtKey jwtProvider,
+                                             ReactiveRepositoryJwt<String> repositoryJwt, TokenRefresher tokenRefresher,
+                                             SigningKeyCheck signingKeyCheck) {
+        this(repository, jwtProvider, repositoryJwt, tokenRefresher, signingKeyCheck, new InFlightMints());
+    }
+
+    public ReactiveAuthenticateClientService(ReactiveRepositoryKey repository, ReactiveJwtKey jwtProvider,
+                                             ReactiveRepositoryJwt<String> repositoryJwt, TokenRefresher tokenRefresher,
+                                             SigningKeyCheck signingKeyCheck, InFlightMints inFlightMints) {
+        this.repository = repository;
+        this.jwtProvider = jwtProvider;
+        this.repositoryJwt = repositoryJwt;
+        this.tokenRefresher = tokenRefresher;
+        this.signingKeyCheck = signingKeyCheck;
+        this.inFlightMints = inFlightMints;
+    }
+
+    @Override
+    public Mono<AuthResponse> authenticate(AuthRequest request) {
+        return repository.isValidClient(request.clientId(), request.productKey())
+            .defaultIfEmpty(false)
+            .flatMap(isValid -> {
+                if (!isValid) {
+                    return Mono.error(new InvalidCredentialsException("Invalid client ID or product key"));
+                }
+                return repositoryJwt.getJwtCached(request.clientId())
+                    .filter(jwt -> !signingKeyCheck.isRetired(jwt))
+                    .switchIfEmpty(Mono.defer(() -> mintOnce(request.clientId())))
+                    .map(token -> {
+                        tokenRefresher.onTokenServed(request.clientId(), token);
+                        return new AuthResponse(token);
+                    });
+            });
+    }
+
+    // Cancelling one waiter must not cancel the mint the other waiters share
+    private Mono<String> mintOnce(String clientId) {
+        return Mono.fromFuture(inFlightMints.mintOnce(clientId, () -> jwtProvider.generateToken(clientId)
+            .flatMap(token -> repositoryJwt.saveJwt(clientId, token).thenReturn(token))
+            .toFuture()), true);
+    }
+}
@@ -1,7 +1,11 @@
 package com.markesiano.auth_service.application.usecases.interfaces;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface AuthenticateClientUseCase<TResponse, TRequest> {
     CompletableFuture<TResponse> authenticate(TRequest request);
+
+    // One response per request, in the same order; a failed item does not fail the batch
+    CompletableFuture<List<TResponse>> authenticateAll(List<TRequest> requests);
 }
@@ -0,0 +1,7 @@
+package com.markesiano.auth_service.application.usecases.interfaces;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthenticateClientUseCase<TResponse, TRequest> {
+    Mono<TResponse> authenticate(TRequest request);
+}
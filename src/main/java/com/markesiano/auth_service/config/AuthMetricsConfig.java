@@ -0,0 +1,67 @@
+package com.markesiano.auth_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.markesiano.auth_service.application.interfaces.TokenVerifier;
+import com.markesiano.auth_service.application.usecases.AuthenticateClientService;
+import com.markesiano.auth_service.infraestructure.security.CachingJwtVerifier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics of the authentication use case.
+ */
+@Configuration
+public class AuthMetricsConfig {
+
+    /**
+     * Publishes how many cache misses minted a token, how many joined a mint already
+     * in flight for the same client and how many cached tokens had a retired signing key.
+     */
+    @Bean
+    public MeterBinder tokenMintMetrics(AuthenticateClientService authenticateClientService) {
+        return registry -> {
+            FunctionCounter.builder("auth.token.mints", authenticateClientService, AuthenticateClientService::mintCount)
+                .description("Tokens generated because of a cache miss")
+                .register(registry);
+            FunctionCounter.builder("auth.token.mints.coalesced", authenticateClientService, AuthenticateClientService::coalescedCount)
+                .description("Cache misses served by a mint already in flight for the same client")
+                .register(registry);
+            FunctionCounter.builder("auth.token.mints.retired.key", authenticateClientService, AuthenticateClientService::retiredKeyMintCount)
+                .description("Cached tokens re-minted because their signing key was retired")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Publishes verifications answered from the verified-token cache, full verifications,
+     * rejected tokens and the cache hit ratio.
+     */
+    @Bean
+    public MeterBinder tokenVerificationMetrics(TokenVerifier tokenVerifier) {
+        return registry -> {
+            if (!(tokenVerifier instanceof CachingJwtVerifier verifier)) {
+                return;
+            }
+            FunctionCounter.builder("auth.token.verifications.cached", verifier, CachingJwtVerifier::hitCount)
+                .description("Verifications answered from the verified-token cache")
+                .register(registry);
+            FunctionCounter.builder("auth.token.verifications.full", verifier, CachingJwtVerifier::missCount)
+                .description("Verifications that parsed the token and checked its signature")
+                .register(registry);
+            FunctionCounter.builder("auth.token.verifications.rejected", verifier, CachingJwtVerifier::rejectionCount)
+                .description("Tokens found forged, malformed or expired")
+                .register(registry);
+            FunctionCounter.builder("auth.token.verifications.evictions", verifier, CachingJwtVerifier::evictionCount)
+                .register(registry);
+            Gauge.builder("auth.token.verifications.hit.ratio", verifier, CachingJwtVerifier::hitRatio)
+                .description("Share of verifications answered from the cache")
+                .register(registry);
+            Gauge.builder("auth.token.verifications.cache.size", verifier, CachingJwtVerifier::getCacheSize)
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.markesiano.auth_service.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.infraestructure.data.ClientKeyDirectoryWatcher;
+import com.markesiano.auth_service.infraestructure.data.ClientKeyJpaRepository;
+import com.markesiano.auth_service.infraestructure.data.InMemoryClientKeyRepository;
+import com.markesiano.auth_service.infraestructure.data.JpaClientKeyRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Selects where client credentials are read from.
+ *
+ * - If 'client-keys.repository.type=jpa' is configured, JpaClientKeyRepository will be used,
+ *   keys live in the configured datasource (H2 by default) behind a read-through cache
+ * - If 'client-keys.repository.type=memory' or no configuration is present, the
+ *   InMemoryClientKeyRepository component will be used
+ *
+ * Both reject clientIds missing from a Bloom filter before any other work unless
+ * 'client-keys.bloom-filter.enabled=false'.
+ *
+ * With 'client-keys.watch.enabled=true' the in-memory credentials are loaded from the
+ * files in 'client-keys.watch.directory' and reloaded whenever they change. The jpa
+ * repository does not read them, so enabling the watcher with it fails at startup.
+ */
+@Configuration
+public class ClientKeyRepositoryConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+        name = "client-keys.repository.type",
+        havingValue = "jpa"
+    )
+    public RepositoryKey jpaClientKeyRepository(ClientKeyJpaRepository clientKeyJpaRepository,
+                                                @Qualifier("ioExecutor") Executor ioExecutor,
+                                                @Value("${client-keys.repository.cache.max-entries:10000}") int maxEntries,
+                                                @Value("${client-keys.repository.cache.ttl:5m}") Duration ttl,
+                                                @Value("${client-keys.repository.cache.negative-ttl:30s}") Duration negativeTtl,
+                                                @Value("${client-keys.bloom-filter.enabled:true}") boolean filterEnabled,
+                                                @Value("${client-keys.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                                @Value("${client-keys.bloom-filter.refresh-interval:1m}") Duration filterRefresh) {
+        return new JpaClientKeyRepository(clientKeyJpaRepository, ioExecutor, maxEntries, ttl, negativeTtl,
+            filterEnabled ? falsePositiveRate : 0.0, filterRefresh, TimeSource.SYSTEM);
+    }
+
+    /**
+     * Publishes credential cache lookups per result, its size and the database query latency.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "client-keys.repository.type", havingValue = "jpa")
+    public MeterBinder jpaClientKeyRepositoryMetrics(RepositoryKey repositoryKey) {
+        return registry -> {
+            if (!(repositoryKey instanceof JpaClientKeyRepository jpa)) {
+                return;
+            }
+            FunctionCounter.builder("auth.client.keys.cache.lookups", jpa, JpaClientKeyRepository::hitCount)
+                .tag("result", "hit")
+                .description("Credential checks answered by the cache for a known client")
+                .register(registry);
+            FunctionCounter.builder("auth.client.keys.cache.lookups", jpa, JpaClientKeyRepository::negativeHitCount)
+                .tag("result", "negative-hit")
+                .description("Credential checks answered by the cache for an unknown client")
+                .register(registry);
+            FunctionCounter.builder("auth.client.keys.cache.lookups", jpa, JpaClientKeyRepository::missCount)
+                .tag("result", "miss")
+                .description("Credential checks that queried the database")
+                .register(registry);
+            FunctionCounter.builder("auth.client.keys.cache.evictions", jpa, JpaClientKeyRepository::evictionCount)
+                .description("Credentials evicted because the cache was full")
+                .register(registry);
+            Gauge.builder("auth.client.keys.cache.size", jpa, JpaClientKeyRepository::getCacheSize)
+                .description("Credentials held by the cache, unknown clients included")
+                .register(registry);
+            FunctionTimer.builder("auth.client.keys.db.queries", jpa,
+                    JpaClientKeyRepository::queryCount, JpaClientKeyRepository::queryNanos, TimeUnit.NANOSECONDS)
+                .description("Credential lookups sent to the database")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Publishes the lookups the clientId Bloom filter rejected up front.
+     */
+    @Bean
+    public MeterBinder clientIdFilterMetrics(RepositoryKey repositoryKey) {
+        return registry -> {
+            if (repositoryKey instanceof InMemoryClientKeyRepository inMemory) {
+                FunctionCounter.builder("auth.client.keys.filter.rejections", inMemory, InMemoryClientKeyRepository::filterRejectionCount)
+                    .description("Credential checks rejected by the clientId Bloom filter")
+                    .register(registry);
+            } else if (repositoryKey instanceof JpaClientKeyRepository jpa) {
+                FunctionCounter.builder("auth.client.keys.filter.rejections", jpa, JpaClientKeyRepository::filterRejectionCount)
+                    .description("Credential checks rejected by the clientId Bloom filter")
+                    .register(registry);
+                FunctionCounter.builder("auth.client.keys.filter.refresh.failures", jpa, JpaClientKeyRepository::filterRefreshFailureCount)
+                    .description("Rebuilds of the clientId Bloom filter that failed to read the table")
+                    .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "client-keys.watch.enabled", havingValue = "true")
+    public ClientKeyDirectoryWatcher clientKeyDirectoryWatcher(InMemoryClientKeyRepository inMemoryClientKeyRepository,
+                                                               @Value("${client-keys.repository.type:memory}") String repositoryType,
+                                                               @Value("${client-keys.watch.directory}") String directory,
+                                                               @Value("${client-keys.watch.debounce:500ms}") Duration debounce) {
+        if ("jpa".equals(repositoryType)) {
+            throw new IllegalStateException(
+                "client-keys.watch.enabled only reloads the memory repository, not client-keys.repository.type=jpa");
+        }
+        return new ClientKeyDirectoryWatcher(inMemoryClientKeyRepository, Path.of(directory), debounce);
+    }
+
+    /**
+     * Publishes reloads of the watched credential files and the size of the credential snapshot.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "client-keys.watch.enabled", havingValue = "true")
+    public MeterBinder clientKeyReloadMetrics(ClientKeyDirectoryWatcher watcher, InMemoryClientKeyRepository inMemoryClientKeyRepository) {
+        return registry -> {
+            FunctionTimer.builder("auth.client.keys.reloads", watcher,
+                    ClientKeyDirectoryWatcher::reloadCount, ClientKeyDirectoryWatcher::reloadNanos, TimeUnit.NANOSECONDS)
+                .description("Reloads of the watched credential files")
+                .register(registry);
+            FunctionCounter.builder("auth.client.keys.reload.failures", watcher, ClientKeyDirectoryWatcher::reloadFailureCount)
+                .description("Reloads in which a credential file could not be read")
+                .register(registry);
+            Gauge.builder("auth.client.keys.snapshot.size", inMemoryClientKeyRepository, InMemoryClientKeyRepository::size)
+                .description("Clients in the current credential snapshot")
+                .register(registry);
+        };
+    }
+}
@@ -1,14 +1,31 @@
 package com.markesiano.auth_service.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
 import com.markesiano.auth_service.infraestructure.data.InMemoryJwtRepository;
+import com.markesiano.auth_service.infraestructure.data.MappedFileJwtRepository;
+import com.markesiano.auth_service.infraestructure.data.NativeRedisJwtRepository;
+import com.markesiano.auth_service.infraestructure.data.NearCacheJwtRepository;
+import com.markesiano.auth_service.infraestructure.data.OffHeapJwtRepository;
 import com.markesiano.auth_service.infraestructure.data.RedisJwtRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 /**
  * Configuration class for JWT Repository implementations.
@@ -17,14 +34,29 @@ import com.markesiano.auth_service.infraestructure.data.RedisJwtRepository;
  * based on application properties:
  * 
  * - If 'jwt.repository.type=redis' is configured, RedisJwtRepository will be used
+ * - If 'jwt.repository.type=redis-native' is configured, NativeRedisJwtRepository will be used
+ * - If 'jwt.repository.type=offheap' is configured, OffHeapJwtRepository will be used
+ * - If 'jwt.repository.type=mmap' is configured, MappedFileJwtRepository will be used
  * - If 'jwt.repository.type=memory' or no configuration is present, InMemoryJwtRepository will be used
  * 
  * You can also use Redis-specific properties:
  * - If 'cachedredis.uri' is configured, RedisJwtRepository will be used
  * - Otherwise, InMemoryJwtRepository will be used as fallback
+ *
+ * With 'jwt.repository.near-cache.enabled=true' the Redis repositories are wrapped in a
+ * NearCacheJwtRepository that keeps recently used tokens in a bounded local map.
  */
 @Configuration
 public class JwtRepositoryConfig {
+
+    @Value("${jwt.repository.near-cache.enabled:false}")
+    private boolean nearCacheEnabled;
+    @Value("${jwt.repository.near-cache.max-entries:10000}")
+    private int nearCacheMaxEntries;
+    @Value("${jwt.repository.near-cache.ttl:5m}")
+    private Duration nearCacheTtl;
+    @Value("${cachedredis.client.batch-endpoints:true}")
+    private boolean batchEndpoints;
     
     /**
      * Redis JWT Repository bean that will be selected when Redis is configured.
@@ -37,9 +69,24 @@ public class JwtRepositoryConfig {
         matchIfMissing = false
     )
     public RepositoryJwt<String> redisJwtRepository(WebClient webClient) {
-        return new RedisJwtRepository(webClient);
+        return withNearCache(new RedisJwtRepository(webClient, batchEndpoints));
     }
     
+    /**
+     * Redis JWT Repository that speaks RESP directly to Redis, skipping the HTTP proxy.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+        name = "jwt.repository.type",
+        havingValue = "redis-native"
+    )
+    public RepositoryJwt<String> nativeRedisJwtRepository(StatefulRedisConnection<String, String> redisConnection,
+                                                          @Value("${redis.native.key-prefix:jwt:}") String keyPrefix,
+                                                          @Value("${redis.native.ttl:1h}") Duration ttl) {
+        return withNearCache(new NativeRedisJwtRepository(redisConnection, keyPrefix, ttl));
+    }
+
     /**
      * Fallback JWT Repository (In-Memory) used when Redis is not configured.
      * This is the default implementation that will be used if no specific
@@ -52,10 +99,46 @@ public class JwtRepositoryConfig {
         havingValue = "memory",
         matchIfMissing = true
     )
-    public RepositoryJwt<String> inMemoryJwtRepository() {
-        return new InMemoryJwtRepository();
+    public RepositoryJwt<String> inMemoryJwtRepository(@Qualifier("cpuExecutor") Executor cpuExecutor,
+                                                       @Value("${jwt.repository.memory.max-entries:100000}") int maxEntries,
+                                                       @Value("${jwt.repository.memory.max-bytes:64MB}") DataSize maxBytes) {
+        return new InMemoryJwtRepository(cpuExecutor, maxEntries, maxBytes.toBytes());
     }
     
+    /**
+     * In-process JWT Repository that keeps tokens outside the Java heap, for caches of
+     * millions of clients where GC pauses must not grow with the cache.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+        name = "jwt.repository.type",
+        havingValue = "offheap"
+    )
+    public RepositoryJwt<String> offHeapJwtRepository(@Qualifier("cpuExecutor") Executor cpuExecutor,
+                                                      @Value("${jwt.repository.offheap.max-entries:1000000}") int maxEntries,
+                                                      @Value("${jwt.repository.offheap.slot-size:512B}") DataSize slotSize,
+                                                      @Value("${jwt.repository.offheap.segments:16}") int segments) {
+        return new OffHeapJwtRepository(cpuExecutor, maxEntries, (int) slotSize.toBytes(), segments, TimeSource.SYSTEM);
+    }
+
+    /**
+     * Memory-mapped file JWT Repository bean, keeps the cached tokens across restarts.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+        name = "jwt.repository.type",
+        havingValue = "mmap"
+    )
+    public RepositoryJwt<String> mappedFileJwtRepository(@Qualifier("cpuExecutor") Executor cpuExecutor,
+                                                         @Value("${jwt.repository.mmap.path:data/jwt-cache.log}") String path,
+                                                         @Value("${jwt.repository.mmap.capacity:256MB}") DataSize capacity,
+                                                         @Value("${jwt.repository.mmap.compaction-interval:5m}") Duration compactionInterval) {
+        return new MappedFileJwtRepository(Path.of(path), Math.toIntExact(capacity.toBytes()), compactionInterval,
+            cpuExecutor, TimeSource.SYSTEM);
+    }
+
     /**
      * Alternative configuration based on Redis URI presence.
      * This provides backward compatibility with existing configurations.
@@ -63,6 +146,148 @@ public class JwtRepositoryConfig {
     @Bean
     @ConditionalOnProperty(name = "cachedredis.uri")
     public RepositoryJwt<String> redisJwtRepositoryByUri(WebClient webClient) {
-        return new RedisJwtRepository(webClient);
+        return withNearCache(new RedisJwtRepository(webClient, batchEndpoints));
+    }
+
+    /**
+     * Publishes lookups per tier, hit ratios and evictions of the near cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jwt.repository.near-cache.enabled", havingValue = "true")
+    public MeterBinder nearCacheMetrics(RepositoryJwt<String> repositoryJwt) {
+        return registry -> {
+            if (!(repositoryJwt instanceof NearCacheJwtRepository nearCache)) {
+                return;
+            }
+            FunctionCounter.builder("auth.jwt.cache.lookups", nearCache, NearCacheJwtRepository::localHitCount)
+                .tags("tier", "local", "result", "hit")
+                .description("Token lookups answered by the local tier")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.lookups", nearCache, NearCacheJwtRepository::remoteHitCount)
+                .tags("tier", "remote", "result", "hit")
+                .description("Token lookups answered by the remote tier")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.lookups", nearCache, NearCacheJwtRepository::missCount)
+                .tags("tier", "remote", "result", "miss")
+                .description("Token lookups found in neither tier")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.hit.ratio", nearCache, NearCacheJwtRepository::localHitRatio)
+                .tag("tier", "local")
+                .description("Share of lookups answered locally")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.hit.ratio", nearCache, NearCacheJwtRepository::remoteHitRatio)
+                .tag("tier", "remote")
+                .description("Share of remote lookups that found a token")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.size", nearCache, NearCacheJwtRepository::getLocalSize)
+                .tag("tier", "local")
+                .description("Tokens held by the local tier")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.evictions", nearCache, NearCacheJwtRepository::evictionCount)
+                .tag("tier", "local")
+                .description("Tokens evicted from the local tier because it was full")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Publishes size, retained bytes, evictions and expirations of the in-memory cache.
+     */
+    @Bean
+    public MeterBinder inMemoryJwtRepositoryMetrics(RepositoryJwt<String> repositoryJwt) {
+        return registry -> {
+            if (!(repositoryJwt instanceof InMemoryJwtRepository inMemory)) {
+                return;
+            }
+            Gauge.builder("auth.jwt.cache.size", inMemory, InMemoryJwtRepository::getCacheSize)
+                .tag("tier", "memory")
+                .description("Tokens held by the in-memory cache")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.bytes", inMemory, InMemoryJwtRepository::weightedBytes)
+                .tag("tier", "memory")
+                .description("Estimated heap retained by the in-memory cache")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.evictions", inMemory, InMemoryJwtRepository::evictionCount)
+                .tag("tier", "memory")
+                .description("Tokens evicted because the entry or byte limit was reached")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.expirations", inMemory, InMemoryJwtRepository::expirationCount)
+                .tag("tier", "memory")
+                .description("Tokens removed because they expired")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.expiry.scheduled", inMemory, InMemoryJwtRepository::scheduledExpiryCount)
+                .tag("tier", "memory")
+                .description("Expiry timers pending on the timing wheel")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Publishes size, reserved memory, evictions and rejected tokens of the off-heap cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jwt.repository.type", havingValue = "offheap")
+    public MeterBinder offHeapJwtRepositoryMetrics(RepositoryJwt<String> repositoryJwt) {
+        return registry -> {
+            if (!(repositoryJwt instanceof OffHeapJwtRepository offHeap)) {
+                return;
+            }
+            Gauge.builder("auth.jwt.cache.size", offHeap, OffHeapJwtRepository::getCacheSize)
+                .tag("tier", "offheap")
+                .description("Tokens held by the off-heap cache")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.bytes", offHeap, OffHeapJwtRepository::reservedBytes)
+                .tag("tier", "offheap")
+                .description("Direct memory reserved by the off-heap cache")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.evictions", offHeap, OffHeapJwtRepository::evictionCount)
+                .tag("tier", "offheap")
+                .description("Tokens evicted because the cache was full")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.oversized", offHeap, OffHeapJwtRepository::oversizedCount)
+                .tag("tier", "offheap")
+                .description("Tokens not cached because they did not fit in a slot")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Publishes size, file usage and compactions of the memory-mapped cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jwt.repository.type", havingValue = "mmap")
+    public MeterBinder mappedFileJwtRepositoryMetrics(RepositoryJwt<String> repositoryJwt) {
+        return registry -> {
+            if (!(repositoryJwt instanceof MappedFileJwtRepository mapped)) {
+                return;
+            }
+            Gauge.builder("auth.jwt.cache.size", mapped, MappedFileJwtRepository::getCacheSize)
+                .tag("tier", "mmap")
+                .description("Tokens indexed in the memory-mapped cache")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.bytes", mapped, MappedFileJwtRepository::usedBytes)
+                .tag("tier", "mmap")
+                .description("Bytes of the token file in use, dead records included")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.live.bytes", mapped, MappedFileJwtRepository::liveBytes)
+                .tag("tier", "mmap")
+                .description("Bytes of the token file holding the latest record of each client")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.compactions", mapped, MappedFileJwtRepository::compactionCount)
+                .tag("tier", "mmap")
+                .description("Rewrites of the token file that dropped dead records")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.rejected", mapped, MappedFileJwtRepository::rejectedCount)
+                .tag("tier", "mmap")
+                .description("Tokens not persisted because the token file was full")
+                .register(registry);
+        };
+    }
+
+    private RepositoryJwt<String> withNearCache(RepositoryJwt<String> remote) {
+        if (!nearCacheEnabled) {
+            return remote;
+        }
+        return new NearCacheJwtRepository(remote, nearCacheMaxEntries, nearCacheTtl);
     }
 }
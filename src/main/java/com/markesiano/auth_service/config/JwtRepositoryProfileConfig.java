@@ -1,10 +1,14 @@
 package com.markesiano.auth_service.config;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Primary;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
@@ -26,15 +30,18 @@ public class JwtRepositoryProfileConfig {
     @Primary
     @Profile("redis")
     @Qualifier("redisJwtRepo")
-    public RepositoryJwt<String> redisJwtRepository(WebClient webClient) {
-        return new RedisJwtRepository(webClient);
+    public RepositoryJwt<String> redisJwtRepository(WebClient webClient,
+                                                    @Value("${cachedredis.client.batch-endpoints:true}") boolean batchEndpoints) {
+        return new RedisJwtRepository(webClient, batchEndpoints);
     }
     
     @Bean
     @Primary
     @Profile({"dev", "test", "memory", "default"})
     @Qualifier("inMemoryJwtRepo")
-    public RepositoryJwt<String> inMemoryJwtRepository() {
-        return new InMemoryJwtRepository();
+    public RepositoryJwt<String> inMemoryJwtRepository(@Qualifier("cpuExecutor") Executor cpuExecutor,
+                                                       @Value("${jwt.repository.memory.max-entries:100000}") int maxEntries,
+                                                       @Value("${jwt.repository.memory.max-bytes:64MB}") DataSize maxBytes) {
+        return new InMemoryJwtRepository(cpuExecutor, maxEntries, maxBytes.toBytes());
     }
 }
@@ -0,0 +1,73 @@
+package com.markesiano.auth_service.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.application.interfaces.ReactiveJwtKey;
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryKey;
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.application.interfaces.SigningKeyCheck;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
+import com.markesiano.auth_service.application.usecases.InFlightMints;
+import com.markesiano.auth_service.application.usecases.ReactiveAuthenticateClientService;
+import com.markesiano.auth_service.application.usecases.interfaces.ReactiveAuthenticateClientUseCase;
+import com.markesiano.auth_service.infraestructure.data.ReactiveRedisJwtRepository;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+import com.markesiano.auth_service.infraestructure.reactive.ReactiveJwtKeyAdapter;
+import com.markesiano.auth_service.infraestructure.reactive.ReactiveRepositoryJwtAdapter;
+import com.markesiano.auth_service.infraestructure.reactive.ReactiveRepositoryKeyAdapter;
+
+/**
+ * Wiring for the reactive token endpoint, active with 'auth.web.reactive=true'.
+ *
+ * - With 'jwt.repository.type=redis' the cache is accessed through ReactiveRedisJwtRepository,
+ *   which never blocks, unless the near cache is enabled and has to sit in front of it
+ * - Otherwise the configured RepositoryJwt, RepositoryKey and JwtKey are adapted to Mono
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.web.reactive", havingValue = "true")
+public class ReactiveAuthConfig {
+
+    @Value("${jwt.repository.type:memory}")
+    private String repositoryType;
+    @Value("${jwt.repository.near-cache.enabled:false}")
+    private boolean nearCacheEnabled;
+
+    @Value("${cachedredis.client.batch-endpoints:true}")
+    private boolean batchEndpoints;
+
+    @Bean
+    public ReactiveRepositoryKey reactiveRepositoryKey(RepositoryKey repositoryKey) {
+        return new ReactiveRepositoryKeyAdapter(repositoryKey);
+    }
+
+    @Bean
+    public ReactiveJwtKey reactiveJwtKey(JwtKey jwtKey) {
+        return new ReactiveJwtKeyAdapter(jwtKey);
+    }
+
+    @Bean
+    public ReactiveRepositoryJwt<String> reactiveRepositoryJwt(ObjectProvider<WebClient> webClient,
+                                                               RepositoryJwt<String> repositoryJwt) {
+        if ("redis".equals(repositoryType) && !nearCacheEnabled) {
+            return new ReactiveRedisJwtRepository(webClient.getObject(), batchEndpoints);
+        }
+        return new ReactiveRepositoryJwtAdapter<>(repositoryJwt);
+    }
+
+    @Bean
+    public ReactiveAuthenticateClientUseCase<AuthResponse, AuthRequest> reactiveAuthenticateClientService(
+            ReactiveRepositoryKey repositoryKey, ReactiveJwtKey jwtKey, ReactiveRepositoryJwt<String> repositoryJwt,
+            TokenRefresher tokenRefresher, SigningKeyCheck signingKeyCheck, InFlightMints inFlightMints) {
+        return new ReactiveAuthenticateClientService(repositoryKey, jwtKey, repositoryJwt, tokenRefresher, signingKeyCheck,
+            inFlightMints);
+    }
+}
@@ -15,6 +15,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/info").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/api/v1/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .anyRequest().authenticated()
             );
         return http.build();
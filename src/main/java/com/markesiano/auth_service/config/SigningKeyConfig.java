@@ -0,0 +1,128 @@
+package com.markesiano.auth_service.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.markesiano.auth_service.infraestructure.security.AsymmetricJwsKey;
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+import com.markesiano.auth_service.infraestructure.security.RotatingKeyRing;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Builds the key ring tokens are signed and verified with, from 'jwt.signer.type'.
+ *
+ * - 'jjwt' or 'compact': HS256 over the secret in the file 'jwt.signer.secret-path' or,
+ *   when it is not set, spring.security.jwt.secret; nothing is published
+ * - 'es256' or 'eddsa': an asymmetric key pair, loaded from the PEM files in
+ *   'jwt.signer.private-key-path' and 'jwt.signer.public-key-path' or, when they are not
+ *   set, generated at startup (only suitable for a single instance, every restart
+ *   invalidates the tokens issued before it). Its public key is served at
+ *   GET /.well-known/jwks.json
+ *
+ * With a positive 'jwt.signer.rotation.interval' the key rotates on that schedule: the PEM
+ * files or the secret file are read again (a changed key becomes the active one, so every
+ * instance follows the files it is given) or, for es256 / eddsa without PEM files, a new
+ * pair is generated. HS256 rotation needs the secret file, a generated secret could not
+ * reach the consumers that verify the tokens. The previous key keeps verifying (and, when
+ * public, stays in the JWKS) for 'jwt.signer.rotation.overlap'.
+ *
+ * Cached tokens signed by the previous key are served until it is retired, so the overlap
+ * has to be at least the token lifetime; a shorter one is rejected at startup, otherwise
+ * tokens handed out just before retirement would stop verifying before their 'exp'.
+ */
+@Configuration
+public class SigningKeyConfig {
+
+    private static final Duration TOKEN_LIFETIME = Duration.ofHours(1); // Match JWT expiration time
+
+    @Bean
+    public RotatingKeyRing signingKeyRing(@Value("${spring.security.jwt.secret}") String secret,
+                                          @Value("${jwt.signer.type:jjwt}") String signerType,
+                                          @Value("${jwt.signer.secret-path:}") String secretPath,
+                                          @Value("${jwt.signer.private-key-path:}") String privateKeyPath,
+                                          @Value("${jwt.signer.public-key-path:}") String publicKeyPath,
+                                          @Value("${jwt.signer.rotation.interval:0}") Duration rotationInterval,
+                                          @Value("${jwt.signer.rotation.overlap:1h}") Duration rotationOverlap) throws IOException {
+        if (rotationOverlap.compareTo(TOKEN_LIFETIME) < 0) {
+            throw new IllegalStateException("jwt.signer.rotation.overlap (" + rotationOverlap
+                + ") must be at least the token lifetime (" + TOKEN_LIFETIME + ")");
+        }
+        String algorithm = switch (signerType) {
+            case "es256" -> AsymmetricJwsKey.ES256;
+            case "eddsa" -> AsymmetricJwsKey.EDDSA;
+            default -> null;
+        };
+        if (algorithm == null) {
+            if (secretPath.isBlank()) {
+                if (!rotationInterval.isZero()) {
+                    throw new IllegalStateException("Scheduled HS256 key rotation needs jwt.signer.secret-path");
+                }
+                return new RotatingKeyRing(JwsKeyRing.of(HmacJwsKey.fromSecret(secret)), null,
+                    Duration.ZERO, rotationOverlap, TimeSource.SYSTEM);
+            }
+            Supplier<JwsKey> nextSecret = () -> loadSecret(secretPath);
+            return new RotatingKeyRing(JwsKeyRing.of(nextSecret.get()), nextSecret,
+                rotationInterval, rotationOverlap, TimeSource.SYSTEM);
+        }
+        boolean fromPem = !privateKeyPath.isBlank() && !publicKeyPath.isBlank();
+        Supplier<JwsKey> nextKey = fromPem
+            ? () -> loadPem(algorithm, privateKeyPath, publicKeyPath)
+            : () -> AsymmetricJwsKey.generate(algorithm);
+        JwsKey key = fromPem
+            ? AsymmetricJwsKey.fromPem(algorithm, Path.of(privateKeyPath), Path.of(publicKeyPath))
+            : nextKey.get();
+        return new RotatingKeyRing(JwsKeyRing.of(key), nextKey, rotationInterval, rotationOverlap, TimeSource.SYSTEM);
+    }
+
+    /**
+     * Publishes rotations, failed scheduled rotations, retired keys and how many keys verify tokens.
+     */
+    @Bean
+    public MeterBinder signingKeyMetrics(RotatingKeyRing signingKeyRing) {
+        return registry -> {
+            FunctionCounter.builder("auth.signing.key.rotations", signingKeyRing, RotatingKeyRing::rotationCount)
+                .description("Times a new signing key became active")
+                .register(registry);
+            FunctionCounter.builder("auth.signing.key.rotation.failures", signingKeyRing, RotatingKeyRing::rotationFailureCount)
+                .description("Scheduled rotations whose new key could not be loaded")
+                .register(registry);
+            FunctionCounter.builder("auth.signing.key.retired", signingKeyRing, RotatingKeyRing::retiredCount)
+                .description("Signing keys dropped after their overlap")
+                .register(registry);
+            Gauge.builder("auth.signing.keys", signingKeyRing, RotatingKeyRing::keyCount)
+                .description("Keys that verify tokens, the active one included")
+                .register(registry);
+        };
+    }
+
+    // The whole file is the secret, surrounding whitespace (e.g. a trailing newline) aside
+    private static JwsKey loadSecret(String secretPath) {
+        try {
+            return HmacJwsKey.fromSecret(Files.readString(Path.of(secretPath)).strip());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read signing secret", e);
+        }
+    }
+
+    private static JwsKey loadPem(String algorithm, String privateKeyPath, String publicKeyPath) {
+        try {
+            return AsymmetricJwsKey.fromPem(algorithm, Path.of(privateKeyPath), Path.of(publicKeyPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read signing key pair", e);
+        }
+    }
+}
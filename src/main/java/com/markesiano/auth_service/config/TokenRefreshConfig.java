@@ -0,0 +1,80 @@
+package com.markesiano.auth_service.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
+import com.markesiano.auth_service.infraestructure.security.RefreshAheadTokenRefresher;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Selects whether tokens of busy clients are renewed ahead of their expiry.
+ *
+ * - If 'auth.token.refresh-ahead.enabled=true' is configured, RefreshAheadTokenRefresher
+ *   will be used: up to 'pool-size' clients are tracked and those served at least
+ *   'min-hits' times get a new token 'lead-time' before the cached one expires
+ * - Otherwise tokens are only minted on a cache miss
+ */
+@Configuration
+public class TokenRefreshConfig {
+
+    @Bean
+    @ConditionalOnProperty(
+        name = "auth.token.refresh-ahead.enabled",
+        havingValue = "true"
+    )
+    public TokenRefresher refreshAheadTokenRefresher(JwtKey jwtKey, RepositoryJwt<String> repositoryJwt,
+                                                     @Value("${auth.token.refresh-ahead.pool-size:10000}") int poolSize,
+                                                     @Value("${auth.token.refresh-ahead.lead-time:2m}") Duration leadTime,
+                                                     @Value("${auth.token.refresh-ahead.min-hits:3}") int minHits) {
+        return new RefreshAheadTokenRefresher(jwtKey, repositoryJwt, poolSize, leadTime, minHits, TimeSource.SYSTEM);
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+        name = "auth.token.refresh-ahead.enabled",
+        havingValue = "false",
+        matchIfMissing = true
+    )
+    public TokenRefresher noTokenRefresher() {
+        return TokenRefresher.NONE;
+    }
+
+    /**
+     * Publishes refreshes, failed refreshes and how many clients are tracked.
+     */
+    @Bean
+    @ConditionalOnProperty(
+        name = "auth.token.refresh-ahead.enabled",
+        havingValue = "true"
+    )
+    public MeterBinder tokenRefreshMetrics(TokenRefresher tokenRefresher) {
+        return registry -> {
+            if (!(tokenRefresher instanceof RefreshAheadTokenRefresher refresher)) {
+                return;
+            }
+            FunctionCounter.builder("auth.token.refreshes", refresher, RefreshAheadTokenRefresher::refreshCount)
+                .description("Tokens minted ahead of the expiry of the cached one")
+                .register(registry);
+            FunctionCounter.builder("auth.token.refresh.failures", refresher, RefreshAheadTokenRefresher::refreshFailureCount)
+                .description("Refresh-ahead attempts that failed, left to the request path")
+                .register(registry);
+            FunctionCounter.builder("auth.token.refresh.untracked", refresher, RefreshAheadTokenRefresher::untrackedCount)
+                .description("Served tokens not tracked because the refresh pool was full")
+                .register(registry);
+            Gauge.builder("auth.token.refresh.tracked", refresher, RefreshAheadTokenRefresher::trackedClients)
+                .description("Clients tracked for refresh-ahead")
+                .register(registry);
+        };
+    }
+}
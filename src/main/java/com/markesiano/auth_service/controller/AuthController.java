@@ -1,11 +1,19 @@
 package com.markesiano.auth_service.controller;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.application.interfaces.TokenVerifier;
 import com.markesiano.auth_service.application.usecases.interfaces.AuthenticateClientUseCase;
 import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
 import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyRequest;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 @RestController
 @RequestMapping("/api/v1")
+@ConditionalOnProperty(name = "auth.web.reactive", havingValue = "false", matchIfMissing = true)
 @Tag(
     name = "Authentication Service v1", 
     description = "API REST para autenticación de clientes versión 1.0. Proporciona endpoints para la autenticación " +
@@ -33,9 +42,15 @@ public class AuthController {
     
 
     private final AuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase;
+    private final TokenVerifier tokenVerifier;
+    private final int maxBatchSize;
 
-    public AuthController(AuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase) {
+    public AuthController(AuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase,
+                          TokenVerifier tokenVerifier,
+                          @Value("${auth.token.batch.max-size:500}") int maxBatchSize) {
         this.authenticationClientUseCase = authenticationClientUseCase;
+        this.tokenVerifier = tokenVerifier;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Operation(
@@ -184,23 +199,123 @@ public class AuthController {
         )
         @RequestBody AuthRequest request
     ) {
-        if (request == null) {
-            return ResponseEntity.badRequest().body(
-                AuthResponse.error("Bad request", "Request body cannot be null"));
-        }
-        if (request.clientId() == null || request.clientId().isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                AuthResponse.error("Bad request", "Client ID cannot be null or empty"));
+        AuthResponse validationError = AuthRequestValidator.validate(request);
+        if (validationError != null) {
+            return ResponseEntity.badRequest().body(validationError);
         }
-        if (request.productKey() == null || request.productKey().isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                AuthResponse.error("Bad request", "Product Key cannot be null or empty"));
-        }
-        
+
         return authenticationClientUseCase.authenticate(request)
             .thenApply(ResponseEntity::ok)
             .exceptionally(ex -> ResponseEntity.status(401).body(
                 AuthResponse.error("Authentication failed", ex.getCause().getMessage())))
             .join();
     }
+
+    @Operation(
+        summary = "Autenticar varios clientes en una sola petición",
+        description = "Recibe una lista de credenciales (clientId y productKey) y devuelve una respuesta por " +
+                     "elemento, en el mismo orden: el token JWT o el error de ese elemento. Un elemento inválido " +
+                     "o rechazado no afecta al resto. Las credenciales se comprueban en paralelo, los tokens en " +
+                     "caché se leen con una sola consulta y los que faltan se emiten y guardan juntos, por lo que " +
+                     "un gateway evita una petición HTTP y un viaje a la caché por cliente.",
+        tags = {"Authentication Service v1"},
+        operationId = "authenticateClients"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Resultado por elemento",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "batch-auth-example",
+                    description = "Un cliente autenticado y otro con credenciales inválidas",
+                    value = """
+                    [
+                      {
+                        "token": "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJjbGllbnQxMjMiLCJpYXQiOjE2MzIxNTI0MDAsImV4cCI6MTYzMjE1NjAwMH0.signature"
+                      },
+                      {
+                        "error": "Authentication failed",
+                        "message": "Invalid client ID or product key"
+                      }
+                    ]
+                    """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lista nula, vacía o con más elementos de los permitidos (auth.token.batch.max-size)",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping("/token/batch")
+    public ResponseEntity<List<AuthResponse>> loginAll(@RequestBody List<AuthRequest> requests) {
+        AuthResponse batchError = AuthRequestValidator.validateBatch(requests, maxBatchSize);
+        if (batchError != null) {
+            return ResponseEntity.badRequest().body(List.of(batchError));
+        }
+
+        return ResponseEntity.ok(BatchAuthentication.authenticate(authenticationClientUseCase, requests).join());
+    }
+
+    @Operation(
+        summary = "Verificar un token JWT emitido por este servicio",
+        description = "Comprueba la firma y la expiración del token y devuelve sus claims. Un token inválido, " +
+                     "alterado o expirado responde 200 con 'active' en false, sin detallar el motivo. Los tokens " +
+                     "válidos se recuerdan hasta su expiración, por lo que verificar de nuevo el mismo token no " +
+                     "repite el parseo ni la firma HMAC.",
+        tags = {"Authentication Service v1"},
+        operationId = "verifyToken"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Resultado de la verificación",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = TokenVerifyResponse.class),
+                examples = {
+                    @ExampleObject(
+                        name = "active-token-example",
+                        description = "Token válido",
+                        value = """
+                        {
+                          "active": true,
+                          "clientId": "client123",
+                          "issuedAt": 1632152400,
+                          "expiresAt": 1632156000
+                        }
+                        """
+                    ),
+                    @ExampleObject(
+                        name = "inactive-token-example",
+                        description = "Token inválido o expirado",
+                        value = """
+                        {
+                          "active": false
+                        }
+                        """
+                    )
+                }
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Solicitud inválida - Token nulo o vacío",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = TokenVerifyResponse.class)
+            )
+        )
+    })
+    @PostMapping("/token/verify")
+    public ResponseEntity<TokenVerifyResponse> verify(@RequestBody TokenVerifyRequest request) {
+        if (request == null || request.token() == null || request.token().isEmpty()) {
+            return ResponseEntity.badRequest().body(TokenVerifyResponse.error("Bad request", "Token cannot be null or empty"));
+        }
+        TokenClaims claims = tokenVerifier.verify(request.token());
+        return ResponseEntity.ok(claims != null ? TokenVerifyResponse.active(claims) : TokenVerifyResponse.inactive());
+    }
 }
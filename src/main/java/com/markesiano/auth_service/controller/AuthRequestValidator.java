@@ -0,0 +1,40 @@
+package com.markesiano.auth_service.controller;
+
+import java.util.List;
+
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+
+/**
+ * Input checks shared by the token endpoints.
+ */
+final class AuthRequestValidator {
+
+    private AuthRequestValidator() {
+    }
+
+    // Returns the 400 body for an invalid request, or null when the request is valid
+    static AuthResponse validate(AuthRequest request) {
+        if (request == null) {
+            return AuthResponse.error("Bad request", "Request body cannot be null");
+        }
+        if (request.clientId() == null || request.clientId().isEmpty()) {
+            return AuthResponse.error("Bad request", "Client ID cannot be null or empty");
+        }
+        if (request.productKey() == null || request.productKey().isEmpty()) {
+            return AuthResponse.error("Bad request", "Product Key cannot be null or empty");
+        }
+        return null;
+    }
+
+    // Returns the 400 body for a batch that cannot be processed at all, or null; items are checked one by one
+    static AuthResponse validateBatch(List<AuthRequest> requests, int maxBatchSize) {
+        if (requests == null || requests.isEmpty()) {
+            return AuthResponse.error("Bad request", "Request list cannot be null or empty");
+        }
+        if (requests.size() > maxBatchSize) {
+            return AuthResponse.error("Bad request", "Batch cannot contain more than " + maxBatchSize + " requests");
+        }
+        return null;
+    }
+}
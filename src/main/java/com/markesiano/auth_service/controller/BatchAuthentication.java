@@ -0,0 +1,45 @@
+package com.markesiano.auth_service.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.markesiano.auth_service.application.usecases.interfaces.AuthenticateClientUseCase;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+
+/**
+ * POST /token/batch for both controllers: every item is validated on its own, the valid
+ * ones are authenticated together and the responses come back in request order.
+ */
+final class BatchAuthentication {
+
+    private BatchAuthentication() {
+    }
+
+    static CompletableFuture<List<AuthResponse>> authenticate(
+            AuthenticateClientUseCase<AuthResponse, AuthRequest> useCase, List<AuthRequest> requests) {
+        AuthResponse[] responses = new AuthResponse[requests.size()];
+        List<AuthRequest> valid = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            AuthResponse validationError = AuthRequestValidator.validate(requests.get(i));
+            if (validationError != null) {
+                responses[i] = validationError;
+            } else {
+                valid.add(requests.get(i));
+                positions.add(i);
+            }
+        }
+        if (valid.isEmpty()) {
+            return CompletableFuture.completedFuture(Arrays.asList(responses));
+        }
+        return useCase.authenticateAll(valid).thenApply(results -> {
+            for (int i = 0; i < results.size(); i++) {
+                responses[positions.get(i)] = results.get(i);
+            }
+            return Arrays.asList(responses);
+        });
+    }
+}
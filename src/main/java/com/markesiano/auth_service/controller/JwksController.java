@@ -0,0 +1,63 @@
+package com.markesiano.auth_service.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+import com.markesiano.auth_service.infraestructure.security.RotatingKeyRing;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Publishes the public signing keys so consumers verify tokens locally.
+ *
+ * The document is serialized once by the JwsKeyRing; responses carry its ETag and a
+ * public Cache-Control, and a matching If-None-Match is answered with 304 and no body.
+ * A key rotation replaces the ring and with it the document and its ETag.
+ */
+@RestController
+@Tag(
+    name = "JWKS",
+    description = "Claves públicas para verificar localmente los tokens firmados con ES256 o EdDSA."
+)
+public class JwksController {
+
+    private final RotatingKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(RotatingKeyRing keyRing, @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @Operation(
+        summary = "Obtener el JWKS con las claves públicas de firma",
+        description = "Devuelve {\"keys\": [...]} con una JWK por clave vigente, identificada por su 'kid'. " +
+                     "Con firma HS256 la lista está vacía, el secreto compartido nunca se publica. Responde 304 " +
+                     "si el ETag enviado en If-None-Match sigue vigente.",
+        operationId = "getJwks"
+    )
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        JwsKeyRing ring = keyRing.current();
+        String etag = ring.jwksEtag();
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.strip().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(ring.jwks());
+    }
+}
@@ -0,0 +1,112 @@
+package com.markesiano.auth_service.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.application.interfaces.TokenVerifier;
+import com.markesiano.auth_service.application.usecases.interfaces.AuthenticateClientUseCase;
+import com.markesiano.auth_service.application.usecases.interfaces.ReactiveAuthenticateClientUseCase;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyRequest;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyResponse;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of POST /api/v1/token, enabled with 'auth.web.reactive=true'.
+ * It replaces {@link AuthController} and keeps the same contract and status codes,
+ * but returns a Mono so no request thread waits for the remote cache.
+ *
+ * POST /api/v1/token/batch is served by the batch pipeline of AuthenticateClientService,
+ * whose futures complete from the repositories' own threads, wrapped in a Mono.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnProperty(name = "auth.web.reactive", havingValue = "true")
+@Tag(
+    name = "Authentication Service v1",
+    description = "API REST para autenticación de clientes versión 1.0 (variante reactiva)."
+)
+public class ReactiveAuthController {
+
+    private final ReactiveAuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase;
+    private final AuthenticateClientUseCase<AuthResponse, AuthRequest> batchUseCase;
+    private final TokenVerifier tokenVerifier;
+    private final int maxBatchSize;
+
+    public ReactiveAuthController(ReactiveAuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase,
+                                  AuthenticateClientUseCase<AuthResponse, AuthRequest> batchUseCase,
+                                  TokenVerifier tokenVerifier,
+                                  @Value("${auth.token.batch.max-size:500}") int maxBatchSize) {
+        this.authenticationClientUseCase = authenticationClientUseCase;
+        this.batchUseCase = batchUseCase;
+        this.tokenVerifier = tokenVerifier;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Operation(
+        summary = "Autenticar cliente y generar token JWT",
+        description = "Misma validación y respuestas que la versión bloqueante: 200 con el token, 400 si la " +
+                     "solicitud es inválida y 401 si las credenciales no son válidas.",
+        tags = {"Authentication Service v1"},
+        operationId = "authenticateClient"
+    )
+    @PostMapping("/token")
+    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request) {
+        AuthResponse validationError = AuthRequestValidator.validate(request);
+        if (validationError != null) {
+            return Mono.just(ResponseEntity.badRequest().body(validationError));
+        }
+
+        return Mono.defer(() -> authenticationClientUseCase.authenticate(request))
+            .map(ResponseEntity::ok)
+            .onErrorResume(ex -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                AuthResponse.error("Authentication failed", ex.getMessage()))));
+    }
+
+    @Operation(
+        summary = "Autenticar varios clientes en una sola petición",
+        description = "Mismo contrato que la versión bloqueante: una respuesta por elemento y en el mismo orden, " +
+                     "400 si la lista es nula, vacía o supera auth.token.batch.max-size.",
+        tags = {"Authentication Service v1"},
+        operationId = "authenticateClients"
+    )
+    @PostMapping("/token/batch")
+    public Mono<ResponseEntity<List<AuthResponse>>> loginAll(@RequestBody List<AuthRequest> requests) {
+        AuthResponse batchError = AuthRequestValidator.validateBatch(requests, maxBatchSize);
+        if (batchError != null) {
+            return Mono.just(ResponseEntity.badRequest().body(List.of(batchError)));
+        }
+
+        return Mono.fromFuture(() -> BatchAuthentication.authenticate(batchUseCase, requests))
+            .map(ResponseEntity::ok);
+    }
+
+    @Operation(
+        summary = "Verificar un token JWT emitido por este servicio",
+        description = "Mismo contrato que la versión bloqueante: 200 con 'active' y los claims, 400 si falta el token. " +
+                     "La verificación no hace I/O y se resuelve en el hilo que atiende la petición.",
+        tags = {"Authentication Service v1"},
+        operationId = "verifyToken"
+    )
+    @PostMapping("/token/verify")
+    public Mono<ResponseEntity<TokenVerifyResponse>> verify(@RequestBody TokenVerifyRequest request) {
+        if (request == null || request.token() == null || request.token().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(TokenVerifyResponse.error("Bad request", "Token cannot be null or empty")));
+        }
+        TokenClaims claims = tokenVerifier.verify(request.token());
+        return Mono.just(ResponseEntity.ok(claims != null ? TokenVerifyResponse.active(claims) : TokenVerifyResponse.inactive()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.markesiano.auth_service.infraestructure.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.markesiano.auth_service.infraestructure.execution.BoundedExecutor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Execution model for the authentication adapters.
+ *
+ * - cpuExecutor: bounded platform pool used for signing and in-memory lookups
+ * - ioExecutor: bounded executor for adapters that block on I/O, backed by virtual
+ *   threads by default or by a platform pool when 'executors.io.virtual-threads=false'.
+ *   The cached-redis client does not use it: its requests are non blocking and are
+ *   bounded by the WebClient connection pool instead.
+ *
+ * Keeping them apart means a slow backend can saturate the I/O executor without
+ * starving token signing, and neither competes with ForkJoinPool.commonPool.
+ * Both are only injected by name, so Spring's own applicationTaskExecutor is left in place.
+ *
+ * With 'spring.threads.virtual.enabled=true' requests are already served on virtual
+ * threads, so the I/O executor becomes direct and blocking adapters run synchronously on
+ * the request thread. The CPU executor stays a bounded platform pool: a signing that
+ * follows a remote cache miss would otherwise run on the Netty or Lettuce event loop
+ * thread that completed the lookup, and the number of concurrent signings would only be
+ * bounded by the number of requests.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${executors.cpu.threads:0}")
+    private int cpuThreads;
+    @Value("${executors.cpu.queue-capacity:1024}")
+    private int cpuQueueCapacity;
+    @Value("${executors.io.virtual-threads:true}")
+    private boolean ioVirtualThreads;
+    @Value("${executors.io.threads:64}")
+    private int ioThreads;
+    @Value("${executors.io.queue-capacity:1024}")
+    private int ioQueueCapacity;
+
+    @Bean(destroyMethod = "shutdown", defaultCandidate = false)
+    public BoundedExecutor cpuExecutor() {
+        int threads = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+        return BoundedExecutor.platform("auth-cpu", threads, cpuQueueCapacity);
+    }
+
+    @Bean(destroyMethod = "shutdown", defaultCandidate = false)
+    public BoundedExecutor ioExecutor() {
+        if (virtualThreads) {
+            return BoundedExecutor.direct("auth-io");
+        }
+        if (ioVirtualThreads) {
+            return BoundedExecutor.virtual("auth-io", ioThreads + ioQueueCapacity);
+        }
+        return BoundedExecutor.platform("auth-io", ioThreads, ioQueueCapacity);
+    }
+
+    /**
+     * Publishes queue depth, active tasks and rejections for every bounded executor.
+     */
+    @Bean
+    public MeterBinder boundedExecutorMetrics(@Qualifier("cpuExecutor") BoundedExecutor cpuExecutor,
+                                              @Qualifier("ioExecutor") BoundedExecutor ioExecutor) {
+        return registry -> List.of(cpuExecutor, ioExecutor).forEach(executor -> {
+            Gauge.builder("auth.executor.queue.depth", executor, BoundedExecutor::queueDepth)
+                .tag("name", executor.name())
+                .description("Tasks waiting to run")
+                .register(registry);
+            Gauge.builder("auth.executor.active", executor, BoundedExecutor::activeCount)
+                .tag("name", executor.name())
+                .description("Tasks currently running")
+                .register(registry);
+            Gauge.builder("auth.executor.capacity", executor, BoundedExecutor::capacity)
+                .tag("name", executor.name())
+                .description("Maximum outstanding tasks before rejecting")
+                .register(registry);
+            FunctionCounter.builder("auth.executor.rejected", executor, BoundedExecutor::rejectedCount)
+                .tag("name", executor.name())
+                .description("Tasks rejected because the executor was saturated")
+                .register(registry);
+        });
+    }
+}
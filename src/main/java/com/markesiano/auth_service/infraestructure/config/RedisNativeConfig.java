@@ -0,0 +1,44 @@
+package com.markesiano.auth_service.infraestructure.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+
+/**
+ * Lettuce client used by 'jwt.repository.type=redis-native'.
+ *
+ * A single connection is opened at startup and shared by every request; Lettuce
+ * reconnects it in the background if Redis restarts. Commands that get no reply
+ * within 'redis.native.command-timeout' fail instead of waiting forever.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jwt.repository.type", havingValue = "redis-native")
+public class RedisNativeConfig {
+    @Value("${redis.native.uri:redis://localhost:6379}")
+    private String uri;
+    @Value("${redis.native.command-timeout:500ms}")
+    private Duration commandTimeout;
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient redisClient() {
+        RedisClient client = RedisClient.create(RedisURI.create(uri));
+        client.setOptions(ClientOptions.builder()
+                .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+                .build());
+        return client;
+    }
+
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<String, String> redisConnection(RedisClient redisClient) {
+        return redisClient.connect();
+    }
+}
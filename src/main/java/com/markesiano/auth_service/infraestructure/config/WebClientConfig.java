@@ -1,24 +1,66 @@
 package com.markesiano.auth_service.infraestructure.config;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * WebClient used to reach the cached-redis proxy.
+ *
+ * The connection pool is the concurrency limit for the remote cache: at most
+ * 'max-connections' requests are in flight, up to 'pending-acquire-max-count' more
+ * wait for a connection, and anything beyond that (or waiting longer than
+ * 'pending-acquire-timeout') fails immediately instead of piling up.
+ */
 @Configuration
 public class WebClientConfig {
     @Value("${cachedredis.uri:}")
     private String redisUri;
     @Value("${cachedredis.port:6379}")
     private int redisPort;
+    @Value("${cachedredis.client.max-connections:200}")
+    private int maxConnections;
+    @Value("${cachedredis.client.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+    @Value("${cachedredis.client.pending-acquire-timeout:2s}")
+    private Duration pendingAcquireTimeout;
+    @Value("${cachedredis.client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+    @Value("${cachedredis.client.connect-timeout:1s}")
+    private Duration connectTimeout;
+    @Value("${cachedredis.client.response-timeout:2s}")
+    private Duration responseTimeout;
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "cachedredis.uri")
+    public ConnectionProvider cachedRedisConnectionProvider() {
+        return ConnectionProvider.builder("cached-redis")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
 
     @Bean
     @ConditionalOnProperty(name = "cachedredis.uri")
-    public WebClient webClient() {
+    public WebClient webClient(ConnectionProvider cachedRedisConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(cachedRedisConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
         return WebClient.builder()
                 .baseUrl(redisUri + ":" + redisPort)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 
@@ -0,0 +1,251 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.markesiano.auth_service.infraestructure.security.ProductKeyDigest;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps InMemoryClientKeyRepository in sync with a directory of credential files
+ * ('.csv', '.ndjson' or '.jsonl', see ClientKeyFileReader).
+ *
+ * - On start every file is read and replaces the repository's credentials
+ * - A WatchService reports created, modified and deleted files; events are collected
+ *   until the directory has been quiet for 'debounce', then only the files that changed
+ *   are read again and diffed against what they held before
+ * - The diff (upserts and removals) is applied copy-on-write, so lookups keep reading
+ *   the previous snapshot while it is built and never block
+ * - A clientId only disappears when no file holds it anymore; keys added through
+ *   addClientKey are left alone since no file mentions them
+ * - A clientId held by several files takes the product key of the last of them in file
+ *   name order, whichever file changed; when that file drops it, the key of the next one
+ *   takes over
+ * - A file that fails to parse (for example one still being written) keeps its previous
+ *   contents and is read again on its next change. Writing to a temporary name and
+ *   renaming it into the directory avoids reading half-written files.
+ *
+ * Reloads run on a single daemon thread; their count, duration and failures are kept
+ * for metrics.
+ */
+public class ClientKeyDirectoryWatcher {
+
+    private final InMemoryClientKeyRepository repository;
+    private final Path directory;
+    private final long debounceMillis;
+    // Digests held by each file as of its last successful read, in file name order (later files win),
+    // only touched by the watcher thread
+    private final Map<Path, Map<String, byte[]>> fileContents = new TreeMap<>();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+    private final LongAdder reloadNanos = new LongAdder();
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running;
+
+    public ClientKeyDirectoryWatcher(InMemoryClientKeyRepository repository, Path directory, Duration debounce) {
+        this.repository = repository;
+        this.directory = directory;
+        this.debounceMillis = debounce.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            loadAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch client keys in " + directory, e);
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("client-keys-watcher").daemon().start(this::watch);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close client keys watcher", e);
+        }
+        thread.interrupt();
+    }
+
+    private void watch() {
+        while (running) {
+            try {
+                Set<Path> changed = new HashSet<>();
+                boolean overflow = collect(watchService.take(), changed);
+                WatchKey next;
+                // Wait for the directory to be quiet so a burst of writes is one reload
+                while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(next, changed);
+                }
+                if (overflow) {
+                    changed.addAll(fileContents.keySet());
+                    changed.addAll(listCredentialFiles());
+                }
+                reload(changed);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                reloadFailures.increment();
+            }
+        }
+    }
+
+    private boolean collect(WatchKey key, Set<Path> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (event.context() instanceof Path name && isCredentialFile(name)) {
+                changed.add(directory.resolve(name));
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    private void loadAll() throws IOException {
+        long start = System.nanoTime();
+        for (Path file : listCredentialFiles()) {
+            fileContents.put(file, read(file));
+        }
+        Map<String, byte[]> all = new HashMap<>();
+        for (Map<String, byte[]> contents : fileContents.values()) {
+            all.putAll(contents);
+        }
+        repository.replaceDigests(all);
+        reloads.increment();
+        reloadNanos.add(System.nanoTime() - start);
+    }
+
+    // Reads the changed files again and applies what changed in them to the repository
+    private void reload(Set<Path> changed) {
+        long start = System.nanoTime();
+        Set<String> touched = new HashSet<>();
+        boolean failed = false;
+        for (Path file : changed) {
+            Map<String, byte[]> previous = fileContents.getOrDefault(file, Map.of());
+            Map<String, byte[]> current;
+            try {
+                current = Files.exists(file) ? read(file) : Map.of();
+            } catch (IOException | IllegalArgumentException e) {
+                failed = true;
+                continue;
+            }
+            for (Map.Entry<String, byte[]> entry : current.entrySet()) {
+                byte[] before = previous.get(entry.getKey());
+                if (before == null || !Arrays.equals(before, entry.getValue())) {
+                    touched.add(entry.getKey());
+                }
+            }
+            for (String clientId : previous.keySet()) {
+                if (!current.containsKey(clientId)) {
+                    touched.add(clientId);
+                }
+            }
+            if (current.isEmpty()) {
+                fileContents.remove(file);
+            } else {
+                fileContents.put(file, current);
+            }
+        }
+        // Resolve every changed id against all files, another file may still hold it
+        Map<String, byte[]> upserts = new HashMap<>();
+        List<String> removals = new ArrayList<>();
+        for (String clientId : touched) {
+            byte[] digest = effectiveDigest(clientId);
+            if (digest != null) {
+                upserts.put(clientId, digest);
+            } else {
+                removals.add(clientId);
+            }
+        }
+        repository.applyDigestChanges(upserts, removals);
+        reloads.increment();
+        reloadNanos.add(System.nanoTime() - start);
+        if (failed) {
+            reloadFailures.increment();
+        }
+    }
+
+    // Digest from the last file holding 'clientId', null when no file holds it
+    private byte[] effectiveDigest(String clientId) {
+        byte[] digest = null;
+        for (Map<String, byte[]> contents : fileContents.values()) {
+            byte[] held = contents.get(clientId);
+            if (held != null) {
+                digest = held;
+            }
+        }
+        return digest;
+    }
+
+    private List<Path> listCredentialFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (isCredentialFile(file.getFileName()) && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static Map<String, byte[]> read(Path file) throws IOException {
+        Map<String, byte[]> contents = new HashMap<>();
+        ClientKeyFileReader.read(file, (clientId, productKey) -> contents.put(clientId, ProductKeyDigest.of(productKey)));
+        return contents;
+    }
+
+    private static boolean isCredentialFile(Path name) {
+        String fileName = name.toString().toLowerCase(Locale.ROOT);
+        return fileName.endsWith(".csv") || fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl");
+    }
+
+    public long reloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * Reloads in which at least one file could not be read.
+     */
+    public long reloadFailureCount() {
+        return reloadFailures.sum();
+    }
+
+    /**
+     * Total time spent reading files and applying their changes, in nanoseconds.
+     */
+    public long reloadNanos() {
+        return reloadNanos.sum();
+    }
+}
@@ -0,0 +1,38 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Client credential row. Only the SHA-256 digest of the product key is persisted.
+ */
+@Entity
+@Table(name = "client_keys")
+public class ClientKeyEntity {
+
+    @Id
+    @Column(name = "client_id", length = 128)
+    private String clientId;
+
+    @Column(name = "product_key_digest", nullable = false, length = 32)
+    private byte[] productKeyDigest;
+
+    protected ClientKeyEntity() {
+        // Required by JPA
+    }
+
+    public ClientKeyEntity(String clientId, byte[] productKeyDigest) {
+        this.clientId = clientId;
+        this.productKeyDigest = productKeyDigest;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public byte[] getProductKeyDigest() {
+        return productKeyDigest;
+    }
+}
@@ -0,0 +1,107 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams (clientId, productKey) pairs out of a credential file, one record at a time,
+ * so files with hundreds of thousands of clients are never held in memory.
+ *
+ * - CSV ('.csv'): one 'clientId,productKey' per line. The product key is everything after
+ *   the first comma. Blank lines, '#' comments and a 'clientId,productKey' header are skipped.
+ * - NDJSON (any other extension): one {"clientId": "...", "productKey": "..."} object
+ *   per line, read with Jackson's streaming parser; other fields are ignored
+ *
+ * A malformed record fails the whole read with an IllegalArgumentException naming its
+ * position, so callers can keep their previous credential set.
+ */
+public final class ClientKeyFileReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    // Rough size of one record, used to presize the maps built from a file
+    private static final int ESTIMATED_RECORD_BYTES = 40;
+
+    private ClientKeyFileReader() {
+    }
+
+    /**
+     * Calls 'sink' for every record of 'file' and returns how many were read.
+     */
+    public static int read(Path file, BiConsumer<String, String> sink) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return readCsv(file, sink);
+        }
+        return readNdjson(file, sink);
+    }
+
+    /**
+     * Number of records 'file' probably holds, from its size.
+     */
+    public static int estimateRecords(Path file) throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE / 2, Files.size(file) / ESTIMATED_RECORD_BYTES + 1);
+    }
+
+    private static int readCsv(Path file, BiConsumer<String, String> sink) throws IOException {
+        int count = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")
+                        || (lineNumber == 1 && trimmed.equalsIgnoreCase("clientId,productKey"))) {
+                    continue;
+                }
+                int comma = trimmed.indexOf(',');
+                if (comma <= 0 || comma == trimmed.length() - 1) {
+                    throw new IllegalArgumentException("Malformed client key at " + file + ":" + lineNumber);
+                }
+                sink.accept(trimmed.substring(0, comma).strip(), trimmed.substring(comma + 1).strip());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int readNdjson(Path file, BiConsumer<String, String> sink) throws IOException {
+        int count = 0;
+        try (JsonParser parser = JSON.createParser(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Malformed client key at " + file + ":" + parser.currentLocation().getLineNr());
+                }
+                int line = parser.currentLocation().getLineNr();
+                String clientId = null;
+                String productKey = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("clientId".equals(field) && value == JsonToken.VALUE_STRING) {
+                        clientId = parser.getText();
+                    } else if ("productKey".equals(field) && value == JsonToken.VALUE_STRING) {
+                        productKey = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (clientId == null || clientId.isEmpty() || productKey == null || productKey.isEmpty()) {
+                    throw new IllegalArgumentException("Malformed client key at " + file + ":" + line);
+                }
+                sink.accept(clientId, productKey);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,12 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ClientKeyJpaRepository extends JpaRepository<ClientKeyEntity, String> {
+
+    @Query("select c.clientId from ClientKeyEntity c")
+    List<String> findAllClientIds();
+}
@@ -1,23 +1,84 @@
 package com.markesiano.auth_service.infraestructure.data;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.infraestructure.security.ClientIdBloomFilter;
+import com.markesiano.auth_service.infraestructure.security.ProductKeyDigest;
 
+/**
+ * Client credentials held in memory.
+ *
+ * - Only the SHA-256 digest of each product key is stored, never the plaintext, and
+ *   it is compared in constant time (see ProductKeyDigest)
+ * - The lookup is a hash of a short string and a map read, so it completes on the
+ *   calling thread instead of paying a pool handoff per request. ConcurrentHashMap
+ *   already stripes its bins, reads never lock.
+ * - A Bloom filter over the known clientIds rejects made-up ids before the map and
+ *   the digest. It is grown when it fills up and rebuilt on clear() and rebuildFilter(),
+ *   which also forgets removed clients. Writes are serialized so a rebuild never
+ *   misses a client added meanwhile.
+ * - importKeys replaces the whole credential set from a CSV/NDJSON file. The new map
+ *   and filter are built off to the side, presized from the file, and published together
+ *   with one volatile write, so lookups see either the old set or the new one, never a
+ *   mix, and never wait. A file that fails to parse leaves the current set untouched.
+ */
 @Repository
 public class InMemoryClientKeyRepository implements RepositoryKey{
 
-    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    // Room for clients added after a rebuild before the filter is grown again
+    private static final int FILTER_HEADROOM = 1024;
+
+    private final Object writeLock = new Object();
+    private final boolean filterEnabled;
+    private final double falsePositiveRate;
+    private final LongAdder filterRejections = new LongAdder();
+    // Replaced wholesale by importKeys and rebuildFilter, mutated in place by add/remove
+    private volatile Credentials credentials;
+
+    // filter is null when disabled
+    private record Credentials(Map<String, byte[]> keyDigests, ClientIdBloomFilter filter) {
+    }
 
-    // Pre-populated keys for demonstration purposes
-    // In a real application, these would be stored in a database or secure storage
     public InMemoryClientKeyRepository() {
-        keys.put("markepos01", "productKey1");
-        keys.put("markepos02", "productKey2");
+        this(true, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    public InMemoryClientKeyRepository(boolean filterEnabled, double falsePositiveRate) {
+        this(filterEnabled, falsePositiveRate, "");
+    }
+
+    // Without an import file the repository is pre-populated with keys for demonstration purposes
+    @Autowired
+    public InMemoryClientKeyRepository(@Value("${client-keys.bloom-filter.enabled:true}") boolean filterEnabled,
+                                       @Value("${client-keys.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                       @Value("${client-keys.import.path:}") String importPath) {
+        this.filterEnabled = filterEnabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.credentials = new Credentials(new ConcurrentHashMap<>(),
+            filterEnabled ? new ClientIdBloomFilter(FILTER_HEADROOM, falsePositiveRate) : null);
+        if (importPath == null || importPath.isBlank()) {
+            addClientKey("markepos01", "productKey1");
+            addClientKey("markepos02", "productKey2");
+            return;
+        }
+        try {
+            importKeys(Path.of(importPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot import client keys from " + importPath, e);
+        }
     }
 
     @Override
@@ -28,19 +89,132 @@ public class InMemoryClientKeyRepository implements RepositoryKey{
         if (productKey == null) {
             throw new IllegalArgumentException("Product key cannot be null");
         }
-        return CompletableFuture.supplyAsync(() -> {
-            String storedKey = keys.get(clientId);
-            return storedKey != null && storedKey.equals(productKey);
-        });
+        Credentials current = credentials;
+        if (current.filter() != null && !current.filter().mightContain(clientId)) {
+            filterRejections.increment();
+            // Still hash and compare against the dummy digest so an unknown id takes as long as a wrong key
+            return CompletableFuture.completedFuture(ProductKeyDigest.matches(null, productKey));
+        }
+        return CompletableFuture.completedFuture(ProductKeyDigest.matches(current.keyDigests().get(clientId), productKey));
     }
     public void addClientKey(String clientId, String productKey) {
-        keys.put(clientId, productKey);
+        byte[] digest = ProductKeyDigest.of(productKey);
+        synchronized (writeLock) {
+            Credentials current = credentials;
+            if (current.filter() != null) {
+                // Into the filter first so a concurrent lookup never sees the key but not the id
+                current.filter().put(clientId);
+            }
+            current.keyDigests().put(clientId, digest);
+            if (current.filter() != null && current.filter().isSaturated()) {
+                rebuildFilter();
+            }
+        }
     }
     public void removeClientKey(String clientId) {
-        keys.remove(clientId);
+        synchronized (writeLock) {
+            credentials.keyDigests().remove(clientId);
+        }
     }
     public void clear() {
-        keys.clear();
+        synchronized (writeLock) {
+            credentials.keyDigests().clear();
+            rebuildFilter();
+        }
+    }
+
+    /**
+     * Replaces every credential with the ones in 'file' (see ClientKeyFileReader for the
+     * formats). Clients added while the file is being read are replaced as well.
+     *
+     * @return number of clients imported
+     */
+    public int importKeys(Path file) throws IOException {
+        int expected = ClientKeyFileReader.estimateRecords(file);
+        Map<String, byte[]> imported = new ConcurrentHashMap<>(expected);
+        ClientIdBloomFilter filter = filterEnabled
+            ? new ClientIdBloomFilter(expected + FILTER_HEADROOM, falsePositiveRate) : null;
+        ClientKeyFileReader.read(file, (clientId, productKey) -> {
+            if (filter != null) {
+                filter.put(clientId);
+            }
+            imported.put(clientId, ProductKeyDigest.of(productKey));
+        });
+        synchronized (writeLock) {
+            credentials = new Credentials(imported, filter);
+            if (filter != null && filter.isSaturated()) {
+                rebuildFilter();
+            }
+        }
+        return imported.size();
     }
-    
+
+    /**
+     * Replaces every credential with 'keyDigests' (product key digests by clientId).
+     * The map is copied, the caller keeps ownership of it.
+     */
+    public void replaceDigests(Map<String, byte[]> keyDigests) {
+        Map<String, byte[]> replacement = new ConcurrentHashMap<>(keyDigests);
+        ClientIdBloomFilter filter = filterEnabled ? ClientIdBloomFilter.of(replacement.keySet(), replacement.size(),
+            Math.max(FILTER_HEADROOM, replacement.size()), falsePositiveRate) : null;
+        synchronized (writeLock) {
+            credentials = new Credentials(replacement, filter);
+        }
+    }
+
+    /**
+     * Applies a diff copy-on-write: a new snapshot holding the current credentials plus
+     * 'upserts' minus 'removals' is built and published with one volatile write, so
+     * lookups keep reading the previous snapshot meanwhile and never block.
+     */
+    public void applyDigestChanges(Map<String, byte[]> upserts, Collection<String> removals) {
+        if (upserts.isEmpty() && removals.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            Credentials current = credentials;
+            Map<String, byte[]> next = new ConcurrentHashMap<>(current.keyDigests().size() + upserts.size());
+            next.putAll(current.keyDigests());
+            next.putAll(upserts);
+            removals.forEach(next::remove);
+            ClientIdBloomFilter filter = current.filter();
+            if (filter != null) {
+                // Shared with the previous snapshot: extra bits there only add false positives
+                upserts.keySet().forEach(filter::put);
+            }
+            credentials = new Credentials(next, filter);
+            // Removed ids stay in the filter until a rebuild, which also grows it when full
+            if (filter != null && (!removals.isEmpty() || filter.isSaturated())) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    public int size() {
+        return credentials.keyDigests().size();
+    }
+
+    /**
+     * Replaces the Bloom filter with one built from the current clients, sized for
+     * twice as many so it grows geometrically. Drops the bits of removed clients.
+     */
+    public void rebuildFilter() {
+        if (!filterEnabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            Map<String, byte[]> keyDigests = credentials.keyDigests();
+            int size = keyDigests.size();
+            credentials = new Credentials(keyDigests,
+                ClientIdBloomFilter.of(keyDigests.keySet(), size, Math.max(FILTER_HEADROOM, size), falsePositiveRate));
+        }
+    }
+
+    /**
+     * Lookups rejected by the Bloom filter without reading the credentials.
+     */
+    public long filterRejectionCount() {
+        return filterRejections.sum();
+    }
+
 }
@@ -1,45 +1,189 @@
 package com.markesiano.auth_service.infraestructure.data;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.execution.TimingWheel;
+import com.markesiano.auth_service.infraestructure.security.JwtClaims;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+/**
+ * Token cache kept in the JVM heap.
+ *
+ * The cache is bounded both by number of entries and by an estimate of the bytes they
+ * retain. When either bound is exceeded entries are evicted with a segmented LRU:
+ * new tokens enter a probation segment and are promoted to a protected segment on
+ * their first hit, so a burst of one-off clientIds only displaces other one-off
+ * entries and not the clients that keep coming back.
+ *
+ * Lookups read the map without locking; recording the hit in the eviction order is
+ * skipped when another thread holds the policy lock, which only makes the order
+ * slightly less precise.
+ *
+ * Every saved token is also scheduled on a timing wheel that the scheduler advances
+ * once per second, so expired entries are removed within a tick of their deadline
+ * without ever scanning the whole map. The timer is cancelled when the entry is
+ * replaced or evicted, so the wheel never holds more timers than the cache holds entries.
+ *
+ * Deadlines are monotonic nanoTime values taken from the token's own 'exp' claim
+ * (one hour for tokens without one), so a hit only compares two longs.
+ *
+ * getAll and saveAll handle a whole batch in a single executor task and take the policy
+ * lock once for it, instead of once per client.
+ */
 public class InMemoryJwtRepository implements RepositoryJwt<String> {
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    // Map node, TokenEntry, expiry timer and String headers; chars are counted on top
+    private static final int ENTRY_OVERHEAD_BYTES = 192;
+    private static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(1); // Match JWT expiration time
+    private static final Duration EXPIRY_TICK = Duration.ofSeconds(1);
+    // 64^3 one second ticks, about three days, covers any token lifetime in one placement
+    private static final int EXPIRY_LEVELS = 3;
 
     private final Map<String, TokenEntry> jwtCache = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Executor executor;
+    private final TimeSource timeSource;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final SegmentedLru policy;
+    private long weightedBytes;
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final TimingWheel<String, TokenEntry> expiryWheel;
+
+    public InMemoryJwtRepository() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public InMemoryJwtRepository(Executor executor) {
+        this(executor, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    public InMemoryJwtRepository(Executor executor, int maxEntries, long maxBytes) {
+        this(executor, maxEntries, maxBytes, TimeSource.SYSTEM);
+    }
+
+    public InMemoryJwtRepository(Executor executor, int maxEntries, long maxBytes, TimeSource timeSource) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("In-memory token cache needs positive entry and byte limits");
+        }
+        this.executor = executor;
+        this.timeSource = timeSource;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.policy = new SegmentedLru(Math.max(1, maxEntries * 4 / 5));
+        this.expiryWheel = new TimingWheel<>(EXPIRY_TICK.toNanos(), EXPIRY_LEVELS, timeSource.nanoTime(), this::removeEntry);
+    }
+
+    /**
+     * Eviction order over two LRU segments. Only accessed while holding policyLock.
+     */
+    private static final class SegmentedLru {
+        private final LinkedHashMap<String, Boolean> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<String, Boolean> protectedSegment = new LinkedHashMap<>();
+        private final int protectedCapacity;
+
+        SegmentedLru(int protectedCapacity) {
+            this.protectedCapacity = protectedCapacity;
+        }
+
+        void onInsert(String key) {
+            if (probation.containsKey(key) || protectedSegment.containsKey(key)) {
+                onAccess(key);
+                return;
+            }
+            probation.put(key, Boolean.TRUE);
+        }
+
+        void onAccess(String key) {
+            if (protectedSegment.remove(key) != null) {
+                protectedSegment.put(key, Boolean.TRUE);
+                return;
+            }
+            if (probation.remove(key) == null) {
+                return;
+            }
+            protectedSegment.put(key, Boolean.TRUE);
+            if (protectedSegment.size() > protectedCapacity) {
+                // Demote the least recently used protected entry; it gets one more chance in probation
+                Iterator<String> eldest = protectedSegment.keySet().iterator();
+                String demoted = eldest.next();
+                eldest.remove();
+                probation.put(demoted, Boolean.TRUE);
+            }
+        }
+
+        void onRemove(String key) {
+            if (probation.remove(key) == null) {
+                protectedSegment.remove(key);
+            }
+        }
+
+        String victim() {
+            if (!probation.isEmpty()) {
+                return probation.keySet().iterator().next();
+            }
+            if (!protectedSegment.isEmpty()) {
+                return protectedSegment.keySet().iterator().next();
+            }
+            return null;
+        }
+
+        void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+    }
 
     private static class TokenEntry {
         private final String token;
-        private final LocalDateTime expirationTime;
+        private final long deadlineNanos;
+        // Guarded by policyLock
+        private TimingWheel.Timer<String, TokenEntry> expiryTimer;
         
-        public TokenEntry(String token) {
+        public TokenEntry(String token, long deadlineNanos) {
             this.token = token;
-            this.expirationTime = LocalDateTime.now().plusHours(1);
+            this.deadlineNanos = deadlineNanos;
         }
         
         public String getToken() {
             return token;
         }
+
+        long weight(String clientId) {
+            return ENTRY_OVERHEAD_BYTES + 2L * (token.length() + clientId.length());
+        }
         
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(expirationTime);
+        public boolean isExpired(long nowNanos) {
+            return nowNanos - deadlineNanos >= 0;
         }
     }
 
     @PostConstruct
     public void init() {
-        // Schedule cleanup task every 30 minutes
-        scheduler.scheduleAtFixedRate(this::cleanupExpiredTokens, 30, 30, TimeUnit.MINUTES);
+        // Fire the expiries that became due, one wheel tick at a time
+        long tick = EXPIRY_TICK.toNanos();
+        scheduler.scheduleAtFixedRate(this::expireDueTokens, tick, tick, TimeUnit.NANOSECONDS);
     }
 
     @PreDestroy
@@ -53,16 +197,16 @@ public class InMemoryJwtRepository implements RepositoryJwt<String> {
             throw new IllegalArgumentException("Client ID cannot be null or empty");
         }
         return CompletableFuture.supplyAsync(() -> {
-            TokenEntry entry = jwtCache.get(clientId);
-            if (entry != null && !entry.isExpired()) {
-                return entry.getToken();
-            } else if (entry != null && entry.isExpired()) {
-                // Remove expired token
-                jwtCache.remove(clientId);
-                return null;
+            String token = lookup(clientId, timeSource.nanoTime());
+            if (token != null && policyLock.tryLock()) {
+                try {
+                    policy.onAccess(clientId);
+                } finally {
+                    policyLock.unlock();
+                }
             }
-            return null;
-        });
+            return token;
+        }, executor);
     }
 
     @Override
@@ -74,16 +218,205 @@ public class InMemoryJwtRepository implements RepositoryJwt<String> {
             throw new IllegalArgumentException("Token cannot be null or empty");
         }
         return CompletableFuture.runAsync(() -> {
-            jwtCache.put(clientId, new TokenEntry(token));
-        });
+            TokenEntry entry = new TokenEntry(token, deadlineOf(token));
+            policyLock.lock();
+            try {
+                put(clientId, entry);
+                evictIfNeeded();
+            } finally {
+                policyLock.unlock();
+            }
+        }, executor);
+    }
+
+    /**
+     * Looks every client up in one task on the executor and records the hits in the
+     * eviction order under a single lock acquisition.
+     */
+    @Override
+    public CompletableFuture<Map<String, String>> getAll(Collection<String> clientIds) {
+        for (String clientId : clientIds) {
+            if (clientId == null || clientId.isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+        }
+        if (clientIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long now = timeSource.nanoTime();
+            Map<String, String> tokens = new HashMap<>();
+            for (String clientId : clientIds) {
+                String token = lookup(clientId, now);
+                if (token != null) {
+                    tokens.put(clientId, token);
+                }
+            }
+            if (!tokens.isEmpty() && policyLock.tryLock()) {
+                try {
+                    for (String clientId : tokens.keySet()) {
+                        policy.onAccess(clientId);
+                    }
+                } finally {
+                    policyLock.unlock();
+                }
+            }
+            return tokens;
+        }, executor);
+    }
+
+    /**
+     * Stores every token in one task on the executor: deadlines are read before taking
+     * the policy lock, which is then held once for all inserts and the eviction check.
+     */
+    @Override
+    public CompletableFuture<Void> saveAll(Map<String, String> tokens) {
+        for (Map.Entry<String, String> token : tokens.entrySet()) {
+            if (token.getKey() == null || token.getKey().isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+            if (token.getValue() == null || token.getValue().isEmpty()) {
+                throw new IllegalArgumentException("Token cannot be null or empty");
+            }
+        }
+        if (tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Map<String, String> batch = new HashMap<>(tokens);
+        return CompletableFuture.runAsync(() -> {
+            Map<String, TokenEntry> entries = new HashMap<>();
+            batch.forEach((clientId, token) -> entries.put(clientId, new TokenEntry(token, deadlineOf(token))));
+            policyLock.lock();
+            try {
+                entries.forEach(this::put);
+                evictIfNeeded();
+            } finally {
+                policyLock.unlock();
+            }
+        }, executor);
+    }
+
+    // Unexpired token of the client, removing it if it expired; the caller records the hit
+    private String lookup(String clientId, long nowNanos) {
+        TokenEntry entry = jwtCache.get(clientId);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isExpired(nowNanos)) {
+            return entry.getToken();
+        }
+        // Remove expired token
+        removeEntry(clientId, entry);
+        return null;
+    }
+
+    // Caller holds policyLock
+    private void put(String clientId, TokenEntry entry) {
+        TokenEntry previous = jwtCache.put(clientId, entry);
+        if (previous != null) {
+            weightedBytes -= previous.weight(clientId);
+            expiryWheel.cancel(previous.expiryTimer);
+        }
+        weightedBytes += entry.weight(clientId);
+        entry.expiryTimer = expiryWheel.schedule(clientId, entry, entry.deadlineNanos);
+        policy.onInsert(clientId);
     }
 
     public void clear() {
-        jwtCache.clear();
+        policyLock.lock();
+        try {
+            jwtCache.clear();
+            policy.clear();
+            weightedBytes = 0;
+            expiryWheel.clear();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the tokens whose deadline has passed. Runs on the scheduler every tick;
+     * visible for tests and benchmarks that drive time themselves.
+     *
+     * @return number of tokens expired
+     */
+    public int expireDueTokens() {
+        return expiryWheel.advance(timeSource.nanoTime());
+    }
+
+    private long deadlineOf(String token) {
+        long now = timeSource.nanoTime();
+        long expiresAt = JwtClaims.expiresAtMillis(token);
+        if (expiresAt < 0) {
+            return now + DEFAULT_TOKEN_TTL.toNanos();
+        }
+        return now + TimeUnit.MILLISECONDS.toNanos(expiresAt - timeSource.currentTimeMillis());
+    }
+
+    /**
+     * Expiry timers waiting on the wheel.
+     */
+    public int scheduledExpiryCount() {
+        return expiryWheel.size();
+    }
+
+    private void removeEntry(String clientId, TokenEntry entry) {
+        policyLock.lock();
+        try {
+            if (jwtCache.remove(clientId, entry)) {
+                weightedBytes -= entry.weight(clientId);
+                policy.onRemove(clientId);
+                expiryWheel.cancel(entry.expiryTimer);
+                expirations.increment();
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    // Caller holds policyLock
+    private void evictIfNeeded() {
+        while (jwtCache.size() > maxEntries || weightedBytes > maxBytes) {
+            String victim = policy.victim();
+            if (victim == null) {
+                return;
+            }
+            policy.onRemove(victim);
+            TokenEntry evicted = jwtCache.remove(victim);
+            if (evicted != null) {
+                weightedBytes -= evicted.weight(victim);
+                expiryWheel.cancel(evicted.expiryTimer);
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Estimated heap retained by the cached entries.
+     */
+    public long weightedBytes() {
+        policyLock.lock();
+        try {
+            return weightedBytes;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public long evictionCount() {
+        return sizeEvictions.sum();
     }
 
-    private void cleanupExpiredTokens() {
-        jwtCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+    public long expirationCount() {
+        return expirations.sum();
     }
 
     // Method for testing purposes
@@ -0,0 +1,308 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.infraestructure.security.ClientIdBloomFilter;
+import com.markesiano.auth_service.infraestructure.security.ProductKeyDigest;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Client credentials stored in a database through JPA, behind a bounded read-through cache.
+ *
+ * - A cached credential is validated on the calling thread; only a miss queries the
+ *   database, on the I/O executor since JPA blocks. Concurrent misses for the same
+ *   clientId share one query
+ * - Unknown clientIds are cached too (negative caching) for a shorter TTL, so repeated
+ *   attempts with made-up ids do not reach the database each time
+ * - addClientKey / removeClientKey write to the database and replace the cached entry,
+ *   so a lookup that raced with them cannot put a stale credential back
+ * - When the cache is full a few entries are sampled and the one closest to expiring is evicted
+ * - Optionally a Bloom filter over every clientId in the table rejects made-up ids before
+ *   the cache and the database. It is rebuilt from the table every 'filterRefresh', so a
+ *   client inserted by another instance is rejected for at most that long, like an unknown
+ *   client cached negatively
+ *
+ * Only the SHA-256 digest of each product key is stored and cached (see ProductKeyDigest).
+ */
+public class JpaClientKeyRepository implements RepositoryKey {
+    private static final int EVICTION_SAMPLE = 8;
+    // Room for clients added through this instance between two refreshes
+    private static final int FILTER_HEADROOM = 1024;
+
+    private final ClientKeyJpaRepository jpaRepository;
+    private final Executor executor;
+    private final TimeSource timeSource;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<String, CachedCredential> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<byte[]>> inFlightLoads = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final LongAdder filterRejections = new LongAdder();
+    private final LongAdder filterRefreshFailures = new LongAdder();
+    private final double filterFalsePositiveRate;
+    private final Duration filterRefresh;
+    private final Object filterLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // null until the first build, and when the filter is disabled
+    private volatile ClientIdBloomFilter knownClients;
+
+    // digest is null for a clientId the database does not know
+    private record CachedCredential(byte[] digest, long deadlineNanos) {
+        boolean isExpired(long now) {
+            return now - deadlineNanos >= 0;
+        }
+    }
+
+    public JpaClientKeyRepository(ClientKeyJpaRepository jpaRepository, Executor executor, int maxEntries,
+                                  Duration ttl, Duration negativeTtl) {
+        this(jpaRepository, executor, maxEntries, ttl, negativeTtl, 0.0, null, TimeSource.SYSTEM);
+    }
+
+    /**
+     * @param filterFalsePositiveRate false positive rate of the clientId Bloom filter, 0 disables it
+     * @param filterRefresh how often the filter is rebuilt from the table
+     */
+    public JpaClientKeyRepository(ClientKeyJpaRepository jpaRepository, Executor executor, int maxEntries,
+                                  Duration ttl, Duration negativeTtl, double filterFalsePositiveRate,
+                                  Duration filterRefresh, TimeSource timeSource) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Credential cache needs room for at least one entry");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero() || negativeTtl == null || negativeTtl.isNegative() || negativeTtl.isZero()) {
+            throw new IllegalArgumentException("Credential cache TTLs must be positive");
+        }
+        this.jpaRepository = jpaRepository;
+        this.executor = executor;
+        this.timeSource = timeSource;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.filterFalsePositiveRate = filterFalsePositiveRate;
+        this.filterRefresh = filterRefresh;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (filterFalsePositiveRate <= 0) {
+            return;
+        }
+        refreshFilter();
+        long interval = filterRefresh.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refreshFilter();
+            } catch (RuntimeException e) {
+                // Keep serving with the previous filter, an exception would cancel the schedule
+                filterRefreshFailures.increment();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isValidClient(String clientId, String productKey) {
+        if (clientId == null) {
+            throw new IllegalArgumentException("Client ID cannot be null");
+        }
+        if (productKey == null) {
+            throw new IllegalArgumentException("Product key cannot be null");
+        }
+        ClientIdBloomFilter filter = knownClients;
+        if (filter != null && !filter.mightContain(clientId)) {
+            filterRejections.increment();
+            // Still hash and compare against the dummy digest so an unknown id takes as long as a wrong key
+            return CompletableFuture.completedFuture(ProductKeyDigest.matches(null, productKey));
+        }
+        CachedCredential cached = cache.get(clientId);
+        if (cached != null) {
+            if (!cached.isExpired(timeSource.nanoTime())) {
+                (cached.digest() != null ? hits : negativeHits).increment();
+                return CompletableFuture.completedFuture(ProductKeyDigest.matches(cached.digest(), productKey));
+            }
+            cache.remove(clientId, cached);
+        }
+        misses.increment();
+        return loadOnce(clientId).thenApply(digest -> ProductKeyDigest.matches(digest, productKey));
+    }
+
+    /**
+     * Creates or replaces the credential of a client.
+     */
+    public void addClientKey(String clientId, String productKey) {
+        byte[] digest = ProductKeyDigest.of(productKey);
+        synchronized (filterLock) {
+            ClientIdBloomFilter filter = knownClients;
+            if (filter != null) {
+                filter.put(clientId);
+            }
+            jpaRepository.save(new ClientKeyEntity(clientId, digest));
+        }
+        cache(clientId, digest, true);
+    }
+
+    public void removeClientKey(String clientId) {
+        jpaRepository.deleteById(clientId);
+        cache(clientId, null, true);
+    }
+
+    /**
+     * Drops every cached credential, the next lookups go to the database.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Rebuilds the clientId filter from the table, dropping removed clients.
+     */
+    public void refreshFilter() {
+        // Serialized with addClientKey so a client saved while the table is read is not lost
+        synchronized (filterLock) {
+            List<String> clientIds = jpaRepository.findAllClientIds();
+            knownClients = ClientIdBloomFilter.of(clientIds, clientIds.size(),
+                Math.max(FILTER_HEADROOM, clientIds.size() / 4), filterFalsePositiveRate);
+        }
+    }
+
+    private CompletableFuture<byte[]> loadOnce(String clientId) {
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> inFlight = inFlightLoads.putIfAbsent(clientId, load);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        CompletableFuture<byte[]> loaded;
+        try {
+            loaded = CompletableFuture.supplyAsync(() -> load(clientId), executor);
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((digest, error) -> {
+            // Leave the map before completing so a later miss starts a fresh query
+            inFlightLoads.remove(clientId, load);
+            if (error != null) {
+                load.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+            } else {
+                load.complete(digest);
+            }
+        });
+        return load;
+    }
+
+    private byte[] load(String clientId) {
+        long start = timeSource.nanoTime();
+        byte[] digest;
+        try {
+            digest = jpaRepository.findById(clientId).map(ClientKeyEntity::getProductKeyDigest).orElse(null);
+        } finally {
+            queries.increment();
+            queryNanos.add(timeSource.nanoTime() - start);
+        }
+        cache(clientId, digest, false);
+        return digest;
+    }
+
+    // 'replace' is false for loads: an entry written meanwhile by add/remove is newer and wins
+    private void cache(String clientId, byte[] digest, boolean replace) {
+        long now = timeSource.nanoTime();
+        CachedCredential entry = new CachedCredential(digest, now + (digest != null ? ttlNanos : negativeTtlNanos));
+        if (cache.size() >= maxEntries && !cache.containsKey(clientId)) {
+            evictOne(now);
+        }
+        if (replace) {
+            cache.put(clientId, entry);
+        } else {
+            cache.putIfAbsent(clientId, entry);
+        }
+    }
+
+    private void evictOne(long now) {
+        String victim = null;
+        long victimDeadline = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, CachedCredential>> it = cache.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && it.hasNext(); i++) {
+            Map.Entry<String, CachedCredential> candidate = it.next();
+            if (candidate.getValue().isExpired(now)) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (victim == null || candidate.getValue().deadlineNanos() - victimDeadline < 0) {
+                victim = candidate.getKey();
+                victimDeadline = candidate.getValue().deadlineNanos();
+            }
+        }
+        if (victim != null && cache.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Lookups of unknown clientIds answered from the cache.
+     */
+    public long negativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long queryCount() {
+        return queries.sum();
+    }
+
+    /**
+     * Total time spent in database lookups, in nanoseconds.
+     */
+    public long queryNanos() {
+        return queryNanos.sum();
+    }
+
+    /**
+     * Lookups rejected by the clientId filter without reading the cache or the database.
+     */
+    public long filterRejectionCount() {
+        return filterRejections.sum();
+    }
+
+    public long filterRefreshFailureCount() {
+        return filterRefreshFailures.sum();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+}
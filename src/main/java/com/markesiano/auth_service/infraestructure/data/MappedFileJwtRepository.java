@@ -0,0 +1,375 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.security.JwtClaims;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Token cache persisted in a memory-mapped append-only file, so a restarted instance
+ * serves the tokens it had minted before instead of re-signing them all at once.
+ *
+ * - Every save appends a record [length][crc32c][deadline][key length][key][token]
+ *   to the mapped file; the OS writes it back, so it survives a process restart
+ * - An in-memory index maps each clientId to the offset of its latest record; tokens
+ *   are read back from the mapping and are not kept on the heap
+ * - Deadlines are wall clock epoch millis (taken from the token's 'exp') because they
+ *   have to stay meaningful across restarts
+ * - On startup the file is replayed up to the first torn or corrupt record
+ * - Overwritten and expired records are dead space; compaction rewrites the live ones
+ *   into a new file that atomically replaces the old one. It runs periodically when
+ *   at least half of the file is dead, and inline when an append does not fit but
+ *   would after dropping the overwritten records. When the file is full of live
+ *   tokens new ones are not persisted and the signer serves them again.
+ */
+public class MappedFileJwtRepository implements RepositoryJwt<String> {
+    private static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(1); // Match JWT expiration time
+    // length + crc
+    private static final int RECORD_HEADER = 8;
+    // deadline + key length
+    private static final int PAYLOAD_HEADER = 10;
+
+    private final Path path;
+    private final int capacity;
+    private final Duration compactionInterval;
+    private final Executor executor;
+    private final TimeSource timeSource;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    // Guarded by lock
+    private final Map<String, Integer> index = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private int writePosition;
+    private long liveBytes;
+
+    public MappedFileJwtRepository(Path path, int capacity, Duration compactionInterval, Executor executor, TimeSource timeSource) {
+        if (capacity <= RECORD_HEADER + PAYLOAD_HEADER) {
+            throw new IllegalArgumentException("Token file capacity is too small");
+        }
+        this.path = path;
+        this.capacity = capacity;
+        this.compactionInterval = compactionInterval;
+        this.executor = executor;
+        this.timeSource = timeSource;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            open(path);
+            replay();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open token file " + path, e);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        long interval = compactionInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::compactIfWorthIt, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdown();
+        lock.writeLock().lock();
+        try {
+            mapping.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close token file " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> getJwtCached(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            lock.readLock().lock();
+            try {
+                Integer offset = index.get(clientId);
+                if (offset == null) {
+                    return null;
+                }
+                int length = mapping.getInt(offset);
+                int payload = offset + RECORD_HEADER;
+                if (timeSource.currentTimeMillis() >= mapping.getLong(payload)) {
+                    // Left in place: the index entry is dropped by the next compaction
+                    return null;
+                }
+                int keyLength = mapping.getShort(payload + 8);
+                int tokenStart = payload + PAYLOAD_HEADER + keyLength;
+                byte[] token = new byte[length - PAYLOAD_HEADER - keyLength];
+                mapping.get(tokenStart, token);
+                return new String(token, StandardCharsets.UTF_8);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveJwt(String clientId, String token) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token cannot be null or empty");
+        }
+        return CompletableFuture.runAsync(() -> {
+            byte[] record = encode(clientId, token, deadlineOf(token));
+            lock.writeLock().lock();
+            try {
+                if (writePosition + record.length > capacity && liveBytes + record.length <= capacity) {
+                    compact();
+                }
+                if (writePosition + record.length > capacity) {
+                    // Still full of live tokens: serve this one from the signer next time
+                    rejected.increment();
+                    dropFromIndex(clientId);
+                    return;
+                }
+                append(clientId, record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write token file " + path, e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }, executor);
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            liveBytes = 0;
+            mapping.putInt(0, 0);
+            writePosition = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the live records when at least half of it is
+     * overwritten or expired tokens.
+     */
+    public void compactIfWorthIt() {
+        lock.writeLock().lock();
+        try {
+            if (writePosition > 0 && unexpiredBytes() * 2 <= writePosition) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact token file " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getCacheSize() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes of the file in use, dead records included.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long liveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long compactionCount() {
+        return compactions.sum();
+    }
+
+    /**
+     * Tokens not persisted because the file was full of live tokens.
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    // Caller holds the write lock
+    private void append(String clientId, byte[] record) {
+        mapping.put(writePosition, record);
+        // Terminator so a replay stops here even if the file held older data past this point
+        if (writePosition + record.length + 4 <= capacity) {
+            mapping.putInt(writePosition + record.length, 0);
+        }
+        dropFromIndex(clientId);
+        index.put(clientId, writePosition);
+        liveBytes += record.length;
+        writePosition += record.length;
+    }
+
+    // Caller holds the write lock
+    private void dropFromIndex(String clientId) {
+        Integer previous = index.remove(clientId);
+        if (previous != null) {
+            liveBytes -= RECORD_HEADER + mapping.getInt(previous);
+        }
+    }
+
+    // Caller holds the lock. liveBytes still counts expired tokens until a compaction drops them
+    private long unexpiredBytes() {
+        long now = timeSource.currentTimeMillis();
+        long bytes = 0;
+        for (int offset : index.values()) {
+            if (now < mapping.getLong(offset + RECORD_HEADER)) {
+                bytes += RECORD_HEADER + mapping.getInt(offset);
+            }
+        }
+        return bytes;
+    }
+
+    // Caller holds the write lock
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        long now = timeSource.currentTimeMillis();
+        Map<String, Integer> compactedIndex = new HashMap<>();
+        long compactedLive = 0;
+        int position = 0;
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer targetMapping = target.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                int offset = entry.getValue();
+                int recordLength = RECORD_HEADER + mapping.getInt(offset);
+                if (now >= mapping.getLong(offset + RECORD_HEADER)) {
+                    continue;
+                }
+                byte[] record = new byte[recordLength];
+                mapping.get(offset, record);
+                targetMapping.put(position, record);
+                compactedIndex.put(entry.getKey(), position);
+                compactedLive += recordLength;
+                position += recordLength;
+            }
+            if (position + 4 <= capacity) {
+                targetMapping.putInt(position, 0);
+            }
+            targetMapping.force();
+        }
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open(path);
+        index.clear();
+        index.putAll(compactedIndex);
+        liveBytes = compactedLive;
+        writePosition = position;
+        compactions.increment();
+    }
+
+    private void open(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    // Rebuilds the index from the file, stopping at the first record that is not complete and intact
+    private void replay() {
+        long now = timeSource.currentTimeMillis();
+        int position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + RECORD_HEADER + PAYLOAD_HEADER <= capacity) {
+            int length = mapping.getInt(position);
+            if (length < PAYLOAD_HEADER || position + RECORD_HEADER + length > capacity) {
+                break;
+            }
+            crc.reset();
+            crc.update(mapping.slice(position + RECORD_HEADER, length));
+            if ((int) crc.getValue() != mapping.getInt(position + 4)) {
+                break;
+            }
+            int payload = position + RECORD_HEADER;
+            int keyLength = mapping.getShort(payload + 8);
+            if (keyLength <= 0 || keyLength > length - PAYLOAD_HEADER) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            mapping.get(payload + PAYLOAD_HEADER, key);
+            String clientId = new String(key, StandardCharsets.UTF_8);
+            dropFromIndex(clientId);
+            if (now < mapping.getLong(payload)) {
+                index.put(clientId, position);
+                liveBytes += RECORD_HEADER + length;
+            }
+            position += RECORD_HEADER + length;
+        }
+        writePosition = position;
+    }
+
+    private long deadlineOf(String token) {
+        long expiresAt = JwtClaims.expiresAtMillis(token);
+        return expiresAt >= 0 ? expiresAt : timeSource.currentTimeMillis() + DEFAULT_TOKEN_TTL.toMillis();
+    }
+
+    private static byte[] encode(String clientId, String token, long deadline) {
+        byte[] key = clientId.getBytes(StandardCharsets.UTF_8);
+        byte[] value = token.getBytes(StandardCharsets.UTF_8);
+        if (key.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Client ID is too long");
+        }
+        int length = PAYLOAD_HEADER + key.length + value.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + length);
+        record.putInt(length);
+        record.putInt(0);
+        record.putLong(deadline);
+        record.putShort((short) key.length);
+        record.put(key);
+        record.put(value);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), RECORD_HEADER, length);
+        record.putInt(4, (int) crc.getValue());
+        return record.array();
+    }
+}
@@ -0,0 +1,114 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+/**
+ * Token cache that talks RESP directly to Redis instead of going through the
+ * cached-redis HTTP proxy.
+ *
+ * Every request shares one multiplexed connection: commands are written as soon as
+ * they are issued without waiting for earlier replies, so concurrent lookups are
+ * pipelined on the socket and matched to their replies in order. Tokens are stored
+ * with SET ... EX so Redis expires them together with the JWT.
+ *
+ * Batches cost one round trip: getAll is a single MGET, and saveAll writes its
+ * SET ... EX commands back to back without waiting for the replies in between.
+ */
+public class NativeRedisJwtRepository implements RepositoryJwt<String> {
+    private static final Duration DEFAULT_TTL = Duration.ofHours(1); // Match JWT expiration time
+
+    private final RedisAsyncCommands<String, String> commands;
+    private final String keyPrefix;
+    private final SetArgs setArgs;
+
+    public NativeRedisJwtRepository(StatefulRedisConnection<String, String> connection) {
+        this(connection, "jwt:", DEFAULT_TTL);
+    }
+
+    public NativeRedisJwtRepository(StatefulRedisConnection<String, String> connection, String keyPrefix, Duration ttl) {
+        if (ttl == null || ttl.toSeconds() <= 0) {
+            throw new IllegalArgumentException("Token TTL must be at least one second");
+        }
+        this.commands = connection.async();
+        this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+        this.setArgs = SetArgs.Builder.ex(ttl.toSeconds());
+    }
+
+    @Override
+    public CompletableFuture<String> getJwtCached(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        // A missing key replies with a null bulk string, which completes the future with null
+        return commands.get(keyPrefix + clientId).toCompletableFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> saveJwt(String clientId, String token) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token cannot be null or empty");
+        }
+        return commands.set(keyPrefix + clientId, token, setArgs)
+            .toCompletableFuture()
+            .thenAccept(reply -> { });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getAll(Collection<String> clientIds) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String clientId : clientIds) {
+            if (clientId == null || clientId.isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+            keys.add(keyPrefix + clientId);
+        }
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        return commands.mget(keys.toArray(String[]::new))
+            .toCompletableFuture()
+            .thenApply(replies -> {
+                Map<String, String> tokens = new HashMap<>();
+                for (KeyValue<String, String> reply : replies) {
+                    if (reply.hasValue()) {
+                        tokens.put(reply.getKey().substring(keyPrefix.length()), reply.getValue());
+                    }
+                }
+                return tokens;
+            });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAll(Map<String, String> tokens) {
+        for (Map.Entry<String, String> entry : tokens.entrySet()) {
+            if (entry.getKey() == null || entry.getKey().isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                throw new IllegalArgumentException("Token cannot be null or empty");
+            }
+        }
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[tokens.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : tokens.entrySet()) {
+            writes[i++] = commands.set(keyPrefix + entry.getKey(), entry.getValue(), setArgs).toCompletableFuture();
+        }
+        return CompletableFuture.allOf(writes);
+    }
+}
@@ -0,0 +1,234 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.security.JwtClaims;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+/**
+ * Two tier token cache: a bounded local map (L1) in front of a remote repository (L2).
+ *
+ * - Lookups are answered from L1 when possible and only go remote on a local miss;
+ *   tokens found remotely are copied into L1
+ * - saveJwt writes through: the token is stored remotely first and kept locally
+ *   once the remote write succeeded
+ * - getAll and saveAll keep batches whole: the local misses of a batch go to the remote
+ *   tier in a single getAll, and a batch of tokens is written remotely with one saveAll
+ * - A local entry lives for 'localTtl' at most and never past the token's own 'exp',
+ *   so L1 cannot hand out a token the remote tier already expired
+ * - When L1 is full a few entries are sampled and the one closest to expiring is evicted
+ *
+ * Hits per tier and misses are counted so hit ratios can be published as metrics.
+ */
+public class NearCacheJwtRepository implements RepositoryJwt<String> {
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final RepositoryJwt<String> remote;
+    private final TimeSource timeSource;
+    private final int maxEntries;
+    private final long localTtlNanos;
+    private final Map<String, LocalEntry> local = new ConcurrentHashMap<>();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record LocalEntry(String token, long deadlineNanos) {
+        boolean isExpired(long now) {
+            return now - deadlineNanos >= 0;
+        }
+    }
+
+    public NearCacheJwtRepository(RepositoryJwt<String> remote, int maxEntries, Duration localTtl) {
+        this(remote, maxEntries, localTtl, TimeSource.SYSTEM);
+    }
+
+    public NearCacheJwtRepository(RepositoryJwt<String> remote, int maxEntries, Duration localTtl, TimeSource timeSource) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Near cache needs room for at least one entry");
+        }
+        if (localTtl == null || localTtl.isNegative() || localTtl.isZero()) {
+            throw new IllegalArgumentException("Near cache TTL must be positive");
+        }
+        this.remote = remote;
+        this.timeSource = timeSource;
+        this.maxEntries = maxEntries;
+        this.localTtlNanos = localTtl.toNanos();
+    }
+
+    @Override
+    public CompletableFuture<String> getJwtCached(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        LocalEntry entry = local.get(clientId);
+        if (entry != null) {
+            if (!entry.isExpired(timeSource.nanoTime())) {
+                localHits.increment();
+                return CompletableFuture.completedFuture(entry.token());
+            }
+            local.remove(clientId, entry);
+        }
+        return remote.getJwtCached(clientId).thenApply(token -> {
+            if (token == null) {
+                misses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            putLocal(clientId, token);
+            return token;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveJwt(String clientId, String token) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token cannot be null or empty");
+        }
+        return remote.saveJwt(clientId, token).thenRun(() -> putLocal(clientId, token));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getAll(Collection<String> clientIds) {
+        Map<String, String> tokens = new HashMap<>();
+        Set<String> remoteLookups = new LinkedHashSet<>();
+        long now = timeSource.nanoTime();
+        for (String clientId : clientIds) {
+            if (clientId == null || clientId.isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+            LocalEntry entry = local.get(clientId);
+            if (entry != null && !entry.isExpired(now)) {
+                localHits.increment();
+                tokens.put(clientId, entry.token());
+                continue;
+            }
+            if (entry != null) {
+                local.remove(clientId, entry);
+            }
+            remoteLookups.add(clientId);
+        }
+        if (remoteLookups.isEmpty()) {
+            return CompletableFuture.completedFuture(tokens);
+        }
+        return remote.getAll(remoteLookups).thenApply(found -> {
+            for (String clientId : remoteLookups) {
+                String token = found.get(clientId);
+                if (token == null) {
+                    misses.increment();
+                    continue;
+                }
+                remoteHits.increment();
+                putLocal(clientId, token);
+                tokens.put(clientId, token);
+            }
+            return tokens;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAll(Map<String, String> tokens) {
+        Map<String, String> batch = new HashMap<>(tokens);
+        return remote.saveAll(batch).thenRun(() -> batch.forEach(this::putLocal));
+    }
+
+    /**
+     * Drops the local copy so the next lookup goes to the remote tier.
+     */
+    public void invalidate(String clientId) {
+        local.remove(clientId);
+    }
+
+    public void clear() {
+        local.clear();
+    }
+
+    private void putLocal(String clientId, String token) {
+        long now = timeSource.nanoTime();
+        long ttl = localTtlNanos;
+        long expiresAt = JwtClaims.expiresAtMillis(token);
+        if (expiresAt >= 0) {
+            ttl = Math.min(ttl, TimeUnit.MILLISECONDS.toNanos(expiresAt - timeSource.currentTimeMillis()));
+        }
+        if (ttl <= 0) {
+            local.remove(clientId);
+            return;
+        }
+        if (local.size() >= maxEntries && !local.containsKey(clientId)) {
+            evictOne(now);
+        }
+        local.put(clientId, new LocalEntry(token, now + ttl));
+    }
+
+    private void evictOne(long now) {
+        String victim = null;
+        long victimDeadline = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, LocalEntry>> it = local.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && it.hasNext(); i++) {
+            Map.Entry<String, LocalEntry> candidate = it.next();
+            if (candidate.getValue().isExpired(now)) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (victim == null || candidate.getValue().deadlineNanos() - victimDeadline < 0) {
+                victim = candidate.getKey();
+                victimDeadline = candidate.getValue().deadlineNanos();
+            }
+        }
+        if (victim != null && local.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    public long localHitCount() {
+        return localHits.sum();
+    }
+
+    public long remoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Share of all lookups answered without leaving the process.
+     */
+    public double localHitRatio() {
+        long hits = localHits.sum();
+        long total = hits + remoteHits.sum() + misses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Share of the lookups that reached the remote tier and found a token there.
+     */
+    public double remoteHitRatio() {
+        long hits = remoteHits.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public int getLocalSize() {
+        return local.size();
+    }
+}
@@ -0,0 +1,399 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.security.JwtClaims;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+/**
+ * Token cache that keeps clientIds and tokens outside the Java heap.
+ *
+ * The cache is split in segments, each one owning two direct ByteBuffers allocated at
+ * startup:
+ * - records: fixed size slots holding [flags][key length][token length][deadline][hash][key][token]
+ * - index: open addressing table (linear probing, backward shift deletion) of longs
+ *   packing the key hash and the record slot
+ *
+ * The only objects on the heap are the buffers themselves and one free-slot stack per
+ * segment, so the amount of GC traced memory does not grow with the number of cached
+ * clients. A full segment evicts with CLOCK (second chance), preferring expired records.
+ * Records larger than the slot size are not cached. Expired records are dropped when
+ * read or when the clock hand reaches them.
+ */
+public class OffHeapJwtRepository implements RepositoryJwt<String> {
+    public static final int DEFAULT_SLOT_SIZE = 512;
+    private static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(1); // Match JWT expiration time
+
+    private static final int FLAG_USED = 1;
+    private static final int FLAG_REFERENCED = 2;
+    private static final int FLAGS_OFFSET = 0;
+    private static final int KEY_LENGTH_OFFSET = 1;
+    private static final int TOKEN_LENGTH_OFFSET = 3;
+    private static final int DEADLINE_OFFSET = 5;
+    private static final int HASH_OFFSET = 13;
+    private static final int HEADER_SIZE = 17;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int slotSize;
+    private final Executor executor;
+    private final TimeSource timeSource;
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+
+    public OffHeapJwtRepository(int maxEntries) {
+        this(ForkJoinPool.commonPool(), maxEntries, DEFAULT_SLOT_SIZE, 16, TimeSource.SYSTEM);
+    }
+
+    public OffHeapJwtRepository(Executor executor, int maxEntries, int slotSize, int segmentCount, TimeSource timeSource) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Off-heap token cache needs room for at least one entry");
+        }
+        if (slotSize <= HEADER_SIZE + 2 || slotSize > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap slot size must be between " + (HEADER_SIZE + 3) + " and " + Short.MAX_VALUE + " bytes");
+        }
+        if (segmentCount <= 0 || Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Off-heap segment count must be a power of two");
+        }
+        int slotsPerSegment = Math.max(1, (maxEntries + segmentCount - 1) / segmentCount);
+        if ((long) slotsPerSegment * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap segment exceeds 2GB, use more segments");
+        }
+        this.executor = executor;
+        this.timeSource = timeSource;
+        this.slotSize = slotSize;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(slotsPerSegment);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> getJwtCached(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            byte[] key = clientId.getBytes(StandardCharsets.UTF_8);
+            int hash = hash(key);
+            return segmentFor(hash).get(key, hash, timeSource.nanoTime());
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveJwt(String clientId, String token) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token cannot be null or empty");
+        }
+        return CompletableFuture.runAsync(() -> {
+            byte[] key = clientId.getBytes(StandardCharsets.UTF_8);
+            byte[] value = token.getBytes(StandardCharsets.UTF_8);
+            int hash = hash(key);
+            Segment segment = segmentFor(hash);
+            if (HEADER_SIZE + key.length + value.length > slotSize) {
+                // Too large to cache: make sure an older token for the client is not served instead
+                oversized.increment();
+                segment.remove(key, hash);
+                return;
+            }
+            segment.put(key, value, hash, deadlineOf(token));
+        }, executor);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int getCacheSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Off-heap bytes reserved for records and index, allocated up front.
+     */
+    public long reservedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.records.capacity() + segment.index.capacity();
+        }
+        return bytes;
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Tokens not cached because clientId and token did not fit in a slot.
+     */
+    public long oversizedCount() {
+        return oversized.sum();
+    }
+
+    private long deadlineOf(String token) {
+        long now = timeSource.nanoTime();
+        long expiresAt = JwtClaims.expiresAtMillis(token);
+        if (expiresAt < 0) {
+            return now + DEFAULT_TOKEN_TTL.toNanos();
+        }
+        return now + TimeUnit.MILLISECONDS.toNanos(expiresAt - timeSource.currentTimeMillis());
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        // Spread the bits: the top ones pick the segment, the low ones the index bucket
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private final class Segment {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ByteBuffer records;
+        private final ByteBuffer index;
+        private final int slots;
+        private final int indexMask;
+        private final int[] freeSlots;
+        private int freeCount;
+        private int size;
+        private int clockHand;
+
+        Segment(int slots) {
+            this.slots = slots;
+            this.records = ByteBuffer.allocateDirect(slots * slotSize);
+            int indexCapacity = Integer.highestOneBit(Math.max(2, slots * 2 - 1)) << 1;
+            this.indexMask = indexCapacity - 1;
+            this.index = ByteBuffer.allocateDirect(indexCapacity * Long.BYTES);
+            this.freeSlots = new int[slots];
+            resetFreeSlots();
+        }
+
+        String get(byte[] key, int hash, long now) {
+            lock.readLock().lock();
+            int bucket;
+            try {
+                bucket = find(key, hash);
+                if (bucket < 0) {
+                    return null;
+                }
+                int base = slotOf(index.getLong(bucket * Long.BYTES)) * slotSize;
+                if (now - records.getLong(base + DEADLINE_OFFSET) < 0) {
+                    // Benign race with other readers: they only ever set the same bit
+                    records.put(base + FLAGS_OFFSET, (byte) (records.get(base + FLAGS_OFFSET) | FLAG_REFERENCED));
+                    int keyLength = records.getShort(base + KEY_LENGTH_OFFSET);
+                    int tokenLength = records.getShort(base + TOKEN_LENGTH_OFFSET);
+                    byte[] token = new byte[tokenLength];
+                    records.get(base + HEADER_SIZE + keyLength, token);
+                    return new String(token, StandardCharsets.UTF_8);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            // Expired: drop it unless it was replaced in the meantime
+            lock.writeLock().lock();
+            try {
+                int current = find(key, hash);
+                if (current >= 0) {
+                    int slot = slotOf(index.getLong(current * Long.BYTES));
+                    if (now - records.getLong(slot * slotSize + DEADLINE_OFFSET) >= 0) {
+                        removeAt(current);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return null;
+        }
+
+        void put(byte[] key, byte[] value, int hash, long deadline) {
+            lock.writeLock().lock();
+            try {
+                int bucket = find(key, hash);
+                int slot;
+                if (bucket >= 0) {
+                    slot = slotOf(index.getLong(bucket * Long.BYTES));
+                } else {
+                    slot = allocateSlot();
+                    insertIndex(hash, slot);
+                    size++;
+                }
+                int base = slot * slotSize;
+                records.put(base + FLAGS_OFFSET, (byte) FLAG_USED);
+                records.putShort(base + KEY_LENGTH_OFFSET, (short) key.length);
+                records.putShort(base + TOKEN_LENGTH_OFFSET, (short) value.length);
+                records.putLong(base + DEADLINE_OFFSET, deadline);
+                records.putInt(base + HASH_OFFSET, hash);
+                records.put(base + HEADER_SIZE, key);
+                records.put(base + HEADER_SIZE + key.length, value);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(byte[] key, int hash) {
+            lock.writeLock().lock();
+            try {
+                int bucket = find(key, hash);
+                if (bucket >= 0) {
+                    removeAt(bucket);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i <= indexMask; i++) {
+                    index.putLong(i * Long.BYTES, 0L);
+                }
+                for (int slot = 0; slot < slots; slot++) {
+                    records.put(slot * slotSize + FLAGS_OFFSET, (byte) 0);
+                }
+                resetFreeSlots();
+                size = 0;
+                clockHand = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void resetFreeSlots() {
+            for (int i = 0; i < slots; i++) {
+                freeSlots[i] = slots - 1 - i;
+            }
+            freeCount = slots;
+        }
+
+        // Caller holds a lock. Returns the index bucket holding the key, or -1
+        private int find(byte[] key, int hash) {
+            int bucket = hash & indexMask;
+            while (true) {
+                long entry = index.getLong(bucket * Long.BYTES);
+                if (entry == 0L) {
+                    return -1;
+                }
+                if ((int) (entry >>> 32) == hash && keyEquals(slotOf(entry), key)) {
+                    return bucket;
+                }
+                bucket = (bucket + 1) & indexMask;
+            }
+        }
+
+        private boolean keyEquals(int slot, byte[] key) {
+            int base = slot * slotSize;
+            if (records.getShort(base + KEY_LENGTH_OFFSET) != key.length) {
+                return false;
+            }
+            return records.slice(base + HEADER_SIZE, key.length).equals(ByteBuffer.wrap(key));
+        }
+
+        // Caller holds the write lock
+        private void insertIndex(int hash, int slot) {
+            int bucket = hash & indexMask;
+            while (index.getLong(bucket * Long.BYTES) != 0L) {
+                bucket = (bucket + 1) & indexMask;
+            }
+            index.putLong(bucket * Long.BYTES, ((long) hash << 32) | ((slot + 1) & 0xFFFFFFFFL));
+        }
+
+        // Caller holds the write lock. Backward shift deletion keeps probe chains intact without tombstones
+        private void removeAt(int bucket) {
+            int slot = slotOf(index.getLong(bucket * Long.BYTES));
+            records.put(slot * slotSize + FLAGS_OFFSET, (byte) 0);
+            freeSlots[freeCount++] = slot;
+            size--;
+            int hole = bucket;
+            int next = (hole + 1) & indexMask;
+            while (true) {
+                long entry = index.getLong(next * Long.BYTES);
+                if (entry == 0L) {
+                    break;
+                }
+                int home = (int) (entry >>> 32) & indexMask;
+                // Move the entry into the hole unless its home lies cyclically in (hole, next]
+                boolean stays = hole <= next ? (home > hole && home <= next) : (home > hole || home <= next);
+                if (!stays) {
+                    index.putLong(hole * Long.BYTES, entry);
+                    hole = next;
+                }
+                next = (next + 1) & indexMask;
+            }
+            index.putLong(hole * Long.BYTES, 0L);
+        }
+
+        // Caller holds the write lock
+        private int allocateSlot() {
+            if (freeCount == 0) {
+                evictOne();
+            }
+            return freeSlots[--freeCount];
+        }
+
+        // Caller holds the write lock. CLOCK: expired or unreferenced records go, referenced ones get a second chance
+        private void evictOne() {
+            long now = timeSource.nanoTime();
+            while (true) {
+                int slot = clockHand;
+                clockHand = (clockHand + 1) % slots;
+                int base = slot * slotSize;
+                byte flags = records.get(base + FLAGS_OFFSET);
+                if ((flags & FLAG_USED) == 0) {
+                    continue;
+                }
+                boolean expired = now - records.getLong(base + DEADLINE_OFFSET) >= 0;
+                if (!expired && (flags & FLAG_REFERENCED) != 0) {
+                    records.put(base + FLAGS_OFFSET, (byte) (flags & ~FLAG_REFERENCED));
+                    continue;
+                }
+                int keyLength = records.getShort(base + KEY_LENGTH_OFFSET);
+                byte[] key = new byte[keyLength];
+                records.get(base + HEADER_SIZE, key);
+                removeAt(find(key, records.getInt(base + HASH_OFFSET)));
+                if (!expired) {
+                    evictions.increment();
+                }
+                return;
+            }
+        }
+
+        private static int slotOf(long entry) {
+            return (int) entry - 1;
+        }
+    }
+}
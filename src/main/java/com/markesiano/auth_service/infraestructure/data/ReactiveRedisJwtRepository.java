@@ -0,0 +1,196 @@
+package com.markesiano.auth_service.infraestructure.data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryJwt;
+import com.markesiano.auth_service.infraestructure.dtos.JwtRequest;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non blocking client for the cached-redis proxy. Requests are only sent on
+ * subscription and no thread is held while waiting for the response.
+ *
+ * With 'batchEndpoints' getAll and saveAll send a whole batch in one request (the
+ * contract is described on JwtRequest):
+ * - POST /api/v1/cached-redis/tokens/lookup with the clientIds, answered with an object
+ *   mapping each cached clientId to its token; '{}' when none of them is cached
+ * - POST /api/v1/cached-redis/tokens with the JwtRequest of every token
+ * A proxy that answers 404 or 405 to either endpoint does not have them: that batch and
+ * every batch for the next BATCH_RETRY_AFTER go one request per client, then the endpoints
+ * are tried again, so a proxy upgraded or briefly misrouted is picked up without a restart.
+ * A 404 on the lookup is never read as every client missing, since an unmapped POST path
+ * answers 404 too and the whole batch would be minted again and overwritten.
+ * Without 'batchEndpoints' batches always go one request per client.
+ */
+public class ReactiveRedisJwtRepository implements ReactiveRepositoryJwt<String> {
+    private static final ParameterizedTypeReference<Map<String, String>> TOKEN_MAP =
+        new ParameterizedTypeReference<>() { };
+    private static final Duration TOKEN_TTL = Duration.ofHours(1); // Match JWT expiration time
+    private static final Duration BATCH_RETRY_AFTER = Duration.ofMinutes(5);
+
+    private final WebClient webClient;
+    private final boolean batchEndpoints;
+    private final TimeSource timeSource;
+    // Batch endpoints are skipped until this instant after the proxy reported them missing
+    private volatile long batchRetryAtNanos;
+
+    public ReactiveRedisJwtRepository(WebClient webClient) {
+        this(webClient, true);
+    }
+
+    public ReactiveRedisJwtRepository(WebClient webClient, boolean batchEndpoints) {
+        this(webClient, batchEndpoints, TimeSource.SYSTEM);
+    }
+
+    public ReactiveRedisJwtRepository(WebClient webClient, boolean batchEndpoints, TimeSource timeSource) {
+        this.webClient = webClient;
+        this.batchEndpoints = batchEndpoints;
+        this.timeSource = timeSource;
+        this.batchRetryAtNanos = timeSource.nanoTime();
+    }
+
+    @Override
+    public Mono<String> getJwtCached(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        return Mono.defer(() -> webClient.get()
+            .uri("/api/v1/cached-redis/token/{clientId}", clientId)
+            .exchangeToMono(response -> {
+                if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                    return response.releaseBody().then(Mono.<String>empty());
+                }
+                if (response.statusCode().is2xxSuccessful()) {
+                    return response.bodyToMono(String.class);
+                }
+                return response.createError();
+            }));
+    }
+
+    @Override
+    public Mono<Void> saveJwt(String clientId, String token) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token cannot be null or empty");
+        }
+        JwtRequest jwtRequest = new JwtRequest(clientId, token, TOKEN_TTL);
+        return Mono.defer(() -> webClient.post()
+            .uri("/api/v1/cached-redis/token")
+            .bodyValue(jwtRequest)
+            .retrieve()
+            .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
+                    clientResponse -> clientResponse.createException())
+            .bodyToMono(Void.class));
+    }
+
+    /**
+     * Cached tokens of the given clients in one request; clients without one are left out.
+     */
+    public Mono<Map<String, String>> getAll(Collection<String> clientIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String clientId : clientIds) {
+            if (clientId == null || clientId.isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+            ids.add(clientId);
+        }
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Mono.defer(() -> {
+            if (!batchAvailable()) {
+                return getEach(ids);
+            }
+            return webClient.post()
+                .uri("/api/v1/cached-redis/tokens/lookup")
+                .bodyValue(List.copyOf(ids))
+                .exchangeToMono(response -> {
+                    if (isMissingEndpoint(response.statusCode())) {
+                        batchUnavailable();
+                        return response.releaseBody().then(getEach(ids));
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.bodyToMono(TOKEN_MAP).defaultIfEmpty(Map.of());
+                    }
+                    return response.createError();
+                });
+        });
+    }
+
+    /**
+     * Stores every token in one request.
+     */
+    public Mono<Void> saveAll(Map<String, String> tokens) {
+        List<JwtRequest> requests = new ArrayList<>(tokens.size());
+        for (Map.Entry<String, String> token : tokens.entrySet()) {
+            if (token.getKey() == null || token.getKey().isEmpty()) {
+                throw new IllegalArgumentException("Client ID cannot be null or empty");
+            }
+            if (token.getValue() == null || token.getValue().isEmpty()) {
+                throw new IllegalArgumentException("Token cannot be null or empty");
+            }
+            requests.add(new JwtRequest(token.getKey(), token.getValue(), TOKEN_TTL));
+        }
+        if (requests.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            if (!batchAvailable()) {
+                return saveEach(requests);
+            }
+            return webClient.post()
+                .uri("/api/v1/cached-redis/tokens")
+                .bodyValue(requests)
+                .exchangeToMono(response -> {
+                    if (isMissingEndpoint(response.statusCode())) {
+                        batchUnavailable();
+                        return response.releaseBody().then(saveEach(requests));
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody();
+                    }
+                    return response.createError();
+                });
+        });
+    }
+
+    private boolean batchAvailable() {
+        return batchEndpoints && timeSource.nanoTime() - batchRetryAtNanos >= 0;
+    }
+
+    private void batchUnavailable() {
+        batchRetryAtNanos = timeSource.nanoTime() + BATCH_RETRY_AFTER.toNanos();
+    }
+
+    private static boolean isMissingEndpoint(HttpStatusCode status) {
+        return status == HttpStatus.NOT_FOUND || status == HttpStatus.METHOD_NOT_ALLOWED;
+    }
+
+    private Mono<Map<String, String>> getEach(Set<String> clientIds) {
+        return Flux.fromIterable(clientIds)
+            .flatMap(clientId -> getJwtCached(clientId).map(token -> Map.entry(clientId, token)))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<Void> saveEach(List<JwtRequest> requests) {
+        return Flux.fromIterable(requests)
+            .flatMap(request -> saveJwt(request.clientId(), request.token()))
+            .then();
+    }
+}
@@ -1,56 +1,49 @@
 package com.markesiano.auth_service.infraestructure.data;
 
-import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
-import com.markesiano.auth_service.infraestructure.dtos.JwtRequest;
 
-import lombok.RequiredArgsConstructor;
-import reactor.core.publisher.Mono;
-
-@RequiredArgsConstructor
+/**
+ * CompletableFuture view over {@link ReactiveRedisJwtRepository}.
+ *
+ * The request is subscribed with Mono.toFuture(), so the returned future completes
+ * from the HTTP client's event loop and no thread is parked while the cached-redis
+ * proxy answers. Concurrency, timeouts and pending request limits are set on the
+ * WebClient connection pool (see WebClientConfig).
+ *
+ * getAll and saveAll send one request per batch to the proxy when 'batchEndpoints' is set.
+ */
 public class RedisJwtRepository implements RepositoryJwt<String> {
-    private final WebClient webClient;
+    private final ReactiveRedisJwtRepository reactiveRepository;
+
+    public RedisJwtRepository(WebClient webClient) {
+        this(webClient, true);
+    }
+
+    public RedisJwtRepository(WebClient webClient, boolean batchEndpoints) {
+        this.reactiveRepository = new ReactiveRedisJwtRepository(webClient, batchEndpoints);
+    }
 
     @Override
     public CompletableFuture<String> getJwtCached(String clientId) {
-        if (clientId == null || clientId.isEmpty()) {
-            throw new IllegalArgumentException("Client ID cannot be null or empty");
-        }
-        return CompletableFuture.supplyAsync(() -> {
-            return webClient.get()
-                .uri("/api/v1/cached-redis/token/{clientId}", clientId)
-                .retrieve()
-                .onStatus(status -> status == HttpStatus.NOT_FOUND,
-                        clientResponse -> Mono.error(new TokenNotFoundException()))
-                .bodyToMono(String.class)
-                .onErrorResume(TokenNotFoundException.class, ex -> Mono.empty())
-                .block();
-        });
+        return reactiveRepository.getJwtCached(clientId).toFuture();
     }
     @Override
     public CompletableFuture<Void> saveJwt(String clientId, String token) {
-        if (clientId == null || clientId.isEmpty()) {
-            throw new IllegalArgumentException("Client ID cannot be null or empty");
-        }
-        if (token == null || token.isEmpty()) {
-            throw new IllegalArgumentException("Token cannot be null or empty");
-        }
-        JwtRequest jwtRequest = new JwtRequest(clientId, token, Duration.ofHours(1)); // Match JWT expiration time
-        return CompletableFuture.runAsync(() -> {
-            webClient.post()
-                    .uri("/api/v1/cached-redis/token")
-                    .bodyValue(jwtRequest)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
-                            clientResponse -> clientResponse.createException())
-                    .bodyToMono(Void.class)
-                    .block();
-        });
+        return reactiveRepository.saveJwt(clientId, token).toFuture();
+    }
+    @Override
+    public CompletableFuture<Map<String, String>> getAll(Collection<String> clientIds) {
+        return reactiveRepository.getAll(clientIds).toFuture();
+    }
+    @Override
+    public CompletableFuture<Void> saveAll(Map<String, String> tokens) {
+        return reactiveRepository.saveAll(tokens).toFuture();
     }
     public class TokenNotFoundException extends RuntimeException {
         public TokenNotFoundException() {
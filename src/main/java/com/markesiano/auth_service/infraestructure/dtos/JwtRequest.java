@@ -2,6 +2,21 @@ package com.markesiano.auth_service.infraestructure.dtos;
 
 import java.time.Duration;
 
+/**
+ * A token to store in the cached-redis proxy, for POST /api/v1/cached-redis/token and,
+ * as a JSON array, POST /api/v1/cached-redis/tokens.
+ *
+ * What the proxy is expected to answer:
+ * - GET /api/v1/cached-redis/token/{clientId}: 200 with the token as the body, 404 when
+ *   it is not cached
+ * - POST /api/v1/cached-redis/token and /tokens: any 2xx once stored
+ * - POST /api/v1/cached-redis/tokens/lookup with a JSON array of clientIds: 200 with an
+ *   object mapping each cached clientId to its token, the others left out, and '{}' when
+ *   none of them is cached
+ * - A 404 or 405 from /tokens/lookup or /tokens means the proxy has no batch endpoints; clients
+ *   then send one request per token for a while (see ReactiveRedisJwtRepository), and
+ *   'cachedredis.client.batch-endpoints=false' turns the batch endpoints off altogether
+ */
 public record JwtRequest(
     String clientId,
     String token,
@@ -0,0 +1,7 @@
+package com.markesiano.auth_service.infraestructure.dtos;
+
+public record TokenVerifyRequest(
+    String token
+) {
+
+}
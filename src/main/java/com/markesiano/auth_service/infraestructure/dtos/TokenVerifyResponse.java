@@ -0,0 +1,29 @@
+package com.markesiano.auth_service.infraestructure.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.markesiano.auth_service.application.entities.TokenClaims;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenVerifyResponse(
+    Boolean active,
+    String clientId,
+    Long issuedAt,
+    Long expiresAt,
+    String error,
+    String message
+) {
+    // Valid token, times in epoch seconds as in the token itself
+    public static TokenVerifyResponse active(TokenClaims claims) {
+        return new TokenVerifyResponse(true, claims.clientId(), claims.issuedAtMillis() / 1000,
+            claims.expiresAtMillis() / 1000, null, null);
+    }
+
+    // Forged, malformed or expired token; the reason is not disclosed
+    public static TokenVerifyResponse inactive() {
+        return new TokenVerifyResponse(false, null, null, null, null, null);
+    }
+
+    public static TokenVerifyResponse error(String error, String message) {
+        return new TokenVerifyResponse(null, null, null, null, error, message);
+    }
+}
@@ -0,0 +1,168 @@
+package com.markesiano.auth_service.infraestructure.execution;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named executor with a hard bound on outstanding work.
+ *
+ * Three flavours are supported:
+ * - platform: fixed size thread pool with a bounded queue, meant for CPU work (signing)
+ * - virtual: one virtual thread per task with a cap on concurrent tasks, meant for blocking I/O
+ * - direct: runs the task on the calling thread, used when requests already run on
+ *   virtual threads and hopping to another thread would only add latency
+ *
+ * When the bound is reached the task is rejected with a RejectedExecutionException
+ * instead of queuing without limit, and the rejection is counted.
+ */
+public final class BoundedExecutor implements Executor {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final ThreadPoolExecutor pool;
+    private final Semaphore permits;
+    private final boolean direct;
+    private final int capacity;
+    private final LongAdder rejected;
+    private final AtomicInteger active = new AtomicInteger();
+
+    private BoundedExecutor(String name, ExecutorService delegate, ThreadPoolExecutor pool, int capacity, LongAdder rejected) {
+        this.name = name;
+        this.delegate = delegate;
+        this.pool = pool;
+        this.capacity = capacity;
+        this.rejected = rejected;
+        this.direct = delegate == null;
+        this.permits = pool == null && !direct ? new Semaphore(capacity) : null;
+    }
+
+    public static BoundedExecutor platform(String name, int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Executor '" + name + "' needs at least one thread and a non negative queue");
+        }
+        LongAdder rejected = new LongAdder();
+        BlockingQueue<Runnable> queue = queueCapacity == 0
+            ? new SynchronousQueue<>()
+            : new ArrayBlockingQueue<>(queueCapacity);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS, queue, namedThreadFactory(name),
+            (task, executor) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("Executor '" + name + "' is saturated");
+            });
+        return new BoundedExecutor(name, pool, pool, threads + queueCapacity, rejected);
+    }
+
+    public static BoundedExecutor virtual(String name, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Executor '" + name + "' needs a positive concurrency limit");
+        }
+        ExecutorService delegate = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name(name + "-", 0).factory());
+        return new BoundedExecutor(name, delegate, null, maxConcurrency, new LongAdder());
+    }
+
+    /**
+     * Executor that runs every task inline. Concurrency is bounded by whoever owns the
+     * calling threads (the servlet container), so it never rejects.
+     */
+    public static BoundedExecutor direct(String name) {
+        return new BoundedExecutor(name, null, null, Integer.MAX_VALUE, new LongAdder());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (direct) {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+            return;
+        }
+        if (pool != null) {
+            pool.execute(task);
+            return;
+        }
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException("Executor '" + name + "' is saturated");
+        }
+        try {
+            delegate.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                    active.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Tasks accepted but not yet running. Virtual executors start every task immediately,
+     * so their depth is the number of tasks waiting for a carrier thread to pick them up.
+     */
+    public int queueDepth() {
+        if (pool != null) {
+            return pool.getQueue().size();
+        }
+        if (direct) {
+            return 0;
+        }
+        return Math.max(0, capacity - permits.availablePermits() - active.get());
+    }
+
+    public int activeCount() {
+        return pool != null ? pool.getActiveCount() : active.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public void shutdown() {
+        if (delegate != null) {
+            delegate.shutdown();
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
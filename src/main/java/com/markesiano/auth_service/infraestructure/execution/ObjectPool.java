@@ -0,0 +1,83 @@
+package com.markesiano.auth_service.infraestructure.execution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Small lock-free pool of reusable instances (Mac, Signature, MessageDigest, buffers).
+ *
+ * Unlike a ThreadLocal it does not tie an instance to a thread, so code running on a
+ * virtual thread per request reuses the same few instances instead of building new ones
+ * for every request. acquire scans the slots from a position derived from the calling
+ * thread and takes the first instance it can claim with a CAS, creating one when every
+ * slot is empty; release puts it back in the first free slot or drops it when the pool
+ * is full. Instances are never shared by two callers at the same time.
+ */
+public final class ObjectPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final Supplier<T> factory;
+
+    public ObjectPool(int size, Supplier<T> factory) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Object pool needs at least one slot");
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.factory = factory;
+    }
+
+    /**
+     * Pool with two slots per available processor, enough for every thread of the CPU
+     * executor plus the request threads running at the same time.
+     */
+    public static <T> ObjectPool<T> perProcessor(Supplier<T> factory) {
+        return new ObjectPool<>(2 * Runtime.getRuntime().availableProcessors(), factory);
+    }
+
+    public T acquire() {
+        int size = slots.length();
+        int start = start(size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            T instance = slots.get(index);
+            if (instance != null && slots.compareAndSet(index, instance, null)) {
+                return instance;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Returns an instance taken with acquire. An instance left in an unknown state (e.g.
+     * by an exception half way through) should be dropped instead of released.
+     */
+    public void release(T instance) {
+        int size = slots.length();
+        int start = start(size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Instances currently waiting in the pool.
+     */
+    public int idleCount() {
+        int idle = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    // Spreads threads over the slots so they rarely contend on the same one
+    private static int start(int size) {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id ^ (id >>> 16)) & Integer.MAX_VALUE) % size;
+    }
+}
@@ -0,0 +1,223 @@
+package com.markesiano.auth_service.infraestructure.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Hierarchical timing wheel that fires a callback for each scheduled key at its deadline.
+ *
+ * Time is divided in ticks. Level 0 has one slot per tick, every higher level has
+ * slots 64 times wider, so scheduling is O(1) whatever the deadline, and advancing
+ * one tick only touches the slot that is due (plus, every 64 ticks, one slot of the
+ * level above that is cascaded down). Nothing ever scans all scheduled keys.
+ *
+ * Each slot is an intrusive doubly linked list, so a timer returned by schedule can
+ * be cancelled in O(1) when its value is replaced or evicted before the deadline.
+ * Deadlines are nanoTime based and rounded up to the next tick. Deadlines beyond the
+ * range of the top level are parked in it and rescheduled each time they come around.
+ */
+public final class TimingWheel<K, V> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * Handle of a scheduled expiry.
+     */
+    public static final class Timer<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadlineTick;
+        private Timer<K, V> prev;
+        private Timer<K, V> next;
+        private int level;
+        private int slot;
+        private boolean linked;
+
+        private Timer(K key, V value, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickNanos;
+    private final int levels;
+    private final long maxDelta;
+    private final long originNanos;
+    // Head of the list of each slot, null when the slot is empty
+    private final Timer<K, V>[][] slots;
+    private final BiConsumer<K, V> onExpiry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickNanos, int levels, long originNanos, BiConsumer<K, V> onExpiry) {
+        if (tickNanos <= 0 || levels <= 0 || levels > 10) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick and between 1 and 10 levels");
+        }
+        this.tickNanos = tickNanos;
+        this.levels = levels;
+        this.maxDelta = (1L << (SLOT_BITS * levels)) - 1;
+        this.originNanos = originNanos;
+        this.onExpiry = onExpiry;
+        this.slots = new Timer[levels][SLOTS];
+    }
+
+    /**
+     * Schedules 'onExpiry(key, value)' for the first tick at or after 'deadlineNanos'.
+     */
+    public Timer<K, V> schedule(K key, V value, long deadlineNanos) {
+        Timer<K, V> timer = new Timer<>(key, value, Math.ceilDiv(deadlineNanos - originNanos, tickNanos));
+        lock.lock();
+        try {
+            place(timer);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return timer;
+    }
+
+    /**
+     * Removes a timer that has not fired yet. Cancelling a fired or cancelled timer does nothing.
+     */
+    public void cancel(Timer<K, V> timer) {
+        if (timer == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (timer.linked) {
+                unlink(timer);
+                size--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel up to 'nowNanos' and fires every timer that became due.
+     * Callbacks run on the calling thread after the wheel lock is released.
+     *
+     * @return number of timers fired
+     */
+    public int advance(long nowNanos) {
+        long targetTick = Math.floorDiv(nowNanos - originNanos, tickNanos);
+        List<Timer<K, V>> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                for (int level = levels - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        drain(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK), expired);
+                    }
+                }
+                drain(0, (int) (currentTick & SLOT_MASK), expired);
+            }
+            size -= expired.size();
+        } finally {
+            lock.unlock();
+        }
+        for (Timer<K, V> timer : expired) {
+            onExpiry.accept(timer.key, timer.value);
+        }
+        return expired.size();
+    }
+
+    /**
+     * Timers scheduled and neither fired nor cancelled yet.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            for (Timer<K, V>[] level : slots) {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    for (Timer<K, V> timer = level[slot]; timer != null; timer = timer.next) {
+                        timer.linked = false;
+                    }
+                    level[slot] = null;
+                }
+            }
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock. Fires what is due and moves the rest to lower levels
+    private void drain(int level, int slot, List<Timer<K, V>> expired) {
+        Timer<K, V> timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer<K, V> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            timer.linked = false;
+            if (timer.deadlineTick <= currentTick) {
+                expired.add(timer);
+            } else {
+                place(timer);
+            }
+            timer = next;
+        }
+    }
+
+    // Caller holds the lock
+    private void place(Timer<K, V> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        long tick = timer.deadlineTick;
+        if (delta <= 0) {
+            // Already due: fire on the next tick
+            tick = currentTick + 1;
+            delta = 1;
+        } else if (delta > maxDelta) {
+            tick = currentTick + maxDelta;
+            delta = maxDelta;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        Timer<K, V> head = slots[level][slot];
+        timer.next = head;
+        timer.prev = null;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][slot] = timer;
+        timer.level = level;
+        timer.slot = slot;
+        timer.linked = true;
+    }
+
+    // Caller holds the lock
+    private void unlink(Timer<K, V> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.linked = false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.markesiano.auth_service.infraestructure.reactive;
+
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.application.interfaces.ReactiveJwtKey;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes a CompletableFuture based JwtKey as a ReactiveJwtKey. Signing keeps running
+ * on the executor the JwtKey was built with, off the event loop.
+ */
+public class ReactiveJwtKeyAdapter implements ReactiveJwtKey {
+    private final JwtKey delegate;
+
+    public ReactiveJwtKeyAdapter(JwtKey delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<String> generateToken(String clientId) {
+        return Mono.fromFuture(() -> delegate.generateToken(clientId));
+    }
+}
@@ -0,0 +1,28 @@
+package com.markesiano.auth_service.infraestructure.reactive;
+
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes a CompletableFuture based RepositoryJwt as a ReactiveRepositoryJwt.
+ * A null cached token becomes an empty Mono.
+ */
+public class ReactiveRepositoryJwtAdapter<TToken> implements ReactiveRepositoryJwt<TToken> {
+    private final RepositoryJwt<TToken> delegate;
+
+    public ReactiveRepositoryJwtAdapter(RepositoryJwt<TToken> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<TToken> getJwtCached(String clientId) {
+        return Mono.fromFuture(() -> delegate.getJwtCached(clientId));
+    }
+
+    @Override
+    public Mono<Void> saveJwt(String clientId, TToken token) {
+        return Mono.fromFuture(() -> delegate.saveJwt(clientId, token));
+    }
+}
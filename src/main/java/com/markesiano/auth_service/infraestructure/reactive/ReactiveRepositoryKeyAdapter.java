@@ -0,0 +1,23 @@
+package com.markesiano.auth_service.infraestructure.reactive;
+
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryKey;
+import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes a CompletableFuture based RepositoryKey as a ReactiveRepositoryKey.
+ * The lookup is only started on subscription.
+ */
+public class ReactiveRepositoryKeyAdapter implements ReactiveRepositoryKey {
+    private final RepositoryKey delegate;
+
+    public ReactiveRepositoryKeyAdapter(RepositoryKey delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<Boolean> isValidClient(String clientId, String productKey) {
+        return Mono.fromFuture(() -> delegate.isValidClient(clientId, productKey));
+    }
+}
@@ -0,0 +1,235 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.markesiano.auth_service.infraestructure.execution.ObjectPool;
+
+/**
+ * ES256 (ECDSA over P-256) or EdDSA (Ed25519) key pair, so consumers verify tokens with
+ * the public half published in the JWKS instead of sharing the secret.
+ *
+ * - ES256 signatures use the JCA "inP1363Format" variant, which already produces the
+ *   fixed 64 byte R||S encoding JWS expects (no DER conversion)
+ * - The 'kid' is the RFC 7638 JWK thumbprint, so every instance loading the same key
+ *   pair advertises the same id
+ * - Initialized Signature instances for signing and for verifying are reused from pools
+ */
+public final class AsymmetricJwsKey implements JwsKey {
+
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final String algorithm;
+    private final PublicKey publicKey;
+    private final Map<String, String> publicJwk;
+    private final String kid;
+    private final ObjectPool<Signature> signers;
+    private final ObjectPool<Signature> verifiers;
+
+    private AsymmetricJwsKey(String algorithm, PrivateKey privateKey, PublicKey publicKey) {
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        Map<String, String> members = jwkMembers(algorithm, publicKey);
+        this.kid = thumbprint(members);
+        Map<String, String> jwk = new LinkedHashMap<>(members);
+        jwk.put("kid", kid);
+        jwk.put("alg", algorithm);
+        jwk.put("use", "sig");
+        this.publicJwk = Collections.unmodifiableMap(jwk);
+        this.signers = ObjectPool.perProcessor(() -> {
+            Signature signature = newSignature();
+            try {
+                signature.initSign(privateKey);
+            } catch (InvalidKeyException e) {
+                throw new IllegalStateException("Unable to initialize " + algorithm + " signer", e);
+            }
+            return signature;
+        });
+        this.verifiers = ObjectPool.perProcessor(this::newVerifier);
+    }
+
+    /**
+     * Generates a fresh key pair. Tokens it signs only verify while this process keeps it,
+     * so it suits a single instance or tests; clusters load a shared pair with fromPem.
+     */
+    public static AsymmetricJwsKey generate(String algorithm) {
+        try {
+            KeyPairGenerator generator;
+            if (ES256.equals(algorithm)) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else if (EDDSA.equals(algorithm)) {
+                generator = KeyPairGenerator.getInstance("Ed25519");
+            } else {
+                throw new IllegalArgumentException("Unsupported signing algorithm: " + algorithm);
+            }
+            KeyPair pair = generator.generateKeyPair();
+            return new AsymmetricJwsKey(algorithm, pair.getPrivate(), pair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate " + algorithm + " key pair", e);
+        }
+    }
+
+    /**
+     * Loads a key pair from a PKCS#8 private key and an X.509 public key, both PEM encoded.
+     */
+    public static AsymmetricJwsKey fromPem(String algorithm, Path privateKeyPem, Path publicKeyPem) throws IOException {
+        String keyAlgorithm = switch (algorithm) {
+            case ES256 -> "EC";
+            case EDDSA -> "Ed25519";
+            default -> throw new IllegalArgumentException("Unsupported signing algorithm: " + algorithm);
+        };
+        try {
+            KeyFactory factory = KeyFactory.getInstance(keyAlgorithm);
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(pemBody(privateKeyPem)));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(pemBody(publicKeyPem)));
+            return new AsymmetricJwsKey(algorithm, privateKey, publicKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid " + algorithm + " key pair in " + privateKeyPem + " / " + publicKeyPem, e);
+        }
+    }
+
+    @Override
+    public String kid() {
+        return kid;
+    }
+
+    @Override
+    public String algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public byte[] sign(byte[] signingInput) {
+        Signature signer = signers.acquire();
+        try {
+            signer.update(signingInput);
+            byte[] signature = signer.sign();
+            signers.release(signer);
+            return signature;
+        } catch (SignatureException e) {
+            // Not released: the instance may be left mid-operation
+            throw new IllegalStateException("Unable to sign with " + algorithm, e);
+        }
+    }
+
+    @Override
+    public boolean verify(byte[] signingInput, byte[] signature) {
+        Signature verifier = verifiers.acquire();
+        try {
+            verifier.update(signingInput);
+            boolean valid = verifier.verify(signature);
+            verifiers.release(verifier);
+            return valid;
+        } catch (SignatureException e) {
+            // A malformed signature may leave the instance mid-operation, it is dropped instead of released
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, String> publicJwk() {
+        return publicJwk;
+    }
+
+    public PublicKey publicKey() {
+        return publicKey;
+    }
+
+    private Signature newSignature() {
+        try {
+            return Signature.getInstance(ES256.equals(algorithm) ? "SHA256withECDSAinP1363Format" : "Ed25519");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(algorithm + " is not available", e);
+        }
+    }
+
+    private Signature newVerifier() {
+        Signature signature = newSignature();
+        try {
+            signature.initVerify(publicKey);
+        } catch (InvalidKeyException e) {
+            throw new IllegalStateException("Unable to initialize " + algorithm + " verifier", e);
+        }
+        return signature;
+    }
+
+    // Required members in the lexicographic order RFC 7638 hashes them in
+    private static Map<String, String> jwkMembers(String algorithm, PublicKey publicKey) {
+        Map<String, String> members = new LinkedHashMap<>();
+        if (ES256.equals(algorithm)) {
+            ECPublicKey ec = (ECPublicKey) publicKey;
+            members.put("crv", "P-256");
+            members.put("kty", "EC");
+            members.put("x", BASE64_URL.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+            members.put("y", BASE64_URL.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+        } else {
+            // The X.509 encoding of an Ed25519 key ends with the 32 raw public key bytes
+            byte[] encoded = publicKey.getEncoded();
+            members.put("crv", "Ed25519");
+            members.put("kty", "OKP");
+            members.put("x", BASE64_URL.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        return members;
+    }
+
+    private static String thumbprint(Map<String, String> members) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, String> member : members.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(member.getKey()).append("\":\"").append(member.getValue()).append('"');
+        }
+        json.append('}');
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.toString().getBytes(StandardCharsets.UTF_8));
+            return BASE64_URL.encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        byte[] out = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, out, length - copy, copy);
+        return out;
+    }
+
+    private static byte[] pemBody(Path file) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            if (!line.startsWith("-----")) {
+                body.append(line.strip());
+            }
+        }
+        return Base64.getDecoder().decode(body.toString());
+    }
+}
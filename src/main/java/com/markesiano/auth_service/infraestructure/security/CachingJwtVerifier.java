@@ -0,0 +1,270 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.application.interfaces.TokenVerifier;
+import com.markesiano.auth_service.infraestructure.execution.ObjectPool;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+/**
+ * Verifies tokens minted by this service and remembers the ones that passed.
+ *
+ * - A token seen for the first time is parsed and its signature checked with the key of
+ *   the JwsKeyRing named by its 'kid' (the active HS256 key when there is none, see
+ *   JwsKeyRing.find); the header 'alg' must be that key's algorithm
+ * - A valid token is cached under the SHA-256 of its full text (signature included) until
+ *   its 'exp', so checking it again costs a hash and a map lookup; a different or tampered
+ *   token never shares a key with it
+ * - Each entry remembers the key that verified it; once that key is retired from the
+ *   RotatingKeyRing the entry no longer counts and the token is rejected
+ * - Failed verifications are never cached and tokens without 'exp' are rejected
+ * - When the cache holds 'maxEntries' tokens a few entries are sampled and the one closest
+ *   to expiring is evicted; 'maxEntries' 0 turns the cache off
+ *
+ * Hits, full verifications, rejections and evictions are counted for metrics.
+ */
+@Component
+public class CachingJwtVerifier implements TokenVerifier {
+    private static final int EVICTION_SAMPLE = 8;
+
+    private static final ObjectPool<MessageDigest> SHA_256 = ObjectPool.perProcessor(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Base64.Decoder BASE64_URL = Base64.getUrlDecoder();
+
+    private final RotatingKeyRing keyRing;
+    private final int maxEntries;
+    private final TimeSource timeSource;
+    private final Map<TokenHash, Verified> verified = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // 256 bit digest of a token, as four longs so equals and hashCode need no array walk
+    private record TokenHash(long a, long b, long c, long d) {
+        static TokenHash of(String token) {
+            MessageDigest sha256 = SHA_256.acquire();
+            ByteBuffer digest = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.ISO_8859_1)));
+            SHA_256.release(sha256);
+            return new TokenHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+
+    private record Verified(TokenClaims claims, JwsKey key) {
+    }
+
+    @Autowired
+    public CachingJwtVerifier(RotatingKeyRing keyRing, @Value("${jwt.verifier.cache.max-entries:100000}") int maxEntries) {
+        this(keyRing, maxEntries, TimeSource.SYSTEM);
+    }
+
+    // Verifies HS256 tokens signed with 'secret' only: its ring is its own, so a provider's rotateSecret
+    // is not seen here. Share the RotatingKeyRing, as the application does, to follow rotations
+    public CachingJwtVerifier(String secret, int maxEntries, TimeSource timeSource) {
+        this(JwsKeyRing.of(HmacJwsKey.fromSecret(secret)), maxEntries, timeSource);
+    }
+
+    public CachingJwtVerifier(JwsKeyRing keyRing, int maxEntries, TimeSource timeSource) {
+        this(RotatingKeyRing.fixed(keyRing), maxEntries, timeSource);
+    }
+
+    public CachingJwtVerifier(RotatingKeyRing keyRing, int maxEntries, TimeSource timeSource) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Verified token cache size cannot be negative");
+        }
+        this.keyRing = keyRing;
+        this.maxEntries = maxEntries;
+        this.timeSource = timeSource;
+    }
+
+    @Override
+    public TokenClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token cannot be null or empty");
+        }
+        TokenHash hash = maxEntries > 0 ? TokenHash.of(token) : null;
+        if (hash != null) {
+            Verified cached = verified.get(hash);
+            if (cached != null) {
+                if (timeSource.currentTimeMillis() < cached.claims().expiresAtMillis()
+                        && keyRing.current().contains(cached.key())) {
+                    hits.increment();
+                    return cached.claims();
+                }
+                verified.remove(hash, cached);
+            }
+        }
+        misses.increment();
+        Verified result = parse(token);
+        if (result == null) {
+            rejections.increment();
+            return null;
+        }
+        if (hash != null) {
+            if (verified.size() >= maxEntries) {
+                evictOne();
+            }
+            verified.put(hash, result);
+        }
+        return result.claims();
+    }
+
+    private Verified parse(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return null;
+        }
+        try {
+            String[] header = readHeader(BASE64_URL.decode(token.substring(0, first)));
+            JwsKey key = keyRing.current().find(header[1]);
+            if (key == null || !key.algorithm().equals(header[0])) {
+                return null;
+            }
+            byte[] signingInput = token.substring(0, second).getBytes(StandardCharsets.US_ASCII);
+            if (!key.verify(signingInput, BASE64_URL.decode(token.substring(second + 1)))) {
+                return null;
+            }
+            TokenClaims claims = readClaims(BASE64_URL.decode(token.substring(first + 1, second)));
+            if (claims == null || timeSource.currentTimeMillis() >= claims.expiresAtMillis()) {
+                return null;
+            }
+            return new Verified(claims, key);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 'alg' and 'kid' of the header, either may be null
+    private static String[] readHeader(byte[] json) throws IOException {
+        String[] header = new String[2];
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return header;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("alg".equals(field) && value == JsonToken.VALUE_STRING) {
+                    header[0] = parser.getText();
+                } else if ("kid".equals(field) && value == JsonToken.VALUE_STRING) {
+                    header[1] = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return header;
+    }
+
+    // Claims of the payload, or null without a subject or a numeric 'exp'
+    private static TokenClaims readClaims(byte[] json) throws IOException {
+        String subject = null;
+        long issuedAt = 0;
+        long expiresAt = -1;
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("sub".equals(field) && value == JsonToken.VALUE_STRING) {
+                    subject = parser.getText();
+                } else if ("iat".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    issuedAt = parser.getLongValue() * 1000;
+                } else if ("exp".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    expiresAt = parser.getLongValue() * 1000;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return subject == null || expiresAt < 0 ? null : new TokenClaims(subject, issuedAt, expiresAt);
+    }
+
+    private void evictOne() {
+        long now = timeSource.currentTimeMillis();
+        TokenHash victim = null;
+        long victimExpiry = Long.MAX_VALUE;
+        Iterator<Map.Entry<TokenHash, Verified>> it = verified.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && it.hasNext(); i++) {
+            Map.Entry<TokenHash, Verified> candidate = it.next();
+            long expiresAt = candidate.getValue().claims().expiresAtMillis();
+            if (expiresAt <= now) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (expiresAt < victimExpiry) {
+                victim = candidate.getKey();
+                victimExpiry = expiresAt;
+            }
+        }
+        if (victim != null && verified.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void clear() {
+        verified.clear();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Verifications that went through parsing and the signature check.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Tokens found forged, malformed or expired.
+     */
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Share of all verifications answered from the cache.
+     */
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    public int getCacheSize() {
+        return verified.size();
+    }
+}
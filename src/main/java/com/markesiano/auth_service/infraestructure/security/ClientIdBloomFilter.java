@@ -0,0 +1,127 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over the known clientIds, answers "definitely unknown" without touching
+ * the credential store.
+ *
+ * mightContain never returns false for an id that was put, and returns true for an
+ * unknown id with roughly the configured false positive rate while at most
+ * 'expectedInsertions' ids were put. Bits cannot be cleared: a removed client keeps
+ * passing the filter (and is rejected by the store) until the owner rebuilds it.
+ *
+ * Reads are lock free; concurrent puts are safe. Sized with the usual
+ * m = -n ln(p) / ln(2)^2 bits and k = m/n ln(2) hash functions, the k indexes come from
+ * two 64 bit hashes (h1 + i * h2).
+ */
+public final class ClientIdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final LongAdder insertions = new LongAdder();
+
+    public ClientIdBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Bloom filter needs a positive number of expected insertions");
+        }
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Builds a filter holding 'clientIds', sized for them plus 'headroom' later insertions.
+     */
+    public static ClientIdBloomFilter of(Iterable<String> clientIds, int size, int headroom, double falsePositiveRate) {
+        ClientIdBloomFilter filter = new ClientIdBloomFilter(Math.max(1, size + headroom), falsePositiveRate);
+        for (String clientId : clientIds) {
+            filter.put(clientId);
+        }
+        return filter;
+    }
+
+    public void put(String clientId) {
+        long hash = hash(clientId);
+        long h1 = mix(hash);
+        long h2 = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String clientId) {
+        long hash = hash(clientId);
+        long h1 = mix(hash);
+        long h2 = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether more ids were put than the filter was sized for, so its false positive
+     * rate is above the configured one and it should be rebuilt larger.
+     */
+    public boolean isSaturated() {
+        return insertions.sum() > expectedInsertions;
+    }
+
+    public long insertionCount() {
+        return insertions.sum();
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    // FNV-1a over the UTF-16 chars, avoids encoding the id to bytes
+    private static long hash(String clientId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < clientId.length(); i++) {
+            hash ^= clientId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Murmur3 finalizer, spreads FNV's weak high bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,255 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.infraestructure.execution.ObjectPool;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * HS256 token encoder specialized for the fixed sub/iat/exp claim set.
+ *
+ * Produces exactly the same compact JWS as {@link JwtProvider} (same header, same
+ * claim order, same JSON escaping) but writes the payload and the signature into
+ * pooled reusable buffers instead of going through a claims map, Jackson and
+ * Date objects. The only allocation per token is the resulting String.
+ *
+ * Tokens are signed with the HS256 key active in the RotatingKeyRing; its header bytes
+ * are encoded once per ring, so a rotation takes effect on the next mint.
+ *
+ * Enabled with 'jwt.signer.type=compact'.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.signer.type", havingValue = "compact")
+public class CompactJwtProvider implements JwtKey {
+
+    private static final byte[] SUB_PREFIX = "{\"sub\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IAT_PREFIX = "\",\"iat\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_PREFIX = ",\"exp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+        .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_LENGTH = 32;
+
+    @Value("${spring.security.jwt.secret}")
+    private String secret;
+    private final long expirationTime = 3600000; // 1 hour
+    private final HmacKeyHolder keys;
+    private final Executor executor;
+    private final ObjectPool<Buffers> buffers = ObjectPool.perProcessor(Buffers::new);
+    // Written only when the ring has changed since the last mint
+    private volatile Signer signer;
+
+    // The active key of one ring with its encoded header segment
+    private record Signer(JwsKeyRing ring, byte[] header, HmacKeyMaterial material) {
+    }
+
+    private static final class Buffers {
+        private byte[] payload = new byte[256];
+        private byte[] output = new byte[512];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        void ensureCapacity(int clientIdLength, int headerLength) {
+            // Worst case a char becomes a 6 byte unicode escape; numbers and field names fit in 64 bytes
+            int payloadSize = 64 + clientIdLength * 6;
+            if (payload.length < payloadSize) {
+                payload = new byte[payloadSize];
+            }
+            int outputSize = headerLength + 2 + base64Length(payloadSize) + base64Length(SIGNATURE_LENGTH);
+            if (output.length < outputSize) {
+                output = new byte[outputSize];
+            }
+        }
+    }
+
+    // Standalone instances keep the previous behaviour of running on the common pool
+    public CompactJwtProvider() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Signs with the configured secret only, rotated through rotateSecret
+    public CompactJwtProvider(Executor executor) {
+        this.keys = new HmacKeyHolder();
+        this.executor = executor;
+    }
+
+    @Autowired
+    public CompactJwtProvider(RotatingKeyRing keyRing, @Qualifier("cpuExecutor") Executor executor) {
+        this.keys = new HmacKeyHolder(keyRing);
+        this.executor = executor;
+    }
+
+    @PostConstruct
+    public void init() {
+        signer();
+    }
+
+    @Override
+    public CompletableFuture<String> generateToken(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        return CompletableFuture.supplyAsync(() -> encode(clientId, System.currentTimeMillis()), executor);
+    }
+
+    /**
+     * Encodes and signs a token for the client issued at the given instant.
+     */
+    public String encode(String clientId, long issuedAtMillis) {
+        Signer current = signer();
+        Buffers buf = buffers.acquire();
+        buf.ensureCapacity(clientId.length(), current.header().length);
+
+        byte[] payload = buf.payload;
+        int p = put(payload, 0, SUB_PREFIX);
+        p = writeJsonString(payload, p, clientId);
+        p = put(payload, p, IAT_PREFIX);
+        p = writeLong(payload, p, issuedAtMillis / 1000);
+        p = put(payload, p, EXP_PREFIX);
+        p = writeLong(payload, p, (issuedAtMillis + expirationTime) / 1000);
+        payload[p++] = '}';
+
+        byte[] out = buf.output;
+        int o = put(out, 0, current.header());
+        out[o++] = '.';
+        o = base64Url(payload, p, out, o);
+
+        current.material().sign(out, 0, o, buf.signature, 0);
+        out[o++] = '.';
+        o = base64Url(buf.signature, SIGNATURE_LENGTH, out, o);
+
+        String token = new String(out, 0, o, StandardCharsets.ISO_8859_1);
+        buffers.release(buf);
+        return token;
+    }
+
+    /**
+     * Rotates the key ring to the new secret. Tokens minted afterwards use the new key,
+     * in-flight mints finish with the key they already picked up; the previous key keeps
+     * verifying for the ring's overlap.
+     */
+    public void rotateSecret(String newSecret) {
+        keys.rotate(secret, newSecret);
+    }
+
+    private Signer signer() {
+        JwsKeyRing ring = keys.get(secret).current();
+        Signer current = signer;
+        if (current != null && current.ring() == ring) {
+            return current;
+        }
+        if (!(ring.active() instanceof HmacJwsKey key)) {
+            throw new IllegalStateException("Compact signer needs an HS256 key, the active key is " + ring.active().algorithm());
+        }
+        current = new Signer(ring, ring.activeHeader().getBytes(StandardCharsets.US_ASCII), key.material());
+        signer = current;
+        return current;
+    }
+
+    private static int put(byte[] dst, int pos, byte[] src) {
+        System.arraycopy(src, 0, dst, pos, src.length);
+        return pos + src.length;
+    }
+
+    // Mirrors Jackson's default escaping: quote, backslash, control characters and surrogates
+    private static int writeJsonString(byte[] dst, int pos, String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    dst[pos++] = (byte) c;
+                    continue;
+                }
+                dst[pos++] = '\\';
+                switch (c) {
+                    case '"' -> dst[pos++] = '"';
+                    case '\\' -> dst[pos++] = '\\';
+                    case '\b' -> dst[pos++] = 'b';
+                    case '\f' -> dst[pos++] = 'f';
+                    case '\n' -> dst[pos++] = 'n';
+                    case '\r' -> dst[pos++] = 'r';
+                    case '\t' -> dst[pos++] = 't';
+                    default -> {
+                        dst[pos++] = 'u';
+                        dst[pos++] = '0';
+                        dst[pos++] = '0';
+                        dst[pos++] = HEX[c >> 4];
+                        dst[pos++] = HEX[c & 0xF];
+                    }
+                }
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | (c >> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Jackson writes surrogates (paired or not) as escapes rather than 4 byte UTF-8
+                dst[pos++] = '\\';
+                dst[pos++] = 'u';
+                dst[pos++] = HEX[c >> 12];
+                dst[pos++] = HEX[(c >> 8) & 0xF];
+                dst[pos++] = HEX[(c >> 4) & 0xF];
+                dst[pos++] = HEX[c & 0xF];
+            } else {
+                dst[pos++] = (byte) (0xE0 | (c >> 12));
+                dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    private static int writeLong(byte[] dst, int pos, long value) {
+        if (value == 0) {
+            dst[pos++] = '0';
+            return pos;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            dst[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        return end;
+    }
+
+    // Unpadded Base64URL, as used by jjwt for every JWS segment
+    private static int base64Url(byte[] src, int length, byte[] dst, int pos) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[pos++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            dst[pos++] = BASE64_URL[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[pos++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[pos++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 6) & 0x3F];
+        }
+        return pos;
+    }
+
+    private static int base64Length(int length) {
+        return (length * 4 + 2) / 3;
+    }
+}
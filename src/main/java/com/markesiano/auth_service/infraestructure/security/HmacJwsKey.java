@@ -0,0 +1,76 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * HS256 over a shared secret, the key JwtProvider and CompactJwtProvider sign with.
+ * It is never published.
+ *
+ * Its 'kid' is a fingerprint of the secret: the SHA-256 of a domain prefix and the key
+ * bytes, Base64URL encoded and cut to 22 characters. Every instance configured with the same
+ * secret writes the same 'kid', a rotated secret gets a new one, so RotatingKeyRing tells
+ * the generations apart; the digest does not reveal the secret.
+ */
+public final class HmacJwsKey implements JwsKey {
+
+    private static final byte[] KID_DOMAIN = "auth-service/hs256-kid:".getBytes(StandardCharsets.US_ASCII);
+
+    private final HmacKeyMaterial material;
+    private final String kid;
+
+    public HmacJwsKey(HmacKeyMaterial material) {
+        this.material = material;
+        this.kid = fingerprint(material.key().getEncoded());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the secret is missing or too short for HS256
+     */
+    public static HmacJwsKey fromSecret(String secret) {
+        return new HmacJwsKey(HmacKeyMaterial.derive(secret));
+    }
+
+    @Override
+    public String kid() {
+        return kid;
+    }
+
+    @Override
+    public String algorithm() {
+        return "HS256";
+    }
+
+    @Override
+    public byte[] sign(byte[] signingInput) {
+        return material.sign(signingInput);
+    }
+
+    @Override
+    public boolean verify(byte[] signingInput, byte[] signature) {
+        return MessageDigest.isEqual(material.sign(signingInput), signature);
+    }
+
+    @Override
+    public Map<String, String> publicJwk() {
+        return null;
+    }
+
+    HmacKeyMaterial material() {
+        return material;
+    }
+
+    private static String fingerprint(byte[] secret) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(KID_DOMAIN);
+            byte[] digest = sha256.digest(secret);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+/**
+ * The key ring JwtProvider and CompactJwtProvider sign with.
+ *
+ * Inside the application it is the RotatingKeyRing bean, shared with CachingJwtVerifier, so
+ * a rotation is seen by every signer and verifier at once. A provider built without one
+ * gets a fixed ring over its configured secret, created the first time it is needed.
+ *
+ * Reading it on the mint path is a single volatile read. The ring is written at most once,
+ * under the holder's lock; rotations replace the key inside the ring, so a mint racing a
+ * rotation can never bring the previous key back.
+ */
+final class HmacKeyHolder {
+
+    private volatile RotatingKeyRing ring;
+
+    HmacKeyHolder() {
+    }
+
+    HmacKeyHolder(RotatingKeyRing ring) {
+        this.ring = ring;
+    }
+
+    /**
+     * The ring, built over 'configuredSecret' the first time it is needed if none was given.
+     */
+    RotatingKeyRing get(String configuredSecret) {
+        RotatingKeyRing current = ring;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (ring == null) {
+                ring = RotatingKeyRing.fixed(JwsKeyRing.of(HmacJwsKey.fromSecret(configuredSecret)));
+            }
+            return ring;
+        }
+    }
+
+    /**
+     * Makes 'newSecret' the active key of the ring. Tokens minted afterwards use it,
+     * in-flight mints finish with the key they already picked up.
+     *
+     * @throws IllegalArgumentException if the secret is missing or too short, the current key is kept
+     */
+    void rotate(String configuredSecret, String newSecret) {
+        HmacJwsKey next = HmacJwsKey.fromSecret(newSecret);
+        get(configuredSecret).rotate(next);
+    }
+}
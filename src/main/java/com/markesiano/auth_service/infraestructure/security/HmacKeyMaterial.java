@@ -0,0 +1,90 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+
+import com.markesiano.auth_service.infraestructure.execution.ObjectPool;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Immutable HMAC key material derived once from the configured secret.
+ *
+ * The SecretKey is built a single time per secret, and initialized Mac instances are
+ * reused from a small pool, so signing never re-encodes the secret nor performs a
+ * provider lookup on the hot path. The pool is not tied to threads, so signing on a
+ * virtual thread per request reuses the same instances too. A secret rotation is handled by creating a new
+ * instance; threads still holding the previous one keep signing until they pick it up.
+ */
+public final class HmacKeyMaterial {
+
+    private final SecretKey key;
+    private final SignatureAlgorithm algorithm;
+    private final ObjectPool<Mac> macs;
+
+    private HmacKeyMaterial(SecretKey key, SignatureAlgorithm algorithm) {
+        this.key = key;
+        this.algorithm = algorithm;
+        this.macs = ObjectPool.perProcessor(this::newMac);
+    }
+
+    /**
+     * Derives the key material for the given secret.
+     *
+     * @throws IllegalArgumentException if the secret is missing or too short for HS256
+     */
+    public static HmacKeyMaterial derive(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("JWT secret cannot be null or empty");
+        }
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new HmacKeyMaterial(key, SignatureAlgorithm.HS256);
+    }
+
+    public SecretKey key() {
+        return key;
+    }
+
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    public byte[] sign(byte[] data) {
+        Mac mac = macs.acquire();
+        byte[] signature = mac.doFinal(data);
+        // doFinal resets the instance, so it is ready for the next signature
+        macs.release(mac);
+        return signature;
+    }
+
+    /**
+     * Signs input[offset, offset + length) into 'output' starting at 'outputOffset',
+     * without allocating the signature array.
+     */
+    public void sign(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        Mac mac = macs.acquire();
+        mac.update(input, offset, length);
+        try {
+            mac.doFinal(output, outputOffset);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("Signature buffer too small", e);
+        }
+        macs.release(mac);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(algorithm.getJcaName());
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to initialize " + algorithm.getJcaName() + " signer", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.util.Map;
+
+/**
+ * A key that signs and verifies compact JWS tokens.
+ *
+ * Implementations are thread safe; signing and verification take initialized JCA
+ * instances from a pool so the hot path performs no provider lookup.
+ */
+public interface JwsKey {
+
+    /**
+     * Key id written to the token header, a fingerprint of the secret for HMAC keys.
+     */
+    String kid();
+
+    /**
+     * JOSE 'alg' of the signatures: HS256, ES256 or EdDSA.
+     */
+    String algorithm();
+
+    byte[] sign(byte[] signingInput);
+
+    boolean verify(byte[] signingInput, byte[] signature);
+
+    /**
+     * Public JWK members of the key in the order they are published, or null when
+     * the key is a shared secret and must never leave the service.
+     */
+    Map<String, String> publicJwk();
+}
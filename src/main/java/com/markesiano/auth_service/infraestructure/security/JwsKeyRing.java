@@ -0,0 +1,178 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * The keys tokens are signed and verified with.
+ *
+ * - active: signs every new token
+ * - the active key and any additional keys verify tokens, looked up by the 'kid' of
+ *   the token header. A token without 'kid', issued before HMAC keys had one, is checked
+ *   against the active key when that key is HS256
+ * - the public halves of the asymmetric keys form the JWKS document, serialized once
+ *   together with its ETag, so serving it costs no JSON work
+ * - the Base64URL header segment of every key is encoded once as well; it is the same in
+ *   every token the key signs, so it tells which key a cached token belongs to without
+ *   parsing it
+ *
+ * A ring never changes, RotatingKeyRing replaces it as a whole when keys rotate.
+ */
+public final class JwsKeyRing {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwsKey active;
+    private final Map<String, JwsKey> verificationKeys;
+    private final Map<String, JwsKey> byHeader;
+    private final String activeHeader;
+    private final List<JwsKey> keys;
+    private final byte[] jwks;
+    private final String jwksEtag;
+
+    public JwsKeyRing(JwsKey active, List<JwsKey> additional) {
+        List<JwsKey> all = new ArrayList<>();
+        all.add(active);
+        all.addAll(additional);
+        Map<String, JwsKey> byKid = new HashMap<>();
+        Map<String, JwsKey> headers = new HashMap<>();
+        for (JwsKey key : all) {
+            if (byKid.putIfAbsent(key.kid(), key) != null) {
+                throw new IllegalArgumentException("Duplicate signing key id: " + key.kid());
+            }
+            headers.put(header(key), key);
+        }
+        this.active = active;
+        this.verificationKeys = byKid;
+        this.byHeader = headers;
+        this.activeHeader = header(active);
+        this.keys = Collections.unmodifiableList(all);
+        this.jwks = serialize(all);
+        this.jwksEtag = "\"" + etag(jwks) + "\"";
+    }
+
+    public static JwsKeyRing of(JwsKey active) {
+        return new JwsKeyRing(active, List.of());
+    }
+
+    public JwsKey active() {
+        return active;
+    }
+
+    /**
+     * Key that verifies tokens carrying 'kid', or null if unknown. For a token without
+     * 'kid' it is the active key if that one is HS256.
+     */
+    public JwsKey find(String kid) {
+        if (kid == null) {
+            return "HS256".equals(active.algorithm()) ? active : null;
+        }
+        return verificationKeys.get(kid);
+    }
+
+    /**
+     * True if this exact key instance is part of the ring.
+     */
+    public boolean contains(JwsKey key) {
+        return verificationKeys.get(key.kid()) == key;
+    }
+
+    /**
+     * Base64URL header segment ({"alg","kid"}) of the tokens the active key signs.
+     */
+    public String activeHeader() {
+        return activeHeader;
+    }
+
+    /**
+     * True if the header segment of the compact token names a key of this ring. The
+     * signature is not checked, this only tells which key the token claims to come from.
+     */
+    public boolean hasKeyFor(String token) {
+        int dot = token.indexOf('.');
+        if (dot == activeHeader.length() && token.startsWith(activeHeader)) {
+            return true;
+        }
+        return dot > 0 && byHeader.containsKey(token.substring(0, dot));
+    }
+
+    public List<JwsKey> keys() {
+        return keys;
+    }
+
+    /**
+     * JWKS document ({"keys": [...]}) with the public keys of the ring, UTF-8 encoded.
+     */
+    public byte[] jwks() {
+        return jwks.clone();
+    }
+
+    /**
+     * Strong ETag of the JWKS document, quoted as sent in the header.
+     */
+    public String jwksEtag() {
+        return jwksEtag;
+    }
+
+    // The header written for the key's tokens, jjwt writes the same with setHeaderParam("kid", kid)
+    private static String header(JwsKey key) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(96);
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("alg", key.algorithm());
+            if (key.kid() != null) {
+                generator.writeStringField("kid", key.kid());
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode token header", e);
+        }
+        return BASE64_URL.encodeToString(out.toByteArray());
+    }
+
+    private static byte[] serialize(List<JwsKey> keys) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("keys");
+            for (JwsKey key : keys) {
+                Map<String, String> jwk = key.publicJwk();
+                if (jwk == null) {
+                    continue;
+                }
+                generator.writeStartObject();
+                for (Map.Entry<String, String> member : jwk.entrySet()) {
+                    generator.writeStringField(member.getKey(), member.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize JWKS", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] document) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(document);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
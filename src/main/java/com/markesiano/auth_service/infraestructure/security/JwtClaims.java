@@ -0,0 +1,54 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Reads claims from an already issued compact JWS without verifying it.
+ *
+ * Only meant for tokens this service minted itself (cache bookkeeping), never for
+ * trusting tokens presented by a caller.
+ */
+public final class JwtClaims {
+
+    private static final String EXP_FIELD = "\"exp\":";
+
+    private JwtClaims() {
+    }
+
+    /**
+     * Expiration of the token in epoch milliseconds, or -1 if the token is not a
+     * compact JWS or carries no numeric 'exp' claim.
+     */
+    public static long expiresAtMillis(String token) {
+        if (token == null) {
+            return -1;
+        }
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return -1;
+        }
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(token.substring(first + 1, second)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        int index = payload.indexOf(EXP_FIELD);
+        if (index < 0) {
+            return -1;
+        }
+        long seconds = 0;
+        int digits = 0;
+        for (int i = index + EXP_FIELD.length(); i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            seconds = seconds * 10 + (c - '0');
+            digits++;
+        }
+        return digits == 0 ? -1 : seconds * 1000;
+    }
+}
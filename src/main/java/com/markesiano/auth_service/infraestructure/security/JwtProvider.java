@@ -1,37 +1,104 @@
 package com.markesiano.auth_service.infraestructure.security;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Date;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import com.markesiano.auth_service.application.interfaces.JwtKey;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Default HS256 signer ('jwt.signer.type=jjwt').
+ *
+ * jjwt serializes the sub/iat/exp claims, but the signature is computed with the pooled
+ * Mac of HmacKeyMaterial: jjwt 0.11's own signer looks the Mac provider up again on every
+ * compact(). The header ({"alg","kid"}) and signature are the ones jjwt writes for
+ * signWith(key, HS256) with the key's 'kid' header, so tokens are byte-identical to the
+ * plain jjwt pipeline.
+ *
+ * Every token is signed with the key active in the RotatingKeyRing at that moment, so
+ * rotateSecret or a scheduled rotation takes effect on the next mint without a restart.
+ */
 @Component
+@ConditionalOnProperty(name = "jwt.signer.type", havingValue = "jjwt", matchIfMissing = true)
 public class JwtProvider implements JwtKey{
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
     @Value("${spring.security.jwt.secret}")
     private String secret;
     private final long expirationTime = 3600000; // 1 hour
+    private final HmacKeyHolder keys;
+    private final Executor executor;
+
+    // Standalone instances keep the previous behaviour of running on the common pool
+    public JwtProvider() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Signs with the configured secret only, rotated through rotateSecret
+    public JwtProvider(Executor executor) {
+        this.keys = new HmacKeyHolder();
+        this.executor = executor;
+    }
+
+    @Autowired
+    public JwtProvider(RotatingKeyRing keyRing, @Qualifier("cpuExecutor") Executor executor) {
+        this.keys = new HmacKeyHolder(keyRing);
+        this.executor = executor;
+    }
+
+    @PostConstruct
+    public void init() {
+        // Derive the signing key once at startup instead of on every mint
+        keyRing();
+    }
 
     @Override
     public CompletableFuture<String> generateToken(String clientId) {
         if (clientId == null || clientId.isEmpty()) {
             throw new IllegalArgumentException("Client ID cannot be null or empty");
         }
-        return CompletableFuture.supplyAsync(() -> {
-            return Jwts.builder()
-                .setSubject(clientId)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)),SignatureAlgorithm.HS256)
-                .compact();
-        });
+        return CompletableFuture.supplyAsync(() -> encode(clientId, System.currentTimeMillis()), executor);
+    }
+
+    /**
+     * Encodes and signs a token for the client issued at the given instant.
+     */
+    public String encode(String clientId, long issuedAtMillis) {
+        // Without a key jjwt returns the unsigned form "<none header>.<payload>.", only its payload is kept
+        String unsigned = Jwts.builder()
+            .setSubject(clientId)
+            .setIssuedAt(new Date(issuedAtMillis))
+            .setExpiration(new Date(issuedAtMillis + expirationTime))
+            .compact();
+        JwsKeyRing ring = keyRing().current();
+        String signingInput = ring.activeHeader() + unsigned.substring(unsigned.indexOf('.'), unsigned.length() - 1);
+        byte[] signature = ring.active().sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + BASE64_URL.encodeToString(signature);
+    }
+
+    /**
+     * Rotates the key ring to the new secret. Tokens minted afterwards use the new key,
+     * in-flight mints finish with the key they already picked up; the previous key keeps
+     * verifying for the ring's overlap.
+     */
+    public void rotateSecret(String newSecret) {
+        keys.rotate(secret, newSecret);
+    }
 
+    RotatingKeyRing keyRing() {
+        return keys.get(secret);
     }
 
 }
@@ -0,0 +1,101 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+
+/**
+ * Signs tokens with the active key of the JwsKeyRing, ES256 or EdDSA.
+ *
+ * The header carries 'alg' and the key's 'kid' so consumers pick the matching key from
+ * GET /.well-known/jwks.json and verify locally; the payload is the same sub/iat/exp
+ * claim set JwtProvider writes. jjwt 0.11 has no EdDSA support, so the compact JWS is
+ * assembled here and signed through the JCA.
+ *
+ * Every token is signed with the key active in RotatingKeyRing at that moment, so a
+ * rotation takes effect on the next mint without a restart.
+ *
+ * Enabled with 'jwt.signer.type=es256' or 'jwt.signer.type=eddsa'.
+ */
+@Component
+@ConditionalOnExpression("'${jwt.signer.type:jjwt}' == 'es256' or '${jwt.signer.type:jjwt}' == 'eddsa'")
+public class KeyRingJwtProvider implements JwtKey {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final long expirationTime = 3600000; // 1 hour
+    private final RotatingKeyRing keyRing;
+    private final Executor executor;
+
+    // Signs with a fixed set of keys
+    public KeyRingJwtProvider(JwsKeyRing keyRing, Executor executor) {
+        this(RotatingKeyRing.fixed(keyRing), executor);
+    }
+
+    @Autowired
+    public KeyRingJwtProvider(RotatingKeyRing keyRing, @Qualifier("cpuExecutor") Executor executor) {
+        this.keyRing = keyRing;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<String> generateToken(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            throw new IllegalArgumentException("Client ID cannot be null or empty");
+        }
+        return CompletableFuture.supplyAsync(() -> encode(clientId, System.currentTimeMillis()), executor);
+    }
+
+    /**
+     * Encodes and signs a token for the client issued at the given instant.
+     */
+    public String encode(String clientId, long issuedAtMillis) {
+        JwsKeyRing ring = keyRing.current();
+        JwsKey key = ring.active();
+        String signingInput = ring.activeHeader() + "." + segment(payload(clientId, issuedAtMillis));
+        byte[] signature = key.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + BASE64_URL.encodeToString(signature);
+    }
+
+    private byte[] payload(String clientId, long issuedAtMillis) {
+        return json(generator -> {
+            generator.writeStringField("sub", clientId);
+            generator.writeNumberField("iat", issuedAtMillis / 1000);
+            generator.writeNumberField("exp", (issuedAtMillis + expirationTime) / 1000);
+        });
+    }
+
+    private interface Fields {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static byte[] json(Fields fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            fields.write(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode token", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String segment(byte[] json) {
+        return BASE64_URL.encodeToString(json);
+    }
+}
@@ -0,0 +1,47 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.markesiano.auth_service.infraestructure.execution.ObjectPool;
+
+/**
+ * SHA-256 digests of client product keys, so credential stores never hold the plaintext.
+ *
+ * Comparisons go through MessageDigest.isEqual, whose time does not depend on where the
+ * first differing byte is. A missing stored digest is compared against a dummy one so an
+ * unknown client takes as long to reject as a wrong key.
+ */
+public final class ProductKeyDigest {
+
+    public static final int LENGTH = 32;
+
+    private static final ObjectPool<MessageDigest> SHA_256 = ObjectPool.perProcessor(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    private static final byte[] UNKNOWN_CLIENT_DIGEST = new byte[LENGTH];
+
+    private ProductKeyDigest() {
+    }
+
+    public static byte[] of(String productKey) {
+        MessageDigest sha256 = SHA_256.acquire();
+        // digest() resets the instance for its next user
+        byte[] digest = sha256.digest(productKey.getBytes(StandardCharsets.UTF_8));
+        SHA_256.release(sha256);
+        return digest;
+    }
+
+    /**
+     * Whether 'productKey' hashes to 'storedDigest'; false when 'storedDigest' is null.
+     */
+    public static boolean matches(byte[] storedDigest, String productKey) {
+        boolean equal = MessageDigest.isEqual(storedDigest != null ? storedDigest : UNKNOWN_CLIENT_DIGEST, of(productKey));
+        return storedDigest != null && equal;
+    }
+}
@@ -0,0 +1,194 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Refresh-ahead for busy clients: mints and stores a replacement token shortly before
+ * the cached one expires, so their requests keep hitting the cache.
+ *
+ * - Every served token is recorded against its clientId, up to 'poolSize' clients;
+ *   beyond that new clients are not tracked until others leave
+ * - Once a second the tracked clients whose token expires within 'leadTime' are looked at.
+ *   A client served at least 'minHits' times since its token was issued gets a new token
+ *   generated and saved; any other client is dropped and only tracked again on its next request
+ * - At most MAX_IN_FLIGHT refreshes run at once, the rest wait for a later pass, which
+ *   keeps a burst of tokens issued together from flooding the signing pool
+ *
+ * A failed refresh is counted and left to the request path, which mints on a miss as before.
+ */
+public class RefreshAheadTokenRefresher implements TokenRefresher {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final int MAX_IN_FLIGHT = 64;
+
+    private final JwtKey jwtProvider;
+    private final RepositoryJwt<String> repositoryJwt;
+    private final int poolSize;
+    private final long leadMillis;
+    private final int minHits;
+    private final TimeSource time;
+    private final Map<String, HotClient> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public RefreshAheadTokenRefresher(JwtKey jwtProvider, RepositoryJwt<String> repositoryJwt,
+                                      int poolSize, Duration leadTime, int minHits, TimeSource time) {
+        if (poolSize <= 0 || leadTime.isNegative() || leadTime.isZero() || minHits <= 0) {
+            throw new IllegalArgumentException("Refresh-ahead needs a positive pool size, lead time and minimum hits");
+        }
+        this.jwtProvider = jwtProvider;
+        this.repositoryJwt = repositoryJwt;
+        this.poolSize = poolSize;
+        this.leadMillis = leadTime.toMillis();
+        this.minHits = minHits;
+        this.time = time;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refreshDueTokens();
+            } catch (RuntimeException e) {
+                // An exception would cancel the schedule, the next pass retries
+                refreshFailures.increment();
+            }
+        }, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void onTokenServed(String clientId, String token) {
+        HotClient client = clients.get(clientId);
+        if (client == null) {
+            if (clients.size() >= poolSize) {
+                untracked.increment();
+                return;
+            }
+            client = clients.computeIfAbsent(clientId, id -> new HotClient());
+        }
+        client.served(token);
+    }
+
+    /**
+     * One pass over the tracked clients, refreshing the hot ones whose token is about to
+     * expire. Runs on the scheduler; public so tests can drive it.
+     */
+    public void refreshDueTokens() {
+        long now = time.currentTimeMillis();
+        Iterator<Map.Entry<String, HotClient>> iterator = clients.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, HotClient> entry = iterator.next();
+            HotClient client = entry.getValue();
+            if (client.refreshing.get() || client.expiresAtMillis - now > leadMillis) {
+                continue;
+            }
+            if (client.expiresAtMillis < 0 || client.hits.get() < minHits) {
+                iterator.remove();
+                continue;
+            }
+            if (inFlight.get() >= MAX_IN_FLIGHT) {
+                return;
+            }
+            if (client.refreshing.compareAndSet(false, true)) {
+                inFlight.incrementAndGet();
+                refresh(entry.getKey(), client);
+            }
+        }
+    }
+
+    private void refresh(String clientId, HotClient client) {
+        CompletableFuture<String> saved;
+        try {
+            saved = jwtProvider.generateToken(clientId)
+                .thenCompose(token -> repositoryJwt.saveJwt(clientId, token).thenApply(v -> token));
+        } catch (RuntimeException e) {
+            saved = CompletableFuture.failedFuture(e);
+        }
+        saved.whenComplete((token, error) -> {
+            if (error != null) {
+                refreshFailures.increment();
+            } else {
+                refreshes.increment();
+                client.refreshed(token);
+            }
+            inFlight.decrementAndGet();
+            client.refreshing.set(false);
+        });
+    }
+
+    /**
+     * Tokens minted ahead of the expiry of the cached one.
+     */
+    public long refreshCount() {
+        return refreshes.sum();
+    }
+
+    public long refreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    /**
+     * Served tokens not tracked because the pool was full.
+     */
+    public long untrackedCount() {
+        return untracked.sum();
+    }
+
+    public int trackedClients() {
+        return clients.size();
+    }
+
+    private static final class HotClient {
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile String token;
+        private volatile long expiresAtMillis = -1;
+
+        void served(String servedToken) {
+            if (!servedToken.equals(token)) {
+                track(servedToken);
+            }
+            hits.incrementAndGet();
+        }
+
+        void refreshed(String newToken) {
+            track(newToken);
+            hits.set(0);
+        }
+
+        // Racing updates may briefly store an older token; the later expiry always wins
+        private void track(String newToken) {
+            long expiresAt = JwtClaims.expiresAtMillis(newToken);
+            if (expiresAt < 0 || expiresAt >= expiresAtMillis) {
+                token = newToken;
+                expiresAtMillis = expiresAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.markesiano.auth_service.infraestructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.markesiano.auth_service.application.interfaces.SigningKeyCheck;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Holds the current JwsKeyRing and rotates its active key without a restart.
+ *
+ * - rotate(next): 'next' signs every token minted from then on. The previous active key
+ *   is retiring: for 'overlap' it still verifies the tokens it signed and stays in the JWKS
+ * - Once its overlap is over a retiring key is retired and dropped from the ring. Tokens it
+ *   signed no longer verify; a cached one is re-minted on its next request (isRetired), so
+ *   a rotation never re-signs every cached token at once
+ * - With a positive 'interval' the next key is taken from 'nextKey' on a schedule; a key
+ *   with the active key's kid (e.g. unchanged PEM or secret files) is ignored
+ *
+ * A cached token's key generation is its header segment, which names the signing key. Readers
+ * take the ring with current(), a volatile read; every change builds a new immutable ring,
+ * so signing and verification never lock.
+ */
+public class RotatingKeyRing implements SigningKeyCheck {
+
+    private static final long CHECK_INTERVAL_MILLIS = 1000;
+    private static final byte[] PROBE = "rotation-probe".getBytes(StandardCharsets.US_ASCII);
+
+    private final Supplier<JwsKey> nextKey;
+    private final long intervalMillis;
+    private final long overlapMillis;
+    private final TimeSource time;
+    private final List<Retiring> retiring = new ArrayList<>();
+    private final LongAdder rotations = new LongAdder();
+    private final LongAdder rotationFailures = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+    private volatile JwsKeyRing current;
+    private long nextRotationAtMillis;
+
+    private record Retiring(JwsKey key, long retireAtMillis) {
+    }
+
+    public RotatingKeyRing(JwsKeyRing initial, Supplier<JwsKey> nextKey, Duration interval, Duration overlap, TimeSource time) {
+        if (interval.isNegative() || overlap.isNegative()) {
+            throw new IllegalArgumentException("Key rotation interval and overlap cannot be negative");
+        }
+        if (!interval.isZero() && nextKey == null) {
+            throw new IllegalArgumentException("Scheduled key rotation needs a source of new keys");
+        }
+        this.current = initial;
+        this.nextKey = nextKey;
+        this.intervalMillis = interval.toMillis();
+        this.overlapMillis = overlap.toMillis();
+        this.time = time;
+        this.nextRotationAtMillis = time.currentTimeMillis() + intervalMillis;
+        this.scheduler = interval.isZero() ? null : Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * A ring that only changes through explicit rotate calls, without overlap: the previous
+     * key is retired by the rotation itself.
+     */
+    public static RotatingKeyRing fixed(JwsKeyRing ring) {
+        return new RotatingKeyRing(ring, null, Duration.ZERO, Duration.ZERO, TimeSource.SYSTEM);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                rotateIfDue();
+                retireExpired();
+            } catch (RuntimeException e) {
+                // An exception would cancel the schedule, the next pass retries
+                rotationFailures.increment();
+            }
+        }, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public JwsKeyRing current() {
+        return current;
+    }
+
+    @Override
+    public boolean isRetired(String token) {
+        return !current.hasKeyFor(token);
+    }
+
+    /**
+     * Rotates to the key from 'nextKey' once 'interval' has passed since the last attempt.
+     * A failing key source is counted and retried after another interval. Runs on the
+     * scheduler; public so tests can drive it.
+     */
+    public boolean rotateIfDue() {
+        if (nextKey == null || intervalMillis == 0) {
+            return false;
+        }
+        synchronized (this) {
+            long now = time.currentTimeMillis();
+            if (now < nextRotationAtMillis) {
+                return false;
+            }
+            nextRotationAtMillis = now + intervalMillis;
+        }
+        try {
+            return rotate(nextKey.get());
+        } catch (RuntimeException e) {
+            rotationFailures.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Makes 'next' the active key; the previous one retires after the overlap.
+     * Returns false if 'next' has the kid of the active key.
+     *
+     * @throws IllegalArgumentException if 'next' does not verify its own signature
+     */
+    public synchronized boolean rotate(JwsKey next) {
+        JwsKeyRing ring = current;
+        if (Objects.equals(next.kid(), ring.active().kid())) {
+            return false;
+        }
+        if (!next.verify(PROBE, next.sign(PROBE))) {
+            throw new IllegalArgumentException("Signing key " + next.kid() + " does not verify its own signatures");
+        }
+        long now = time.currentTimeMillis();
+        retiring.removeIf(r -> Objects.equals(r.key().kid(), next.kid()));
+        retiring.add(new Retiring(ring.active(), now + overlapMillis));
+        List<JwsKey> verifying = new ArrayList<>();
+        for (JwsKey key : ring.keys()) {
+            if (!Objects.equals(key.kid(), next.kid())) {
+                verifying.add(key);
+            }
+        }
+        current = new JwsKeyRing(next, verifying);
+        rotations.increment();
+        retireExpired();
+        return true;
+    }
+
+    /**
+     * Drops the retiring keys whose overlap is over and returns how many were dropped.
+     */
+    public synchronized int retireExpired() {
+        long now = time.currentTimeMillis();
+        List<JwsKey> expired = new ArrayList<>();
+        Iterator<Retiring> iterator = retiring.iterator();
+        while (iterator.hasNext()) {
+            Retiring candidate = iterator.next();
+            if (candidate.retireAtMillis() <= now) {
+                expired.add(candidate.key());
+                iterator.remove();
+            }
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        JwsKeyRing ring = current;
+        List<JwsKey> verifying = new ArrayList<>();
+        for (JwsKey key : ring.keys()) {
+            if (key != ring.active() && !expired.contains(key)) {
+                verifying.add(key);
+            }
+        }
+        current = new JwsKeyRing(ring.active(), verifying);
+        retired.add(expired.size());
+        return expired.size();
+    }
+
+    public long rotationCount() {
+        return rotations.sum();
+    }
+
+    /**
+     * Scheduled rotations whose key source failed, left for the next interval.
+     */
+    public long rotationFailureCount() {
+        return rotationFailures.sum();
+    }
+
+    public long retiredCount() {
+        return retired.sum();
+    }
+
+    /**
+     * Keys that verify tokens right now, the active one included.
+     */
+    public int keyCount() {
+        return current.keys().size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.markesiano.auth_service.infraestructure.time;
+
+/**
+ * Clock used by the token caches.
+ *
+ * - nanoTime: monotonic, used for deadlines and elapsed time; unaffected by wall clock jumps
+ * - currentTimeMillis: wall clock, only used to turn a token's 'exp' claim into a deadline
+ *
+ * Both return primitives so reading the time on the lookup path allocates nothing.
+ * Tests inject their own implementation to move time without sleeping.
+ */
+public interface TimeSource {
+
+    TimeSource SYSTEM = new TimeSource() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    long nanoTime();
+
+    long currentTimeMillis();
+}
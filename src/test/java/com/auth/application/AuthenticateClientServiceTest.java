@@ -1,5 +1,8 @@
 package com.auth.application;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -15,6 +18,8 @@ import com.markesiano.auth_service.application.exceptions.InvalidCredentialsExce
 import com.markesiano.auth_service.application.interfaces.JwtKey;
 import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
 import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.application.interfaces.SigningKeyCheck;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
 import com.markesiano.auth_service.application.usecases.AuthenticateClientService;
 import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
 import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
@@ -299,4 +304,198 @@ public class AuthenticateClientServiceTest {
 
         verify(repository).isValidClient("validClientId", "");
     }
+
+    @Test
+    public void testConcurrentMissesShareOneMint() {
+        // Arrange
+        AuthRequest request = new AuthRequest("fleetClientId", "validProductKey");
+        CompletableFuture<String> pendingToken = new CompletableFuture<>();
+
+        when(repository.isValidClient(request.clientId(), request.productKey()))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repositoryJwt.getJwtCached(request.clientId()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(jwtProvider.generateToken(request.clientId()))
+            .thenReturn(pendingToken);
+        when(repositoryJwt.saveJwt(request.clientId(), "sharedJwtToken"))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act - every miss arrives while the first mint is still signing
+        CompletableFuture<AuthResponse> first = authenticateClientService.authenticate(request);
+        CompletableFuture<AuthResponse> second = authenticateClientService.authenticate(request);
+        CompletableFuture<AuthResponse> third = authenticateClientService.authenticate(request);
+        pendingToken.complete("sharedJwtToken");
+
+        // Assert
+        assertEquals("sharedJwtToken", first.join().token());
+        assertEquals("sharedJwtToken", second.join().token());
+        assertEquals("sharedJwtToken", third.join().token());
+        verify(jwtProvider, times(1)).generateToken(request.clientId());
+        verify(repositoryJwt, times(1)).saveJwt(request.clientId(), "sharedJwtToken");
+        assertEquals(1, authenticateClientService.mintCount());
+        assertEquals(2, authenticateClientService.coalescedCount());
+    }
+
+    @Test
+    public void testFailedMintIsNotReusedByLaterMisses() {
+        // Arrange
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+        RuntimeException jwtException = new RuntimeException("Signing failed");
+
+        when(repository.isValidClient(request.clientId(), request.productKey()))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repositoryJwt.getJwtCached(request.clientId()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(jwtProvider.generateToken(request.clientId()))
+            .thenReturn(CompletableFuture.failedFuture(jwtException))
+            .thenReturn(CompletableFuture.completedFuture("retriedJwtToken"));
+        when(repositoryJwt.saveJwt(request.clientId(), "retriedJwtToken"))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> authenticateClientService.authenticate(request).join());
+        AuthResponse retried = authenticateClientService.authenticate(request).join();
+
+        // Assert
+        assertEquals(jwtException, exception.getCause());
+        assertEquals("retriedJwtToken", retried.token());
+        assertEquals(2, authenticateClientService.mintCount());
+        assertEquals(0, authenticateClientService.coalescedCount());
+    }
+
+    @Test
+    public void testServedTokensAreReportedToRefresher() {
+        // Arrange
+        TokenRefresher tokenRefresher = mock(TokenRefresher.class);
+        AuthenticateClientService service = new AuthenticateClientService(repository, jwtProvider, repositoryJwt, tokenRefresher);
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+
+        when(repository.isValidClient(request.clientId(), request.productKey()))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repositoryJwt.getJwtCached(request.clientId()))
+            .thenReturn(CompletableFuture.completedFuture(null))
+            .thenReturn(CompletableFuture.completedFuture("mintedJwtToken"));
+        when(jwtProvider.generateToken(request.clientId()))
+            .thenReturn(CompletableFuture.completedFuture("mintedJwtToken"));
+        when(repositoryJwt.saveJwt(request.clientId(), "mintedJwtToken"))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        service.authenticate(request).join();
+        service.authenticate(request).join();
+
+        // Assert - once for the minted token, once for the cache hit
+        verify(tokenRefresher, times(2)).onTokenServed("validClientId", "mintedJwtToken");
+    }
+
+    @Test
+    public void testTokenOfRetiredKeyIsReminted() {
+        // Arrange
+        SigningKeyCheck signingKeyCheck = token -> token.equals("retiredKeyJwtToken");
+        AuthenticateClientService service = new AuthenticateClientService(repository, jwtProvider, repositoryJwt,
+            TokenRefresher.NONE, signingKeyCheck);
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+
+        when(repository.isValidClient(request.clientId(), request.productKey()))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repositoryJwt.getJwtCached(request.clientId()))
+            .thenReturn(CompletableFuture.completedFuture("retiredKeyJwtToken"));
+        when(jwtProvider.generateToken(request.clientId()))
+            .thenReturn(CompletableFuture.completedFuture("activeKeyJwtToken"));
+        when(repositoryJwt.saveJwt(request.clientId(), "activeKeyJwtToken"))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        AuthResponse response = service.authenticate(request).join();
+
+        // Assert
+        assertEquals("activeKeyJwtToken", response.token());
+        verify(repositoryJwt).saveJwt("validClientId", "activeKeyJwtToken");
+        assertEquals(1, service.retiredKeyMintCount());
+    }
+
+    @Test
+    public void testAuthenticateAllBatchesCacheLookupsAndWrites() {
+        // Arrange
+        AuthRequest cachedClient = new AuthRequest("cachedClient", "validProductKey");
+        AuthRequest newClient = new AuthRequest("newClient", "validProductKey");
+        AuthRequest invalidClient = new AuthRequest("invalidClient", "wrongProductKey");
+
+        when(repository.isValidClient(anyString(), eq("validProductKey")))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repository.isValidClient("invalidClient", "wrongProductKey"))
+            .thenReturn(CompletableFuture.completedFuture(false));
+        when(repositoryJwt.getAll(Set.of("cachedClient", "newClient")))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("cachedClient", "cachedJwtToken")));
+        when(jwtProvider.generateToken("newClient"))
+            .thenReturn(CompletableFuture.completedFuture("newJwtToken"));
+        when(repositoryJwt.saveAll(Map.of("newClient", "newJwtToken")))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        List<AuthResponse> responses = authenticateClientService
+            .authenticateAll(List.of(cachedClient, newClient, invalidClient, cachedClient)).join();
+
+        // Assert
+        assertEquals(4, responses.size());
+        assertEquals("cachedJwtToken", responses.get(0).token());
+        assertEquals("newJwtToken", responses.get(1).token());
+        assertEquals("Invalid client ID or product key", responses.get(2).message());
+        assertEquals("cachedJwtToken", responses.get(3).token());
+        verify(repositoryJwt, times(1)).getAll(any());
+        verify(repositoryJwt, times(1)).saveAll(any());
+        verify(repositoryJwt, never()).getJwtCached(anyString());
+        verify(repositoryJwt, never()).saveJwt(anyString(), anyString());
+        assertEquals(1, authenticateClientService.mintCount());
+    }
+
+    @Test
+    public void testAuthenticateAllIsolatesFailedItems() {
+        // Arrange
+        AuthRequest failingCheck = new AuthRequest("failingCheck", "validProductKey");
+        AuthRequest failingMint = new AuthRequest("failingMint", "validProductKey");
+        AuthRequest healthy = new AuthRequest("healthy", "validProductKey");
+
+        when(repository.isValidClient("failingCheck", "validProductKey"))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Credential store unavailable")));
+        when(repository.isValidClient("failingMint", "validProductKey"))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repository.isValidClient("healthy", "validProductKey"))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repositoryJwt.getAll(any())).thenReturn(CompletableFuture.completedFuture(Map.of()));
+        when(jwtProvider.generateToken("failingMint"))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Signer unavailable")));
+        when(jwtProvider.generateToken("healthy"))
+            .thenReturn(CompletableFuture.completedFuture("healthyJwtToken"));
+        when(repositoryJwt.saveAll(Map.of("healthy", "healthyJwtToken")))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        List<AuthResponse> responses = authenticateClientService
+            .authenticateAll(List.of(failingCheck, failingMint, healthy)).join();
+
+        // Assert
+        assertEquals("Credential store unavailable", responses.get(0).message());
+        assertEquals("Signer unavailable", responses.get(1).message());
+        assertEquals("healthyJwtToken", responses.get(2).token());
+    }
+
+    @Test
+    public void testAuthenticateAllReportsCacheFailurePerItem() {
+        // Arrange
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey()))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(repositoryJwt.getAll(any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Cache unavailable")));
+
+        // Act
+        List<AuthResponse> responses = authenticateClientService.authenticateAll(List.of(request)).join();
+
+        // Assert
+        assertEquals("Authentication failed", responses.get(0).error());
+        assertEquals("Cache unavailable", responses.get(0).message());
+        verifyNoInteractions(jwtProvider);
+    }
 }
@@ -0,0 +1,244 @@
+package com.auth.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.markesiano.auth_service.application.exceptions.InvalidCredentialsException;
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.application.interfaces.ReactiveJwtKey;
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.ReactiveRepositoryKey;
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.application.interfaces.RepositoryKey;
+import com.markesiano.auth_service.application.interfaces.SigningKeyCheck;
+import com.markesiano.auth_service.application.interfaces.TokenRefresher;
+import com.markesiano.auth_service.application.usecases.AuthenticateClientService;
+import com.markesiano.auth_service.application.usecases.InFlightMints;
+import com.markesiano.auth_service.application.usecases.ReactiveAuthenticateClientService;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+
+import reactor.core.publisher.Mono;
+
+public class ReactiveAuthenticateClientServiceTest {
+
+    private ReactiveAuthenticateClientService authenticateClientService;
+
+    @Mock
+    private ReactiveRepositoryKey repository;
+    @Mock
+    private ReactiveJwtKey jwtProvider;
+    @Mock
+    private ReactiveRepositoryJwt<String> repositoryJwt;
+    @Mock
+    private TokenRefresher tokenRefresher;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        authenticateClientService = new ReactiveAuthenticateClientService(repository, jwtProvider, repositoryJwt, tokenRefresher);
+    }
+
+    @Test
+    public void testAuthenticateSuccessWithoutJwtCached() {
+        // Arrange
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.empty());
+        when(jwtProvider.generateToken(request.clientId())).thenReturn(Mono.just("validJwtToken"));
+        when(repositoryJwt.saveJwt(request.clientId(), "validJwtToken")).thenReturn(Mono.empty());
+
+        // Act
+        AuthResponse response = authenticateClientService.authenticate(request).block();
+
+        // Assert
+        assertEquals(new AuthResponse("validJwtToken"), response);
+        verify(repositoryJwt).saveJwt(request.clientId(), "validJwtToken");
+    }
+
+    @Test
+    public void testAuthenticateSuccessWithJwtCached() {
+        // Arrange
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.just("cachedJwtToken"));
+
+        // Act
+        AuthResponse response = authenticateClientService.authenticate(request).block();
+
+        // Assert
+        assertEquals(new AuthResponse("cachedJwtToken"), response);
+        verify(jwtProvider, never()).generateToken(anyString());
+        verify(repositoryJwt, never()).saveJwt(anyString(), anyString());
+    }
+
+    @Test
+    public void testServedTokensAreReportedToRefresher() {
+        // Arrange
+        AuthRequest cachedRequest = new AuthRequest("cachedClientId", "validProductKey");
+        AuthRequest mintedRequest = new AuthRequest("mintedClientId", "validProductKey");
+        when(repository.isValidClient(anyString(), anyString())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached("cachedClientId")).thenReturn(Mono.just("cachedJwtToken"));
+        when(repositoryJwt.getJwtCached("mintedClientId")).thenReturn(Mono.empty());
+        when(jwtProvider.generateToken("mintedClientId")).thenReturn(Mono.just("mintedJwtToken"));
+        when(repositoryJwt.saveJwt("mintedClientId", "mintedJwtToken")).thenReturn(Mono.empty());
+
+        // Act
+        authenticateClientService.authenticate(cachedRequest).block();
+        authenticateClientService.authenticate(mintedRequest).block();
+
+        // Assert
+        verify(tokenRefresher).onTokenServed("cachedClientId", "cachedJwtToken");
+        verify(tokenRefresher).onTokenServed("mintedClientId", "mintedJwtToken");
+    }
+
+    @Test
+    public void testRejectedClientIsNotReportedToRefresher() {
+        // Arrange
+        AuthRequest request = new AuthRequest("invalidClientId", "invalidProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(false));
+
+        // Act
+        assertThrows(InvalidCredentialsException.class, () -> authenticateClientService.authenticate(request).block());
+
+        // Assert
+        verify(tokenRefresher, never()).onTokenServed(anyString(), anyString());
+    }
+
+    @Test
+    public void testAuthenticateFailureInvalidCredentials() {
+        // Arrange
+        AuthRequest request = new AuthRequest("invalidClientId", "invalidProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class,
+            () -> authenticateClientService.authenticate(request).block());
+
+        assertEquals("Invalid client ID or product key", exception.getMessage());
+        verify(repositoryJwt, never()).getJwtCached(anyString());
+        verify(jwtProvider, never()).generateToken(anyString());
+    }
+
+    @Test
+    public void testAuthenticateFailureWhenCacheFails() {
+        // Arrange
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.error(new RuntimeException("Cache down")));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> authenticateClientService.authenticate(request).block());
+
+        assertEquals("Cache down", exception.getMessage());
+        verify(jwtProvider, never()).generateToken(anyString());
+    }
+
+    @Test
+    public void testAuthenticateIsLazyUntilSubscribed() {
+        // Arrange
+        AuthRequest request = new AuthRequest("validClientId", "validProductKey");
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.just("cachedJwtToken"));
+
+        // Act
+        Mono<AuthResponse> response = authenticateClientService.authenticate(request);
+
+        // Assert - the cache is only queried once the response is subscribed to
+        verify(repositoryJwt, never()).getJwtCached(anyString());
+        assertEquals("cachedJwtToken", response.block().token());
+        verify(repositoryJwt).getJwtCached(request.clientId());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneMint() {
+        // Arrange
+        AuthRequest request = new AuthRequest("fleetClientId", "validProductKey");
+        CompletableFuture<String> pendingToken = new CompletableFuture<>();
+        InFlightMints inFlightMints = new InFlightMints();
+        ReactiveAuthenticateClientService service = new ReactiveAuthenticateClientService(repository, jwtProvider,
+            repositoryJwt, tokenRefresher, SigningKeyCheck.NONE, inFlightMints);
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.empty());
+        when(jwtProvider.generateToken(request.clientId())).thenReturn(Mono.fromFuture(pendingToken));
+        when(repositoryJwt.saveJwt(request.clientId(), "sharedJwtToken")).thenReturn(Mono.empty());
+
+        // Act - every miss arrives while the first mint is still signing
+        CompletableFuture<AuthResponse> first = service.authenticate(request).toFuture();
+        CompletableFuture<AuthResponse> second = service.authenticate(request).toFuture();
+        CompletableFuture<AuthResponse> third = service.authenticate(request).toFuture();
+        pendingToken.complete("sharedJwtToken");
+
+        // Assert
+        assertEquals("sharedJwtToken", first.join().token());
+        assertEquals("sharedJwtToken", second.join().token());
+        assertEquals("sharedJwtToken", third.join().token());
+        verify(jwtProvider, times(1)).generateToken(request.clientId());
+        verify(repositoryJwt, times(1)).saveJwt(request.clientId(), "sharedJwtToken");
+        assertEquals(1, inFlightMints.mintCount());
+        assertEquals(2, inFlightMints.coalescedCount());
+    }
+
+    @Test
+    public void testCancelledWaiterDoesNotCancelSharedMint() {
+        // Arrange
+        AuthRequest request = new AuthRequest("fleetClientId", "validProductKey");
+        CompletableFuture<String> pendingToken = new CompletableFuture<>();
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.empty());
+        when(jwtProvider.generateToken(request.clientId())).thenReturn(Mono.fromFuture(pendingToken));
+        when(repositoryJwt.saveJwt(request.clientId(), "sharedJwtToken")).thenReturn(Mono.empty());
+
+        // Act - the first caller goes away while the mint is signing
+        authenticateClientService.authenticate(request).subscribe().dispose();
+        CompletableFuture<AuthResponse> second = authenticateClientService.authenticate(request).toFuture();
+        pendingToken.complete("sharedJwtToken");
+
+        // Assert
+        assertEquals("sharedJwtToken", second.join().token());
+        verify(jwtProvider, times(1)).generateToken(request.clientId());
+    }
+
+    @Test
+    public void testMissJoinsMintOfBlockingService() {
+        // Arrange - both services built over the same InFlightMints, as in the application
+        AuthRequest request = new AuthRequest("fleetClientId", "validProductKey");
+        InFlightMints inFlightMints = new InFlightMints();
+        ReactiveAuthenticateClientService reactive = new ReactiveAuthenticateClientService(repository, jwtProvider,
+            repositoryJwt, tokenRefresher, SigningKeyCheck.NONE, inFlightMints);
+        RepositoryKey blockingRepository = mock(RepositoryKey.class);
+        JwtKey blockingProvider = mock(JwtKey.class);
+        @SuppressWarnings("unchecked")
+        RepositoryJwt<String> blockingRepositoryJwt = mock(RepositoryJwt.class);
+        AuthenticateClientService blocking = new AuthenticateClientService(blockingRepository, blockingProvider,
+            blockingRepositoryJwt, TokenRefresher.NONE, SigningKeyCheck.NONE, inFlightMints);
+        CompletableFuture<String> pendingToken = new CompletableFuture<>();
+        when(blockingRepository.isValidClient(request.clientId(), request.productKey()))
+            .thenReturn(CompletableFuture.completedFuture(true));
+        when(blockingRepositoryJwt.getJwtCached(request.clientId())).thenReturn(CompletableFuture.completedFuture(null));
+        when(blockingProvider.generateToken(request.clientId())).thenReturn(pendingToken);
+        when(blockingRepositoryJwt.saveJwt(request.clientId(), "sharedJwtToken"))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(repository.isValidClient(request.clientId(), request.productKey())).thenReturn(Mono.just(true));
+        when(repositoryJwt.getJwtCached(request.clientId())).thenReturn(Mono.empty());
+
+        // Act
+        CompletableFuture<AuthResponse> fromBlocking = blocking.authenticate(request);
+        CompletableFuture<AuthResponse> fromReactive = reactive.authenticate(request).toFuture();
+        pendingToken.complete("sharedJwtToken");
+
+        // Assert
+        assertEquals("sharedJwtToken", fromBlocking.join().token());
+        assertEquals("sharedJwtToken", fromReactive.join().token());
+        verify(jwtProvider, never()).generateToken(anyString());
+        assertEquals(1, inFlightMints.coalescedCount());
+    }
+}
@@ -0,0 +1,105 @@
+package com.auth.benchmark;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.application.usecases.AuthenticateClientService;
+import com.markesiano.auth_service.infraestructure.data.InMemoryClientKeyRepository;
+import com.markesiano.auth_service.infraestructure.data.InMemoryJwtRepository;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+import com.markesiano.auth_service.infraestructure.execution.BoundedExecutor;
+import com.markesiano.auth_service.infraestructure.security.JwtProvider;
+
+/**
+ * Side by side comparison of the two execution modes of the authentication pipeline.
+ *
+ * - async: the request thread builds the CompletableFuture chain, every adapter hops
+ *   onto the bounded CPU pool, and the request thread blocks on join()
+ * - virtual: the request runs on a virtual thread (as Tomcat does with
+ *   spring.threads.virtual.enabled) and the in-memory adapters still hop onto the
+ *   bounded CPU pool, as ExecutorConfig wires them
+ * - direct: everything runs inline on a virtual thread per request, the baseline that
+ *   shows what the bounded CPU pool costs
+ *
+ * Throughput and sampled latency are reported for a cache hit and a cache miss
+ * (the miss signs and stores a new token on every call). Run it with the gc profiler
+ * (on by default in the benchmark profile) to compare gc.alloc.rate.norm, the bytes
+ * allocated per request, between the modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class AuthPipelineBenchmark {
+
+    @Param({"async", "virtual", "direct"})
+    public String mode;
+
+    @Param({"true", "false"})
+    public boolean cacheHit;
+
+    private BoundedExecutor cpuExecutor;
+    private ExecutorService requestThreads;
+    private InMemoryJwtRepository repositoryJwt;
+    private AuthenticateClientService service;
+    private final AuthRequest request = new AuthRequest("markepos01", "productKey1");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean async = "async".equals(mode);
+        cpuExecutor = "direct".equals(mode)
+            ? BoundedExecutor.direct("bench-cpu")
+            : BoundedExecutor.platform("bench-cpu", Runtime.getRuntime().availableProcessors(), 4096);
+        requestThreads = async ? null : Executors.newVirtualThreadPerTaskExecutor();
+
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        JwtProvider jwtProvider = new JwtProvider(cpuExecutor);
+        ReflectionTestUtils.setField(jwtProvider, "secret", Base64.getEncoder().encodeToString(secret));
+
+        repositoryJwt = new InMemoryJwtRepository(cpuExecutor);
+        service = new AuthenticateClientService(new InMemoryClientKeyRepository(), jwtProvider, repositoryJwt);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cpuExecutor.shutdown();
+        if (requestThreads != null) {
+            requestThreads.shutdown();
+        }
+    }
+
+    @Benchmark
+    public AuthResponse authenticate() throws Exception {
+        if (!cacheHit) {
+            repositoryJwt.clear();
+        }
+        if (requestThreads == null) {
+            return service.authenticate(request).join();
+        }
+        return requestThreads.submit(() -> service.authenticate(request).join()).get();
+    }
+}
@@ -0,0 +1,67 @@
+package com.auth.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.markesiano.auth_service.infraestructure.data.InMemoryClientKeyRepository;
+import com.markesiano.auth_service.infraestructure.execution.BoundedExecutor;
+
+/**
+ * Cost of validating a client against the in-memory key store.
+ *
+ * - pooled: the previous shape, the lookup dispatched to the bounded CPU pool with
+ *   supplyAsync and the caller blocking on join()
+ * - inline: the lookup as it is now, completed on the calling thread
+ *
+ * Both run the same digest and comparison, so the difference is the thread handoff.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ClientKeyLookupBenchmark {
+
+    @Param({"pooled", "inline"})
+    public String mode;
+
+    private BoundedExecutor cpuExecutor;
+    private InMemoryClientKeyRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cpuExecutor = BoundedExecutor.platform("bench-cpu", Runtime.getRuntime().availableProcessors(), 4096);
+        repository = new InMemoryClientKeyRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cpuExecutor.shutdown();
+    }
+
+    @Benchmark
+    public boolean isValidClient() {
+        if ("pooled".equals(mode)) {
+            return CompletableFuture.supplyAsync(
+                () -> repository.isValidClient("markepos01", "productKey1").join(), cpuExecutor).join();
+        }
+        return repository.isValidClient("markepos01", "productKey1").join();
+    }
+}
@@ -0,0 +1,78 @@
+package com.auth.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.markesiano.auth_service.infraestructure.security.AsymmetricJwsKey;
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKey;
+
+/**
+ * Cost of signing and of verifying one token per algorithm.
+ *
+ * - HS256: shared secret, cheapest for both but every verifier needs the secret
+ * - ES256: P-256 ECDSA, signing is cheap and verification is the most expensive
+ * - EdDSA: Ed25519, both sides in between
+ *
+ * The signing input is a typical header.payload of this service, so the numbers are the
+ * signature part of minting a token and of a verified-token cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwsKey key;
+    private byte[] signingInput;
+    private byte[] signature;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("HS256".equals(algorithm)) {
+            byte[] secretBytes = new byte[64];
+            new SecureRandom().nextBytes(secretBytes);
+            key = HmacJwsKey.fromSecret(Base64.getEncoder().encodeToString(secretBytes));
+        } else {
+            key = AsymmetricJwsKey.generate(algorithm);
+        }
+        String header = "{\"alg\":\"" + algorithm + "\",\"kid\":\"" + key.kid() + "\"}";
+        String payload = "{\"sub\":\"markepos01\",\"iat\":1700000000,\"exp\":1700003600}";
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        signingInput = (base64.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+            + base64.encodeToString(payload.getBytes(StandardCharsets.UTF_8))).getBytes(StandardCharsets.US_ASCII);
+        signature = key.sign(signingInput);
+    }
+
+    @Benchmark
+    public byte[] sign() {
+        return key.sign(signingInput);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return key.verify(signingInput, signature);
+    }
+}
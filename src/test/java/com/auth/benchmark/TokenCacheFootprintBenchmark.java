@@ -0,0 +1,83 @@
+package com.auth.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.data.InMemoryJwtRepository;
+import com.markesiano.auth_service.infraestructure.data.OffHeapJwtRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+/**
+ * Heap footprint and full GC pause of a token cache holding millions of clients.
+ *
+ * Each trial fills the cache with 'entries' device tokens of realistic size. The
+ * benchmark then measures a forced full collection: with 'memory' the collector has to
+ * trace every String, TokenEntry and map node, with 'offheap' only a few buffers. The
+ * retained heap after the fill is printed at teardown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms6g", "-Xmx6g", "-XX:MaxDirectMemorySize=2g", "-XX:+UseG1GC"})
+public class TokenCacheFootprintBenchmark {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9."
+        + "eyJzdWIiOiJkZXZpY2UtMDAwMDAwMDAiLCJpYXQiOjE3MDAwMDAwMDAsImV4cCI6MTcwMDAwMzYwMH0."
+        + "3q2-7wQZlLAd8zJ5vY1e2nP0hJ6kYb7l9s0Xw4cR1uE";
+
+    @Param({"memory", "offheap"})
+    public String repository;
+
+    @Param({"2000000"})
+    public int entries;
+
+    private RepositoryJwt<String> cache;
+    private long heapBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.gc();
+        heapBefore = usedHeap();
+        cache = "offheap".equals(repository)
+            ? new OffHeapJwtRepository(Runnable::run, entries, 256, 64, TimeSource.SYSTEM)
+            : new InMemoryJwtRepository(Runnable::run, entries, Long.MAX_VALUE);
+        for (int i = 0; i < entries; i++) {
+            // Distinct strings per entry, as tokens arriving from requests would be
+            cache.saveJwt("device-" + i, new String(TOKEN.toCharArray())).join();
+        }
+    }
+
+    @Benchmark
+    public void fullGc() {
+        System.gc();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.gc();
+        long retained = usedHeap() - heapBefore;
+        System.out.printf("%n%s: %d entries retain %d MB of heap (%d bytes per entry)%n",
+            repository, entries, retained / (1024 * 1024), retained / entries);
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
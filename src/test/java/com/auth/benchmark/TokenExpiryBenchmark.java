@@ -0,0 +1,78 @@
+package com.auth.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.markesiano.auth_service.infraestructure.execution.TimingWheel;
+
+/**
+ * Cost of one expiry pass over a large token cache.
+ *
+ * - scan: the previous approach, a removeIf over every entry of the map
+ * - wheel: one second of the timing wheel, which only touches the entries due in it
+ *
+ * Deadlines are spread evenly over one hour, so each second roughly 1/3600 of the
+ * cache expires. The scan pays for the whole map on every pass, and between passes
+ * (30 minutes before) expired entries stay resident; the wheel removes them within
+ * a tick at a cost proportional to what actually expires.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class TokenExpiryBenchmark {
+
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+    private static final long HOUR_TICKS = 3600;
+
+    @Param({"1000000"})
+    public int entries;
+
+    private Map<String, Long> deadlines;
+    private TimingWheel<String, Long> wheel;
+    private long now;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        deadlines = new ConcurrentHashMap<>(entries * 2);
+        wheel = new TimingWheel<>(TICK, 3, 0L, (clientId, deadline) -> deadlines.remove(clientId, deadline));
+        for (int i = 0; i < entries; i++) {
+            String clientId = "device-" + i;
+            long deadline = (1 + i % HOUR_TICKS) * TICK;
+            deadlines.put(clientId, deadline);
+            wheel.schedule(clientId, deadline, deadline);
+        }
+        now = 0;
+    }
+
+    @Benchmark
+    public int scan() {
+        now += TICK;
+        long current = now;
+        int before = deadlines.size();
+        deadlines.values().removeIf(deadline -> deadline <= current);
+        return before - deadlines.size();
+    }
+
+    @Benchmark
+    public int wheel() {
+        now += TICK;
+        return wheel.advance(now);
+    }
+}
@@ -0,0 +1,83 @@
+package com.auth.benchmark;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.infraestructure.security.CachingJwtVerifier;
+import com.markesiano.auth_service.infraestructure.security.CompactJwtProvider;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+/**
+ * Throughput of POST /api/v1/token/verify's verification path.
+ *
+ * - cacheEntries 0: every call parses the token and checks its HS256 signature
+ * - cacheEntries 10000: valid tokens are remembered until their exp, a repeated token
+ *   costs a SHA-256 and a map lookup
+ *
+ * Callers pick uniformly among 'distinctTokens' valid tokens, so with 1000 tokens
+ * nearly every call is a hit and with 100000 most calls miss and evict. The cache hit
+ * ratio of each trial is printed at its end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class TokenVerificationBenchmark {
+
+    @Param({"0", "10000"})
+    public int cacheEntries;
+
+    @Param({"1000", "100000"})
+    public int distinctTokens;
+
+    private CachingJwtVerifier verifier;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        String secret = Base64.getEncoder().encodeToString(secretBytes);
+
+        CompactJwtProvider jwtProvider = new CompactJwtProvider();
+        ReflectionTestUtils.setField(jwtProvider, "secret", secret);
+        long now = System.currentTimeMillis();
+        tokens = new String[distinctTokens];
+        for (int i = 0; i < distinctTokens; i++) {
+            tokens[i] = jwtProvider.encode("client" + i, now);
+        }
+        verifier = new CachingJwtVerifier(secret, cacheEntries, TimeSource.SYSTEM);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nverified-token cache hit ratio: %.3f (%d entries)%n", verifier.hitRatio(), verifier.getCacheSize());
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        return verifier.verify(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -15,10 +17,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.application.interfaces.TokenVerifier;
 import com.markesiano.auth_service.application.usecases.interfaces.AuthenticateClientUseCase;
 import com.markesiano.auth_service.controller.AuthController;
 import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
 import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyRequest;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyResponse;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthControllerTest {
@@ -26,11 +32,14 @@ public class AuthControllerTest {
     @Mock
     private AuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase;
 
+    @Mock
+    private TokenVerifier tokenVerifier;
+
     private AuthController authController;
 
     @BeforeEach
     public void setUp() {
-        authController = new AuthController(authenticationClientUseCase);
+        authController = new AuthController(authenticationClientUseCase, tokenVerifier, 3);
     }
 
     @Test
@@ -366,4 +375,98 @@ public class AuthControllerTest {
         assertEquals("Authentication failed", body.error());
         assertEquals("Authentication failed", body.message());
     }
+
+    @Test
+    public void testVerifyActiveToken() {
+        // Arrange
+        when(tokenVerifier.verify("jwt.token.here"))
+            .thenReturn(new TokenClaims("markepos01", 1_700_000_000_000L, 1_700_003_600_000L));
+
+        // Act
+        ResponseEntity<TokenVerifyResponse> result = authController.verify(new TokenVerifyRequest("jwt.token.here"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        TokenVerifyResponse body = result.getBody();
+        assertNotNull(body);
+        assertTrue(body.active());
+        assertEquals("markepos01", body.clientId());
+        assertEquals(1_700_000_000L, body.issuedAt());
+        assertEquals(1_700_003_600L, body.expiresAt());
+        assertNull(body.error());
+    }
+
+    @Test
+    public void testVerifyInvalidTokenIsInactive() {
+        // Arrange
+        when(tokenVerifier.verify("forged.token.here")).thenReturn(null);
+
+        // Act
+        ResponseEntity<TokenVerifyResponse> result = authController.verify(new TokenVerifyRequest("forged.token.here"));
+
+        // Assert - same status as a valid token, without claims or reason
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        TokenVerifyResponse body = result.getBody();
+        assertNotNull(body);
+        assertFalse(body.active());
+        assertNull(body.clientId());
+        assertNull(body.expiresAt());
+    }
+
+    @Test
+    public void testVerifyWithNullToken() {
+        // Act
+        ResponseEntity<TokenVerifyResponse> nullBody = authController.verify(null);
+        ResponseEntity<TokenVerifyResponse> nullToken = authController.verify(new TokenVerifyRequest(null));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, nullBody.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, nullToken.getStatusCode());
+        assertEquals("Bad request", nullToken.getBody().error());
+        assertEquals("Token cannot be null or empty", nullToken.getBody().message());
+        verifyNoInteractions(tokenVerifier);
+    }
+
+    @Test
+    public void testLoginAllAnswersEveryItemInOrder() {
+        // Arrange - the invalid item never reaches the use case
+        AuthRequest first = new AuthRequest("markepos01", "productKey1");
+        AuthRequest invalid = new AuthRequest("", "productKey2");
+        AuthRequest third = new AuthRequest("markepos03", "productKey3");
+        when(authenticationClientUseCase.authenticateAll(List.of(first, third))).thenReturn(CompletableFuture.completedFuture(List.of(
+            new AuthResponse("jwt.token.one"),
+            AuthResponse.error("Authentication failed", "Invalid client ID or product key"))));
+
+        // Act
+        ResponseEntity<List<AuthResponse>> result = authController.loginAll(Arrays.asList(first, invalid, third));
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        List<AuthResponse> body = result.getBody();
+        assertEquals(3, body.size());
+        assertEquals("jwt.token.one", body.get(0).token());
+        assertEquals("Client ID cannot be null or empty", body.get(1).message());
+        assertEquals("Invalid client ID or product key", body.get(2).message());
+    }
+
+    @Test
+    public void testLoginAllWithEmptyList() {
+        ResponseEntity<List<AuthResponse>> result = authController.loginAll(List.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Request list cannot be null or empty", result.getBody().get(0).message());
+        verifyNoInteractions(authenticationClientUseCase);
+    }
+
+    @Test
+    public void testLoginAllRejectsOversizedBatch() {
+        List<AuthRequest> requests = List.of(new AuthRequest("a", "k"), new AuthRequest("b", "k"),
+            new AuthRequest("c", "k"), new AuthRequest("d", "k"));
+
+        ResponseEntity<List<AuthResponse>> result = authController.loginAll(requests);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Batch cannot contain more than 3 requests", result.getBody().get(0).message());
+        verifyNoInteractions(authenticationClientUseCase);
+    }
 }
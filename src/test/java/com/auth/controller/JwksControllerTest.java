@@ -0,0 +1,77 @@
+package com.auth.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.markesiano.auth_service.controller.JwksController;
+import com.markesiano.auth_service.infraestructure.security.AsymmetricJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+import com.markesiano.auth_service.infraestructure.security.RotatingKeyRing;
+
+public class JwksControllerTest {
+
+    private JwsKeyRing keyRing;
+    private RotatingKeyRing rotatingKeyRing;
+    private JwksController jwksController;
+
+    @BeforeEach
+    public void setUp() {
+        keyRing = JwsKeyRing.of(AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256));
+        rotatingKeyRing = RotatingKeyRing.fixed(keyRing);
+        jwksController = new JwksController(rotatingKeyRing, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testJwksIsCacheable() {
+        // Act
+        ResponseEntity<byte[]> result = jwksController.jwks(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(keyRing.jwksEtag(), result.getHeaders().getETag());
+        assertEquals("max-age=300, public", result.getHeaders().getCacheControl());
+        assertTrue(new String(result.getBody(), StandardCharsets.UTF_8).contains(keyRing.active().kid()));
+    }
+
+    @Test
+    public void testMatchingEtagIsNotModified() {
+        // Act
+        ResponseEntity<byte[]> result = jwksController.jwks(keyRing.jwksEtag());
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+        assertEquals(keyRing.jwksEtag(), result.getHeaders().getFirst(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testStaleEtagGetsDocument() {
+        ResponseEntity<byte[]> result = jwksController.jwks("\"stale\"");
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+    }
+
+    @Test
+    public void testRotationChangesEtag() {
+        // Arrange
+        AsymmetricJwsKey next = AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+        rotatingKeyRing.rotate(next);
+
+        // Act
+        ResponseEntity<byte[]> result = jwksController.jwks(keyRing.jwksEtag());
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotEquals(keyRing.jwksEtag(), result.getHeaders().getETag());
+        assertTrue(new String(result.getBody(), StandardCharsets.UTF_8).contains(next.kid()));
+    }
+}
@@ -0,0 +1,176 @@
+package com.auth.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.application.exceptions.InvalidCredentialsException;
+import com.markesiano.auth_service.application.interfaces.TokenVerifier;
+import com.markesiano.auth_service.application.usecases.interfaces.AuthenticateClientUseCase;
+import com.markesiano.auth_service.application.usecases.interfaces.ReactiveAuthenticateClientUseCase;
+import com.markesiano.auth_service.controller.ReactiveAuthController;
+import com.markesiano.auth_service.infraestructure.dtos.AuthRequest;
+import com.markesiano.auth_service.infraestructure.dtos.AuthResponse;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyRequest;
+import com.markesiano.auth_service.infraestructure.dtos.TokenVerifyResponse;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveAuthControllerTest {
+
+    @Mock
+    private ReactiveAuthenticateClientUseCase<AuthResponse, AuthRequest> authenticationClientUseCase;
+
+    @Mock
+    private AuthenticateClientUseCase<AuthResponse, AuthRequest> batchUseCase;
+
+    @Mock
+    private TokenVerifier tokenVerifier;
+
+    private ReactiveAuthController authController;
+
+    @BeforeEach
+    public void setUp() {
+        authController = new ReactiveAuthController(authenticationClientUseCase, batchUseCase, tokenVerifier, 3);
+    }
+
+    @Test
+    public void testLoginSuccess() {
+        // Arrange
+        AuthRequest request = new AuthRequest("markepos01", "productKey1");
+        when(authenticationClientUseCase.authenticate(request)).thenReturn(Mono.just(new AuthResponse("jwt.token.here")));
+
+        // Act
+        ResponseEntity<AuthResponse> result = authController.login(request).block();
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("jwt.token.here", result.getBody().token());
+        assertNull(result.getBody().error());
+    }
+
+    @Test
+    public void testLoginWithNullRequest() {
+        ResponseEntity<AuthResponse> result = authController.login(null).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Request body cannot be null", result.getBody().message());
+        verifyNoInteractions(authenticationClientUseCase);
+    }
+
+    @Test
+    public void testLoginWithEmptyClientId() {
+        ResponseEntity<AuthResponse> result = authController.login(new AuthRequest("", "productKey1")).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Client ID cannot be null or empty", result.getBody().message());
+        verifyNoInteractions(authenticationClientUseCase);
+    }
+
+    @Test
+    public void testLoginWithNullProductKey() {
+        ResponseEntity<AuthResponse> result = authController.login(new AuthRequest("markepos01", null)).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Product Key cannot be null or empty", result.getBody().message());
+        verifyNoInteractions(authenticationClientUseCase);
+    }
+
+    @Test
+    public void testLoginFailureWithInvalidCredentials() {
+        // Arrange
+        AuthRequest request = new AuthRequest("invalidClient", "invalidKey");
+        when(authenticationClientUseCase.authenticate(request))
+            .thenReturn(Mono.error(new InvalidCredentialsException("Invalid client ID or product key")));
+
+        // Act
+        ResponseEntity<AuthResponse> result = authController.login(request).block();
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, result.getStatusCode());
+        assertNull(result.getBody().token());
+        assertEquals("Authentication failed", result.getBody().error());
+        assertEquals("Invalid client ID or product key", result.getBody().message());
+    }
+
+    @Test
+    public void testLoginFailureWhenUseCaseThrows() {
+        // Arrange
+        AuthRequest request = new AuthRequest("markepos01", "productKey1");
+        when(authenticationClientUseCase.authenticate(request)).thenThrow(new IllegalArgumentException("Boom"));
+
+        // Act
+        ResponseEntity<AuthResponse> result = authController.login(request).block();
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, result.getStatusCode());
+        assertEquals("Boom", result.getBody().message());
+    }
+
+    @Test
+    public void testVerifyActiveToken() {
+        // Arrange
+        when(tokenVerifier.verify("jwt.token.here"))
+            .thenReturn(new TokenClaims("markepos01", 1_700_000_000_000L, 1_700_003_600_000L));
+
+        // Act
+        ResponseEntity<TokenVerifyResponse> result = authController.verify(new TokenVerifyRequest("jwt.token.here")).block();
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertTrue(result.getBody().active());
+        assertEquals("markepos01", result.getBody().clientId());
+        assertEquals(1_700_003_600L, result.getBody().expiresAt());
+    }
+
+    @Test
+    public void testVerifyWithEmptyToken() {
+        ResponseEntity<TokenVerifyResponse> result = authController.verify(new TokenVerifyRequest("")).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Token cannot be null or empty", result.getBody().message());
+        verifyNoInteractions(tokenVerifier);
+    }
+
+    @Test
+    public void testLoginAllKeepsRequestOrder() {
+        // Arrange
+        AuthRequest first = new AuthRequest("markepos01", "productKey1");
+        AuthRequest second = new AuthRequest("markepos02", "productKey2");
+        when(batchUseCase.authenticateAll(List.of(first, second))).thenReturn(CompletableFuture.completedFuture(List.of(
+            new AuthResponse("jwt.token.one"),
+            AuthResponse.error("Authentication failed", "Invalid client ID or product key"))));
+
+        // Act
+        ResponseEntity<List<AuthResponse>> result = authController.loginAll(List.of(first, second)).block();
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("jwt.token.one", result.getBody().get(0).token());
+        assertEquals("Invalid client ID or product key", result.getBody().get(1).message());
+    }
+
+    @Test
+    public void testLoginAllRejectsOversizedBatch() {
+        List<AuthRequest> requests = List.of(new AuthRequest("a", "k"), new AuthRequest("b", "k"),
+            new AuthRequest("c", "k"), new AuthRequest("d", "k"));
+
+        ResponseEntity<List<AuthResponse>> result = authController.loginAll(requests).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Batch cannot contain more than 3 requests", result.getBody().get(0).message());
+        verifyNoInteractions(batchUseCase);
+    }
+}
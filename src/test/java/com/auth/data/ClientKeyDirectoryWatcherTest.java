@@ -0,0 +1,162 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.markesiano.auth_service.infraestructure.data.ClientKeyDirectoryWatcher;
+import com.markesiano.auth_service.infraestructure.data.InMemoryClientKeyRepository;
+
+public class ClientKeyDirectoryWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryClientKeyRepository repository;
+    private ClientKeyDirectoryWatcher watcher;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.writeString(directory.resolve("store-a.csv"), "pos001,key-001\npos002,key-002\n");
+        Files.writeString(directory.resolve("store-b.ndjson"), "{\"clientId\": \"pos101\", \"productKey\": \"key-101\"}\n");
+        repository = new InMemoryClientKeyRepository();
+        watcher = new ClientKeyDirectoryWatcher(repository, directory, Duration.ofMillis(50));
+        watcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        watcher.stop();
+    }
+
+    @Test
+    public void testStartLoadsEveryFileAndDropsDemoKeys() {
+        assertEquals(3, repository.size());
+        assertTrue(repository.isValidClient("pos001", "key-001").join());
+        assertTrue(repository.isValidClient("pos101", "key-101").join());
+        assertFalse(repository.isValidClient("markepos01", "productKey1").join());
+        assertEquals(1, watcher.reloadCount());
+    }
+
+    @Test
+    public void testChangedFileIsDiffedIntoRepository() throws IOException {
+        // Act - rotate one key, drop one client, add one
+        replace("store-a.csv", "pos001,key-001-rotated\npos003,key-003\n");
+
+        // Assert
+        await(() -> repository.isValidClient("pos003", "key-003").join());
+        assertTrue(repository.isValidClient("pos001", "key-001-rotated").join());
+        assertFalse(repository.isValidClient("pos001", "key-001").join());
+        assertFalse(repository.isValidClient("pos002", "key-002").join());
+        assertTrue(repository.isValidClient("pos101", "key-101").join());
+    }
+
+    @Test
+    public void testDeletedFileRemovesItsClients() throws IOException {
+        // Act
+        Files.delete(directory.resolve("store-b.ndjson"));
+
+        // Assert
+        await(() -> !repository.isValidClient("pos101", "key-101").join());
+        assertTrue(repository.isValidClient("pos001", "key-001").join());
+    }
+
+    @Test
+    public void testClientMovedToAnotherFileIsKept() throws IOException {
+        // Act
+        replace("store-b.ndjson", "{\"clientId\": \"pos101\", \"productKey\": \"key-101\"}\n"
+            + "{\"clientId\": \"pos002\", \"productKey\": \"key-002\"}\n");
+        await(() -> watcher.reloadCount() >= 2);
+        replace("store-a.csv", "pos001,key-001\n");
+        await(() -> watcher.reloadCount() >= 3);
+
+        // Assert
+        assertTrue(repository.isValidClient("pos002", "key-002").join());
+    }
+
+    @Test
+    public void testClientInTwoFilesFallsBackWhenLaterFileDropsIt() throws IOException {
+        // Arrange - store-c comes after store-a in file name order, so its key wins
+        replace("store-c.csv", "pos002,key-002-override\n");
+        await(() -> repository.isValidClient("pos002", "key-002-override").join());
+        assertFalse(repository.isValidClient("pos002", "key-002").join());
+
+        // Act
+        replace("store-c.csv", "pos003,key-003\n");
+
+        // Assert - the key from store-a is back instead of the revoked one
+        await(() -> repository.isValidClient("pos003", "key-003").join());
+        assertTrue(repository.isValidClient("pos002", "key-002").join());
+        assertFalse(repository.isValidClient("pos002", "key-002-override").join());
+    }
+
+    @Test
+    public void testEarlierFileDoesNotOverrideLaterOne() throws IOException {
+        // Arrange
+        replace("store-c.csv", "pos002,key-002-override\n");
+        await(() -> repository.isValidClient("pos002", "key-002-override").join());
+
+        // Act
+        replace("store-a.csv", "pos001,key-001\npos002,key-002-rotated\n");
+        await(() -> watcher.reloadCount() >= 3);
+
+        // Assert
+        assertTrue(repository.isValidClient("pos002", "key-002-override").join());
+        assertFalse(repository.isValidClient("pos002", "key-002-rotated").join());
+    }
+
+    @Test
+    public void testManuallyAddedKeysSurviveReloads() throws IOException {
+        // Arrange
+        repository.addClientKey("support-terminal", "support-key");
+
+        // Act
+        replace("store-a.csv", "pos001,key-001\n");
+        await(() -> !repository.isValidClient("pos002", "key-002").join());
+
+        // Assert
+        assertTrue(repository.isValidClient("support-terminal", "support-key").join());
+    }
+
+    @Test
+    public void testMalformedFileKeepsPreviousContents() throws IOException {
+        // Act
+        replace("store-a.csv", "pos001,key-001\nbroken-line\n");
+
+        // Assert
+        await(() -> watcher.reloadFailureCount() > 0);
+        assertTrue(repository.isValidClient("pos002", "key-002").join());
+    }
+
+    // Written to a temporary name and renamed, as the watcher expects
+    private void replace(String fileName, String contents) throws IOException {
+        Path temporary = directory.resolve(fileName + ".tmp");
+        Files.writeString(temporary, contents);
+        Files.move(temporary, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("Condition not met within 10 seconds");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+}
@@ -4,6 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 
 import com.markesiano.auth_service.infraestructure.data.InMemoryClientKeyRepository;
@@ -311,5 +316,162 @@ public class InMemoryClientKeyRepositoryTest {
         }
     }
 
+    @Test
+    public void testIsValidClientCompletesOnCallingThread() {
+        // Act
+        CompletableFuture<Boolean> valid = repository.isValidClient("markepos01", "productKey1");
+        CompletableFuture<Boolean> unknown = repository.isValidClient("unknownClient", "productKey1");
+
+        // Assert
+        assertTrue(valid.isDone(), "Expected the lookup to complete without a thread handoff");
+        assertTrue(valid.join());
+        assertTrue(unknown.isDone());
+        assertFalse(unknown.join());
+    }
+
+    @Test
+    public void testIsValidClientRejectsKeyWithSharedPrefix() {
+        // Arrange
+        repository.addClientKey("markepos03", "productKey");
+
+        // Act & Assert
+        assertFalse(repository.isValidClient("markepos03", "productKey3").join());
+        assertFalse(repository.isValidClient("markepos03", "product").join());
+        assertTrue(repository.isValidClient("markepos03", "productKey").join());
+    }
+
+    @Test
+    public void testUnknownClientIsRejectedByFilter() {
+        // Act
+        boolean isValid = repository.isValidClient("credentialStuffing", "productKey1").join();
+
+        // Assert
+        assertFalse(isValid);
+        assertEquals(1, repository.filterRejectionCount());
+    }
+
+    @Test
+    public void testFilterGrowsWithBulkAdds() {
+        // Arrange - well past the initial sizing of the filter
+        for (int i = 0; i < 20_000; i++) {
+            repository.addClientKey("pos" + i, "key" + i);
+        }
+
+        // Act & Assert - no false negatives after the rebuilds
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(repository.isValidClient("pos" + i, "key" + i).join());
+        }
+        assertTrue(repository.isValidClient("markepos01", "productKey1").join());
+    }
+
+    @Test
+    public void testRebuildFilterForgetsRemovedClients() {
+        // Arrange
+        repository.removeClientKey("markepos01");
+
+        // Act
+        repository.rebuildFilter();
+        boolean isValid = repository.isValidClient("markepos01", "productKey1").join();
+
+        // Assert
+        assertFalse(isValid);
+        assertEquals(1, repository.filterRejectionCount());
+        assertTrue(repository.isValidClient("markepos02", "productKey2").join());
+    }
+
+    @Test
+    public void testFilterCanBeDisabled() {
+        InMemoryClientKeyRepository unfiltered = new InMemoryClientKeyRepository(false, 0.01);
+
+        assertFalse(unfiltered.isValidClient("unknownClient", "productKey1").join());
+        assertTrue(unfiltered.isValidClient("markepos01", "productKey1").join());
+        assertEquals(0, unfiltered.filterRejectionCount());
+    }
+
+    @Test
+    public void testImportCsvReplacesCredentialSet(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("keys.csv");
+        Files.writeString(file, """
+            clientId,productKey
+            # fleet of POS terminals
+            pos001,key-001
+
+            pos002, key,with,commas
+            """);
+
+        // Act
+        int imported = repository.importKeys(file);
+
+        // Assert
+        assertEquals(2, imported);
+        assertEquals(2, repository.size());
+        assertTrue(repository.isValidClient("pos001", "key-001").join());
+        assertTrue(repository.isValidClient("pos002", "key,with,commas").join());
+        assertFalse(repository.isValidClient("markepos01", "productKey1").join());
+    }
+
+    @Test
+    public void testImportNdjson(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("keys.ndjson");
+        Files.writeString(file, """
+            {"clientId": "pos001", "productKey": "key-001"}
+            {"clientId": "pos002", "productKey": "key-002", "store": {"id": 7}}
+            """);
+
+        // Act
+        int imported = repository.importKeys(file);
+
+        // Assert
+        assertEquals(2, imported);
+        assertTrue(repository.isValidClient("pos001", "key-001").join());
+        assertTrue(repository.isValidClient("pos002", "key-002").join());
+    }
+
+    @Test
+    public void testLargeImportKeepsEveryClient(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("keys.csv");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            csv.append("pos").append(i).append(",key").append(i).append('\n');
+        }
+        Files.writeString(file, csv);
+
+        // Act
+        repository.importKeys(file);
+
+        // Assert
+        assertEquals(50_000, repository.size());
+        for (int i = 0; i < 50_000; i += 97) {
+            assertTrue(repository.isValidClient("pos" + i, "key" + i).join());
+        }
+    }
+
+    @Test
+    public void testMalformedImportKeepsPreviousCredentials(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("keys.csv");
+        Files.writeString(file, "pos001,key-001\npos002\n");
 
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> repository.importKeys(file));
+
+        // Assert
+        assertTrue(exception.getMessage().endsWith(":2"));
+        assertTrue(repository.isValidClient("markepos01", "productKey1").join());
+        assertFalse(repository.isValidClient("pos001", "key-001").join());
+    }
+
+    @Test
+    public void testImportOnStartupReplacesDemoKeys(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("keys.csv");
+        Files.writeString(file, "pos001,key-001\n");
+
+        InMemoryClientKeyRepository imported = new InMemoryClientKeyRepository(true, 0.01, file.toString());
+
+        assertTrue(imported.isValidClient("pos001", "key-001").join());
+        assertFalse(imported.isValidClient("markepos01", "productKey1").join());
+    }
 }
@@ -2,6 +2,12 @@ package com.auth.data;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -9,6 +15,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.markesiano.auth_service.infraestructure.data.InMemoryJwtRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
 
 public class InMemoryJwtRepositoryTest {
     private InMemoryJwtRepository repository;
@@ -292,4 +299,272 @@ public class InMemoryJwtRepositoryTest {
         assertTrue(repository.getCacheSize() > 0);
     }
 
+    @Test
+    public void testEntryLimitEvictsOldestEntries() {
+        // Arrange
+        InMemoryJwtRepository bounded = new InMemoryJwtRepository(Runnable::run, 5, Long.MAX_VALUE);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            bounded.saveJwt("client" + i, "token" + i).join();
+        }
+
+        // Assert
+        assertEquals(5, bounded.getCacheSize());
+        assertEquals(15, bounded.evictionCount());
+        assertEquals(5, bounded.scheduledExpiryCount());
+        assertNull(bounded.getJwtCached("client0").join());
+        assertEquals("token19", bounded.getJwtCached("client19").join());
+    }
+
+    @Test
+    public void testFrequentClientSurvivesBurstOfNewClients() {
+        // Arrange
+        InMemoryJwtRepository bounded = new InMemoryJwtRepository(Runnable::run, 10, Long.MAX_VALUE);
+        bounded.saveJwt("posTerminal", "pos.token").join();
+        bounded.getJwtCached("posTerminal").join(); // promoted to the protected segment
+
+        // Act - enumeration style burst of one-off client ids
+        for (int i = 0; i < 1000; i++) {
+            bounded.saveJwt("random" + i, "token" + i).join();
+        }
+
+        // Assert
+        assertEquals("pos.token", bounded.getJwtCached("posTerminal").join());
+        assertEquals(10, bounded.getCacheSize());
+    }
+
+    @Test
+    public void testByteLimitBoundsRetainedMemory() {
+        // Arrange
+        long maxBytes = 4096;
+        InMemoryJwtRepository bounded = new InMemoryJwtRepository(Runnable::run, 1000, maxBytes);
+        String token = "x".repeat(200);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            bounded.saveJwt("client" + i, token).join();
+        }
+
+        // Assert
+        assertTrue(bounded.weightedBytes() <= maxBytes);
+        assertTrue(bounded.getCacheSize() < 100);
+        assertEquals(100 - bounded.getCacheSize(), bounded.evictionCount());
+    }
+
+    @Test
+    public void testOverwriteDoesNotGrowWeight() {
+        repository.saveJwt("client", "token").join();
+        long weight = repository.weightedBytes();
+
+        repository.saveJwt("client", "token").join();
+
+        assertEquals(weight, repository.weightedBytes());
+        repository.clear();
+        assertEquals(0, repository.weightedBytes());
+    }
+
+    @Test
+    public void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new InMemoryJwtRepository(Runnable::run, 0, 1024));
+        assertThrows(IllegalArgumentException.class,
+            () -> new InMemoryJwtRepository(Runnable::run, 10, 0));
+    }
+
+    @Test
+    public void testSavedTokensAreScheduledForExpiry() {
+        // Arrange
+        repository.saveJwt("client1", "token1").join();
+        repository.saveJwt("client2", "token2").join();
+
+        // Act - nothing is due yet, an hour has not passed
+        int fired = repository.expireDueTokens();
+
+        // Assert
+        assertEquals(0, fired);
+        assertEquals(2, repository.scheduledExpiryCount());
+        assertEquals(2, repository.getCacheSize());
+
+        repository.clear();
+        assertEquals(0, repository.scheduledExpiryCount());
+    }
+
+    @Test
+    public void testOverwriteCancelsPreviousExpiryTimer() {
+        // Arrange
+        InMemoryJwtRepository bounded = new InMemoryJwtRepository(Runnable::run, 100, Long.MAX_VALUE);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            bounded.saveJwt("client", "token" + i).join();
+        }
+
+        // Assert
+        assertEquals(1, bounded.getCacheSize());
+        assertEquals(1, bounded.scheduledExpiryCount());
+    }
+
+    @Test
+    public void testEvictionCancelsExpiryTimers() {
+        // Arrange
+        InMemoryJwtRepository bounded = new InMemoryJwtRepository(Runnable::run, 100, Long.MAX_VALUE);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            bounded.saveJwt("client" + i, "token" + i).join();
+        }
+
+        // Assert - timers of evicted entries do not pile up on the wheel
+        assertEquals(100, bounded.getCacheSize());
+        assertEquals(9_900, bounded.evictionCount());
+        assertEquals(100, bounded.scheduledExpiryCount());
+    }
+
+    @Test
+    public void testTokenExpiresAtItsExpClaim() {
+        // Arrange - a token that expires ten minutes from now
+        ManualTimeSource time = new ManualTimeSource();
+        InMemoryJwtRepository timed = new InMemoryJwtRepository(Runnable::run, 100, Long.MAX_VALUE, time);
+        long exp = time.currentTimeMillis() / 1000 + 600;
+        String token = tokenWithExp(exp);
+        timed.saveJwt("client", token).join();
+
+        // Act & Assert
+        time.advanceSeconds(599);
+        assertEquals(token, timed.getJwtCached("client").join());
+        time.advanceSeconds(1);
+        assertNull(timed.getJwtCached("client").join());
+        assertEquals(0, timed.getCacheSize());
+    }
+
+    @Test
+    public void testTokenWithoutExpUsesDefaultLifetime() {
+        ManualTimeSource time = new ManualTimeSource();
+        InMemoryJwtRepository timed = new InMemoryJwtRepository(Runnable::run, 100, Long.MAX_VALUE, time);
+        timed.saveJwt("client", "opaque-token").join();
+
+        time.advanceSeconds(3599);
+        assertEquals("opaque-token", timed.getJwtCached("client").join());
+        time.advanceSeconds(1);
+        assertNull(timed.getJwtCached("client").join());
+    }
+
+    @Test
+    public void testExpiryWheelRemovesTokensWithoutLookups() {
+        // Arrange
+        ManualTimeSource time = new ManualTimeSource();
+        InMemoryJwtRepository timed = new InMemoryJwtRepository(Runnable::run, 100, Long.MAX_VALUE, time);
+        timed.saveJwt("shortLived", tokenWithExp(time.currentTimeMillis() / 1000 + 60)).join();
+        timed.saveJwt("longLived", "opaque-token").join();
+
+        // Act
+        time.advanceSeconds(61);
+        int fired = timed.expireDueTokens();
+
+        // Assert
+        assertEquals(1, fired);
+        assertEquals(1, timed.getCacheSize());
+        assertEquals(1, timed.expirationCount());
+        assertEquals("opaque-token", timed.getJwtCached("longLived").join());
+    }
+
+    @Test
+    public void testSaveAllAndGetAllRunAsOneTaskEach() {
+        // Arrange
+        AtomicInteger tasks = new AtomicInteger();
+        InMemoryJwtRepository counted = new InMemoryJwtRepository(task -> {
+            tasks.incrementAndGet();
+            task.run();
+        });
+        Map<String, String> tokens = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.put("client" + i, "token" + i);
+        }
+
+        // Act
+        counted.saveAll(tokens).join();
+        Map<String, String> found = counted.getAll(List.of("client0", "client49", "unknown", "client0")).join();
+
+        // Assert
+        assertEquals(2, tasks.get());
+        assertEquals(Map.of("client0", "token0", "client49", "token49"), found);
+        assertEquals(50, counted.getCacheSize());
+        assertEquals(50, counted.scheduledExpiryCount());
+    }
+
+    @Test
+    public void testSaveAllRespectsEntryLimit() {
+        // Arrange
+        InMemoryJwtRepository bounded = new InMemoryJwtRepository(Runnable::run, 5, Long.MAX_VALUE);
+        Map<String, String> tokens = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            tokens.put("client" + i, "token" + i);
+        }
+
+        // Act
+        bounded.saveAll(tokens).join();
+
+        // Assert
+        assertEquals(5, bounded.getCacheSize());
+        assertEquals(15, bounded.evictionCount());
+        assertEquals(5, bounded.scheduledExpiryCount());
+    }
+
+    @Test
+    public void testGetAllLeavesOutExpiredTokens() {
+        // Arrange
+        ManualTimeSource time = new ManualTimeSource();
+        InMemoryJwtRepository timed = new InMemoryJwtRepository(Runnable::run, 100, Long.MAX_VALUE, time);
+        String shortLived = tokenWithExp(time.currentTimeMillis() / 1000 + 60);
+        timed.saveAll(Map.of("shortLived", shortLived, "longLived", "opaque-token")).join();
+
+        // Act
+        time.advanceSeconds(60);
+        Map<String, String> found = timed.getAll(List.of("shortLived", "longLived")).join();
+
+        // Assert
+        assertEquals(Map.of("longLived", "opaque-token"), found);
+        assertEquals(1, timed.getCacheSize());
+    }
+
+    @Test
+    public void testBatchesWithInvalidEntries() {
+        Map<String, String> withEmptyToken = new HashMap<>();
+        withEmptyToken.put("client", "");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.saveAll(withEmptyToken));
+        assertEquals("Token cannot be null or empty", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> repository.getAll(List.of("client", "")));
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+        assertEquals(0, repository.getCacheSize());
+    }
+
+    private static String tokenWithExp(long expSeconds) {
+        String payload = "{\"sub\":\"client\",\"iat\":1,\"exp\":" + expSeconds + "}";
+        return "eyJhbGciOiJIUzI1NiJ9."
+            + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + ".signature";
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
 }
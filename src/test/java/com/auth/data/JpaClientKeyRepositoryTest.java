@@ -0,0 +1,270 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.markesiano.auth_service.infraestructure.data.ClientKeyEntity;
+import com.markesiano.auth_service.infraestructure.data.ClientKeyJpaRepository;
+import com.markesiano.auth_service.infraestructure.data.JpaClientKeyRepository;
+import com.markesiano.auth_service.infraestructure.security.ProductKeyDigest;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+public class JpaClientKeyRepositoryTest {
+
+    @Mock
+    private ClientKeyJpaRepository jpaRepository;
+
+    private ManualTimeSource time;
+    private JpaClientKeyRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        time = new ManualTimeSource();
+        repository = new JpaClientKeyRepository(jpaRepository, Runnable::run, 100,
+            Duration.ofMinutes(5), Duration.ofSeconds(30), 0.0, null, time);
+        when(jpaRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(jpaRepository.findById("markepos01"))
+            .thenReturn(Optional.of(new ClientKeyEntity("markepos01", ProductKeyDigest.of("productKey1"))));
+    }
+
+    @Test
+    public void testIsValidClientReadsThroughOnce() {
+        // Act
+        boolean first = repository.isValidClient("markepos01", "productKey1").join();
+        boolean second = repository.isValidClient("markepos01", "productKey1").join();
+        boolean wrongKey = repository.isValidClient("markepos01", "wrongKey").join();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(wrongKey);
+        verify(jpaRepository, times(1)).findById("markepos01");
+        assertEquals(1, repository.missCount());
+        assertEquals(2, repository.hitCount());
+        assertEquals(1, repository.queryCount());
+    }
+
+    @Test
+    public void testCachedLookupCompletesOnCallingThread() {
+        repository.isValidClient("markepos01", "productKey1").join();
+
+        assertTrue(repository.isValidClient("markepos01", "productKey1").isDone());
+    }
+
+    @Test
+    public void testUnknownClientIsNegativelyCached() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertFalse(repository.isValidClient("unknownClient", "productKey1").join());
+        }
+
+        // Assert
+        verify(jpaRepository, times(1)).findById("unknownClient");
+        assertEquals(4, repository.negativeHitCount());
+    }
+
+    @Test
+    public void testNegativeEntryExpiresBeforePositiveOne() {
+        // Arrange
+        repository.isValidClient("markepos01", "productKey1").join();
+        repository.isValidClient("unknownClient", "productKey1").join();
+
+        // Act
+        time.advanceSeconds(30);
+        repository.isValidClient("markepos01", "productKey1").join();
+        repository.isValidClient("unknownClient", "productKey1").join();
+
+        // Assert
+        verify(jpaRepository, times(1)).findById("markepos01");
+        verify(jpaRepository, times(2)).findById("unknownClient");
+    }
+
+    @Test
+    public void testPositiveEntryExpires() {
+        repository.isValidClient("markepos01", "productKey1").join();
+
+        time.advanceSeconds(300);
+        repository.isValidClient("markepos01", "productKey1").join();
+
+        verify(jpaRepository, times(2)).findById("markepos01");
+    }
+
+    @Test
+    public void testAddClientKeyPersistsDigestAndReplacesNegativeEntry() {
+        // Arrange
+        assertFalse(repository.isValidClient("markepos03", "productKey3").join());
+
+        // Act
+        repository.addClientKey("markepos03", "productKey3");
+
+        // Assert
+        verify(jpaRepository).save(argThat(entity -> entity.getClientId().equals("markepos03")
+            && Arrays.equals(entity.getProductKeyDigest(), ProductKeyDigest.of("productKey3"))));
+        assertTrue(repository.isValidClient("markepos03", "productKey3").join());
+        verify(jpaRepository, times(1)).findById("markepos03");
+    }
+
+    @Test
+    public void testRemoveClientKeyRejectsCachedClient() {
+        // Arrange
+        assertTrue(repository.isValidClient("markepos01", "productKey1").join());
+
+        // Act
+        repository.removeClientKey("markepos01");
+
+        // Assert
+        verify(jpaRepository).deleteById("markepos01");
+        assertFalse(repository.isValidClient("markepos01", "productKey1").join());
+    }
+
+    @Test
+    public void testDatabaseFailureIsNotCached() {
+        // Arrange
+        when(jpaRepository.findById("markepos02")).thenThrow(new IllegalStateException("database down"));
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> repository.isValidClient("markepos02", "productKey2").join());
+        assertEquals(0, repository.getCacheSize());
+        assertEquals(1, repository.queryCount());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneQuery() {
+        // Arrange - queries run when the executor is drained, so every miss arrives while the first is pending
+        List<Runnable> pending = new ArrayList<>();
+        JpaClientKeyRepository queued = new JpaClientKeyRepository(jpaRepository, pending::add, 100,
+            Duration.ofMinutes(5), Duration.ofSeconds(30), 0.0, null, time);
+
+        // Act
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            checks.add(queued.isValidClient("markepos01", i % 2 == 0 ? "productKey1" : "wrongKey"));
+        }
+        pending.forEach(Runnable::run);
+
+        // Assert - each check compared its own product key against the shared result
+        assertEquals(1, pending.size());
+        assertEquals(List.of(true, false, true, false, true), checks.stream().map(CompletableFuture::join).toList());
+        verify(jpaRepository, times(1)).findById("markepos01");
+        assertEquals(5, queued.missCount());
+    }
+
+    @Test
+    public void testFailedQueryIsNotReusedByLaterMisses() {
+        // Arrange
+        when(jpaRepository.findById("markepos01"))
+            .thenThrow(new IllegalStateException("database down"))
+            .thenReturn(Optional.of(new ClientKeyEntity("markepos01", ProductKeyDigest.of("productKey1"))));
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> repository.isValidClient("markepos01", "productKey1").join());
+        assertTrue(repository.isValidClient("markepos01", "productKey1").join());
+        verify(jpaRepository, times(2)).findById("markepos01");
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        // Arrange
+        JpaClientKeyRepository small = new JpaClientKeyRepository(jpaRepository, Runnable::run, 10,
+            Duration.ofMinutes(5), Duration.ofSeconds(30), 0.0, null, time);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            small.isValidClient("client" + i, "productKey").join();
+        }
+
+        // Assert
+        assertEquals(10, small.getCacheSize());
+        assertEquals(40, small.evictionCount());
+    }
+
+    @Test
+    public void testIsValidClientWithNullClientId() {
+        assertThrows(IllegalArgumentException.class, () -> repository.isValidClient(null, "productKey1"));
+        assertThrows(IllegalArgumentException.class, () -> repository.isValidClient("markepos01", null));
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new JpaClientKeyRepository(jpaRepository, Runnable::run, 0,
+            Duration.ofMinutes(5), Duration.ofSeconds(30)));
+        assertThrows(IllegalArgumentException.class, () -> new JpaClientKeyRepository(jpaRepository, Runnable::run, 10,
+            Duration.ofMinutes(5), Duration.ZERO));
+    }
+
+    @Test
+    public void testFilterRejectsUnknownClientBeforeDatabase() {
+        // Arrange
+        when(jpaRepository.findAllClientIds()).thenReturn(List.of("markepos01"));
+        JpaClientKeyRepository filtered = new JpaClientKeyRepository(jpaRepository, Runnable::run, 100,
+            Duration.ofMinutes(5), Duration.ofSeconds(30), 0.01, Duration.ofMinutes(1), time);
+        filtered.init();
+
+        try {
+            // Act
+            boolean unknown = filtered.isValidClient("credentialStuffing", "productKey1").join();
+            boolean known = filtered.isValidClient("markepos01", "productKey1").join();
+
+            // Assert
+            assertFalse(unknown);
+            assertTrue(known);
+            assertEquals(1, filtered.filterRejectionCount());
+            verify(jpaRepository, never()).findById("credentialStuffing");
+        } finally {
+            filtered.destroy();
+        }
+    }
+
+    @Test
+    public void testClientAddedThroughRepositoryPassesFilter() {
+        // Arrange
+        when(jpaRepository.findAllClientIds()).thenReturn(List.of());
+        JpaClientKeyRepository filtered = new JpaClientKeyRepository(jpaRepository, Runnable::run, 100,
+            Duration.ofMinutes(5), Duration.ofSeconds(30), 0.01, Duration.ofMinutes(1), time);
+        filtered.init();
+
+        try {
+            // Act
+            filtered.addClientKey("markepos03", "productKey3");
+
+            // Assert
+            assertTrue(filtered.isValidClient("markepos03", "productKey3").join());
+        } finally {
+            filtered.destroy();
+        }
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.markesiano.auth_service.infraestructure.data.MappedFileJwtRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+public class MappedFileJwtRepositoryTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private ManualTimeSource time;
+    private MappedFileJwtRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        file = directory.resolve("jwt-cache.log");
+        time = new ManualTimeSource();
+        repository = open(CAPACITY);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        repository.destroy();
+    }
+
+    @Test
+    public void testSaveAndGetJwtSuccess() {
+        repository.saveJwt("testClient", "header.payload.signature").join();
+
+        assertEquals("header.payload.signature", repository.getJwtCached("testClient").join());
+        assertEquals(1, repository.getCacheSize());
+    }
+
+    @Test
+    public void testGetJwtCachedNotFound() {
+        assertNull(repository.getJwtCached("unknownClient").join());
+    }
+
+    @Test
+    public void testSaveJwtOverwrite() {
+        repository.saveJwt("testClient", "original.jwt.token").join();
+        repository.saveJwt("testClient", "new.jwt.token").join();
+
+        assertEquals("new.jwt.token", repository.getJwtCached("testClient").join());
+        assertEquals(1, repository.getCacheSize());
+        assertTrue(repository.liveBytes() < repository.usedBytes());
+    }
+
+    @Test
+    public void testGetJwtCachedWithNullClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.getJwtCached(null));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testSaveJwtWithEmptyToken() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.saveJwt("testClient", ""));
+
+        assertEquals("Token cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testTokensSurviveRestart() {
+        // Arrange
+        repository.saveJwt("client1", "token1").join();
+        repository.saveJwt("client2", "token2").join();
+        repository.saveJwt("client1", "token1-renewed").join();
+        repository.saveJwt("cliente-ñandú", "token3").join();
+
+        // Act
+        repository.destroy();
+        repository = open(CAPACITY);
+
+        // Assert
+        assertEquals(3, repository.getCacheSize());
+        assertEquals("token1-renewed", repository.getJwtCached("client1").join());
+        assertEquals("token2", repository.getJwtCached("client2").join());
+        assertEquals("token3", repository.getJwtCached("cliente-ñandú").join());
+    }
+
+    @Test
+    public void testExpiredTokensAreNotReloaded() {
+        // Arrange
+        repository.saveJwt("testClient", "opaque-token").join();
+        repository.destroy();
+
+        // Act
+        time.advanceSeconds(3600);
+        repository = open(CAPACITY);
+
+        // Assert
+        assertEquals(0, repository.getCacheSize());
+        assertNull(repository.getJwtCached("testClient").join());
+    }
+
+    @Test
+    public void testTokenExpires() {
+        repository.saveJwt("testClient", "opaque-token").join();
+
+        time.advanceSeconds(3599);
+        assertEquals("opaque-token", repository.getJwtCached("testClient").join());
+        time.advanceSeconds(1);
+        assertNull(repository.getJwtCached("testClient").join());
+    }
+
+    @Test
+    public void testReplayStopsAtCorruptRecord() throws IOException {
+        // Arrange - flip the last byte of the second token, as a write cut short by a crash would leave it
+        repository.saveJwt("client1", "token1").join();
+        long firstRecordEnd = repository.usedBytes();
+        repository.saveJwt("client2", "token2").join();
+        long secondRecordEnd = repository.usedBytes();
+        repository.destroy();
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(secondRecordEnd - 1);
+            raw.write('X');
+        }
+
+        // Act
+        repository = open(CAPACITY);
+
+        // Assert
+        assertEquals("token1", repository.getJwtCached("client1").join());
+        assertNull(repository.getJwtCached("client2").join());
+        assertEquals(firstRecordEnd, repository.usedBytes());
+    }
+
+    @Test
+    public void testCompactionDropsDeadRecords() {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            repository.saveJwt("client" + (i % 10), "token" + i).join();
+        }
+        long before = repository.usedBytes();
+
+        // Act
+        repository.compactIfWorthIt();
+
+        // Assert
+        assertEquals(1, repository.compactionCount());
+        assertTrue(repository.usedBytes() < before);
+        assertEquals(repository.liveBytes(), repository.usedBytes());
+        for (int i = 90; i < 100; i++) {
+            assertEquals("token" + i, repository.getJwtCached("client" + (i % 10)).join());
+        }
+    }
+
+    @Test
+    public void testCompactedFileSurvivesRestart() {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            repository.saveJwt("client" + (i % 10), "token" + i).join();
+        }
+        repository.compactIfWorthIt();
+        repository.saveJwt("client0", "after-compaction").join();
+
+        // Act
+        repository.destroy();
+        repository = open(CAPACITY);
+
+        // Assert
+        assertEquals(10, repository.getCacheSize());
+        assertEquals("after-compaction", repository.getJwtCached("client0").join());
+        assertEquals("token99", repository.getJwtCached("client9").join());
+    }
+
+    @Test
+    public void testMostlyLiveFileIsNotCompacted() {
+        repository.saveJwt("client1", "token1").join();
+        repository.saveJwt("client2", "token2").join();
+
+        repository.compactIfWorthIt();
+
+        assertEquals(0, repository.compactionCount());
+    }
+
+    @Test
+    public void testFullFileCompactsBeforeAppending() {
+        // Arrange - overwriting a single client fills the file with dead records
+        MappedFileJwtRepository small = open(directory.resolve("small.log"), 1024);
+        try {
+            // Act
+            for (int i = 0; i < 200; i++) {
+                small.saveJwt("testClient", "token" + i).join();
+            }
+
+            // Assert
+            assertTrue(small.compactionCount() > 0);
+            assertEquals(0, small.rejectedCount());
+            assertEquals("token199", small.getJwtCached("testClient").join());
+        } finally {
+            small.destroy();
+        }
+    }
+
+    @Test
+    public void testFileFullOfLiveTokensRejectsNewOnes() {
+        // Arrange
+        MappedFileJwtRepository small = open(directory.resolve("small.log"), 1024);
+        try {
+            // Act
+            for (int i = 0; i < 100; i++) {
+                small.saveJwt("client" + i, "token" + i).join();
+            }
+
+            // Assert - earlier tokens stay, the ones that did not fit are served by the signer
+            assertTrue(small.rejectedCount() > 0);
+            assertEquals("token0", small.getJwtCached("client0").join());
+            assertNull(small.getJwtCached("client99").join());
+            assertTrue(small.usedBytes() <= 1024);
+        } finally {
+            small.destroy();
+        }
+    }
+
+    @Test
+    public void testClear() {
+        repository.saveJwt("client1", "token1").join();
+        repository.saveJwt("client2", "token2").join();
+
+        repository.clear();
+        repository.destroy();
+        repository = open(CAPACITY);
+
+        assertEquals(0, repository.getCacheSize());
+        assertNull(repository.getJwtCached("client1").join());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> open(directory.resolve("tiny.log"), 8));
+    }
+
+    private MappedFileJwtRepository open(int capacity) {
+        return open(file, capacity);
+    }
+
+    private MappedFileJwtRepository open(Path path, int capacity) {
+        return new MappedFileJwtRepository(path, capacity, Duration.ofMinutes(5), Runnable::run, time);
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.infraestructure.config.RedisNativeConfig;
+import com.markesiano.auth_service.infraestructure.data.NativeRedisJwtRepository;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.api.StatefulRedisConnection;
+
+public class NativeRedisJwtRepositoryTest {
+
+    private FakeRedis redis;
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> connection;
+    private NativeRedisJwtRepository repository;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        redis = new FakeRedis();
+        RedisNativeConfig config = new RedisNativeConfig();
+        ReflectionTestUtils.setField(config, "uri", "redis://localhost:" + redis.port());
+        ReflectionTestUtils.setField(config, "commandTimeout", Duration.ofMillis(500));
+        client = config.redisClient();
+        connection = config.redisConnection(client);
+        repository = new NativeRedisJwtRepository(connection);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        connection.close();
+        client.shutdown();
+        redis.close();
+    }
+
+    @Test
+    public void testGetJwtCachedWithNullClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.getJwtCached(null));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testSaveJwtWithEmptyToken() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.saveJwt("testClient", ""));
+
+        assertEquals("Token cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testGetJwtCachedMissingKeyIsNull() {
+        assertNull(repository.getJwtCached("unknownClient").join());
+    }
+
+    @Test
+    public void testSaveThenGetUsesPrefixedKeyWithExpiry() {
+        // Act
+        repository.saveJwt("testClient", "header.payload.signature").join();
+        String token = repository.getJwtCached("testClient").join();
+
+        // Assert
+        assertEquals("header.payload.signature", token);
+        assertEquals("header.payload.signature", redis.values.get("jwt:testClient"));
+        assertEquals(3600L, redis.expirySeconds.get("jwt:testClient"));
+    }
+
+    @Test
+    public void testCustomPrefixAndTtl() {
+        NativeRedisJwtRepository custom = new NativeRedisJwtRepository(connection, "auth:", Duration.ofMinutes(5));
+
+        custom.saveJwt("testClient", "token").join();
+
+        assertEquals("token", redis.values.get("auth:testClient"));
+        assertEquals(300L, redis.expirySeconds.get("auth:testClient"));
+    }
+
+    @Test
+    public void testInvalidTtl() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new NativeRedisJwtRepository(connection, "jwt:", Duration.ofMillis(10)));
+    }
+
+    @Test
+    public void testConcurrentLookupsArePipelinedOnOneConnection() {
+        // Arrange
+        redis.values.put("jwt:client", "token");
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        // Act - issue every command before waiting for any reply
+        for (int i = 0; i < 200; i++) {
+            futures.add(repository.getJwtCached("client"));
+        }
+
+        // Assert
+        futures.forEach(future -> assertEquals("token", future.join()));
+        assertEquals(1, redis.connections.get());
+    }
+
+    @Test
+    public void testBatchesUseOneMgetAndPipelinedSets() {
+        // Act
+        repository.saveAll(Map.of("client1", "token1", "client2", "token2")).join();
+        Map<String, String> tokens = repository.getAll(List.of("client1", "client2", "unknownClient")).join();
+
+        // Assert
+        assertEquals(Map.of("client1", "token1", "client2", "token2"), tokens);
+        assertEquals(3600L, redis.expirySeconds.get("jwt:client2"));
+        assertEquals(1, redis.commandCount("MGET"));
+        assertEquals(2, redis.commandCount("SET"));
+        assertEquals(0, redis.commandCount("GET"));
+    }
+
+    @Test
+    public void testGetAllWithEmptyClientId() {
+        assertThrows(IllegalArgumentException.class, () -> repository.getAll(List.of("client1", "")));
+        assertEquals(Map.of(), repository.getAll(List.of()).join());
+    }
+
+    @Test
+    public void testCommandTimesOutWhenRedisDoesNotReply() {
+        redis.unresponsiveKeys.add("jwt:slowClient");
+
+        CompletableFuture<String> future = repository.getJwtCached("slowClient");
+
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(RedisCommandTimeoutException.class, exception.getCause());
+    }
+
+    /**
+     * Minimal RESP2 server: answers GET, MGET, SET (with EX), PING and CLIENT, and rejects
+     * HELLO so the client falls back to RESP2. Each connection is served in order, as
+     * Redis does, so pipelined commands get their replies in the order they were sent.
+     */
+    private static final class FakeRedis implements AutoCloseable {
+        final Map<String, String> values = new ConcurrentHashMap<>();
+        final Map<String, Long> expirySeconds = new ConcurrentHashMap<>();
+        final Set<String> unresponsiveKeys = ConcurrentHashMap.newKeySet();
+        final AtomicInteger connections = new AtomicInteger();
+        final Map<String, AtomicInteger> commands = new ConcurrentHashMap<>();
+        private final ServerSocket server;
+
+        FakeRedis() throws IOException {
+            server = new ServerSocket(0);
+            Thread acceptor = new Thread(this::acceptLoop, "fake-redis");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        int commandCount(String name) {
+            AtomicInteger count = commands.get(name);
+            return count == null ? 0 : count.get();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> serve(socket), "fake-redis-conn");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                List<String> command;
+                while ((command = readCommand(in)) != null) {
+                    String reply = execute(command);
+                    if (reply != null) {
+                        out.write(reply.getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // connection closed by the client
+            }
+        }
+
+        private String execute(List<String> command) {
+            String name = command.get(0).toUpperCase();
+            commands.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            switch (name) {
+                case "GET" -> {
+                    if (unresponsiveKeys.contains(command.get(1))) {
+                        return null;
+                    }
+                    String value = values.get(command.get(1));
+                    return value == null ? "$-1\r\n" : bulk(value);
+                }
+                case "MGET" -> {
+                    StringBuilder reply = new StringBuilder("*").append(command.size() - 1).append("\r\n");
+                    for (String key : command.subList(1, command.size())) {
+                        String value = values.get(key);
+                        reply.append(value == null ? "$-1\r\n" : bulk(value));
+                    }
+                    return reply.toString();
+                }
+                case "SET" -> {
+                    values.put(command.get(1), command.get(2));
+                    if (command.size() >= 5 && "EX".equalsIgnoreCase(command.get(3))) {
+                        expirySeconds.put(command.get(1), Long.parseLong(command.get(4)));
+                    }
+                    return "+OK\r\n";
+                }
+                case "PING" -> {
+                    return "+PONG\r\n";
+                }
+                case "CLIENT" -> {
+                    return "+OK\r\n";
+                }
+                default -> {
+                    return "-ERR unknown command '" + command.get(0) + "'\r\n";
+                }
+            }
+        }
+
+        private static String bulk(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            return "$" + bytes.length + "\r\n" + value + "\r\n";
+        }
+
+        private static List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                byte[] data = in.readNBytes(length);
+                in.readNBytes(2);
+                parts.add(new String(data, StandardCharsets.UTF_8));
+            }
+            return parts;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\r') {
+                    in.read();
+                    return line.toString();
+                }
+                line.append((char) c);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
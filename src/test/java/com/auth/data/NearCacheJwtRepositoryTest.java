@@ -0,0 +1,180 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.data.NearCacheJwtRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class NearCacheJwtRepositoryTest {
+
+    @Mock
+    private RepositoryJwt<String> remote;
+
+    private NearCacheJwtRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new NearCacheJwtRepository(remote, 100, Duration.ofMinutes(5));
+    }
+
+    private static String tokenExpiringIn(Duration lifetime) {
+        long exp = (System.currentTimeMillis() + lifetime.toMillis()) / 1000;
+        String payload = "{\"sub\":\"client\",\"iat\":1,\"exp\":" + exp + "}";
+        return "eyJhbGciOiJIUzI1NiJ9."
+            + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + ".signature";
+    }
+
+    @Test
+    public void testGetJwtCachedWithNullClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.getJwtCached(null));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+        verifyNoInteractions(remote);
+    }
+
+    @Test
+    public void testRemoteHitIsServedLocallyAfterwards() {
+        // Arrange
+        String token = tokenExpiringIn(Duration.ofHours(1));
+        when(remote.getJwtCached("client")).thenReturn(CompletableFuture.completedFuture(token));
+
+        // Act
+        String first = repository.getJwtCached("client").join();
+        String second = repository.getJwtCached("client").join();
+
+        // Assert
+        assertEquals(token, first);
+        assertEquals(token, second);
+        verify(remote, times(1)).getJwtCached("client");
+        assertEquals(1, repository.localHitCount());
+        assertEquals(1, repository.remoteHitCount());
+        assertEquals(0.5, repository.localHitRatio());
+    }
+
+    @Test
+    public void testMissIsNotCachedLocally() {
+        when(remote.getJwtCached("client")).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertNull(repository.getJwtCached("client").join());
+        assertNull(repository.getJwtCached("client").join());
+
+        verify(remote, times(2)).getJwtCached("client");
+        assertEquals(2, repository.missCount());
+        assertEquals(0, repository.getLocalSize());
+    }
+
+    @Test
+    public void testSaveWritesThroughAndFillsLocalTier() {
+        // Arrange
+        String token = tokenExpiringIn(Duration.ofHours(1));
+        when(remote.saveJwt("client", token)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        repository.saveJwt("client", token).join();
+        String cached = repository.getJwtCached("client").join();
+
+        // Assert
+        assertEquals(token, cached);
+        verify(remote).saveJwt("client", token);
+        verify(remote, never()).getJwtCached(anyString());
+    }
+
+    @Test
+    public void testFailedRemoteSaveIsNotCachedLocally() {
+        String token = tokenExpiringIn(Duration.ofHours(1));
+        when(remote.saveJwt("client", token))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("redis down")));
+
+        assertThrows(CompletionException.class, () -> repository.saveJwt("client", token).join());
+
+        assertEquals(0, repository.getLocalSize());
+    }
+
+    @Test
+    public void testExpiredTokenIsNotKeptLocally() {
+        String token = tokenExpiringIn(Duration.ofMinutes(-1));
+        when(remote.getJwtCached("client")).thenReturn(CompletableFuture.completedFuture(token));
+
+        repository.getJwtCached("client").join();
+        repository.getJwtCached("client").join();
+
+        verify(remote, times(2)).getJwtCached("client");
+        assertEquals(0, repository.getLocalSize());
+    }
+
+    @Test
+    public void testLocalTierIsBounded() {
+        // Arrange
+        NearCacheJwtRepository small = new NearCacheJwtRepository(remote, 3, Duration.ofMinutes(5));
+        when(remote.saveJwt(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            small.saveJwt("client" + i, tokenExpiringIn(Duration.ofHours(1))).join();
+        }
+
+        // Assert
+        assertEquals(3, small.getLocalSize());
+        assertEquals(7, small.evictionCount());
+    }
+
+    @Test
+    public void testInvalidateForcesRemoteLookup() {
+        String token = tokenExpiringIn(Duration.ofHours(1));
+        when(remote.getJwtCached("client")).thenReturn(CompletableFuture.completedFuture(token));
+
+        repository.getJwtCached("client").join();
+        repository.invalidate("client");
+        repository.getJwtCached("client").join();
+
+        verify(remote, times(2)).getJwtCached("client");
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new NearCacheJwtRepository(remote, 0, Duration.ofMinutes(5)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new NearCacheJwtRepository(remote, 10, Duration.ZERO));
+    }
+
+    @Test
+    public void testGetAllSendsOnlyLocalMissesRemotely() {
+        // Arrange
+        String cached = tokenExpiringIn(Duration.ofHours(1));
+        String remoteToken = tokenExpiringIn(Duration.ofHours(1));
+        when(remote.saveAll(Map.of("local", cached))).thenReturn(CompletableFuture.completedFuture(null));
+        repository.saveAll(Map.of("local", cached)).join();
+        when(remote.getAll(anyCollection())).thenReturn(CompletableFuture.completedFuture(Map.of("remote", remoteToken)));
+
+        // Act
+        Map<String, String> tokens = repository.getAll(List.of("local", "remote", "missing")).join();
+
+        // Assert
+        assertEquals(Map.of("local", cached, "remote", remoteToken), tokens);
+        verify(remote).getAll(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("remote", "missing"))));
+        verify(remote, never()).getJwtCached(anyString());
+        assertEquals(1, repository.localHitCount());
+        assertEquals(1, repository.remoteHitCount());
+        assertEquals(1, repository.missCount());
+        assertEquals(2, repository.getLocalSize());
+    }
+}
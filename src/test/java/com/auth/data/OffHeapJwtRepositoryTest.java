@@ -0,0 +1,185 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.markesiano.auth_service.infraestructure.data.OffHeapJwtRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+public class OffHeapJwtRepositoryTest {
+
+    private ManualTimeSource time;
+    private OffHeapJwtRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        time = new ManualTimeSource();
+        repository = new OffHeapJwtRepository(Runnable::run, 1000, 256, 4, time);
+    }
+
+    @Test
+    public void testSaveAndGetJwtSuccess() {
+        repository.saveJwt("testClient", "header.payload.signature").join();
+
+        assertEquals("header.payload.signature", repository.getJwtCached("testClient").join());
+        assertEquals(1, repository.getCacheSize());
+    }
+
+    @Test
+    public void testGetJwtCachedNotFound() {
+        assertNull(repository.getJwtCached("unknownClient").join());
+    }
+
+    @Test
+    public void testSaveJwtOverwrite() {
+        repository.saveJwt("testClient", "original.jwt.token").join();
+        repository.saveJwt("testClient", "new.jwt.token").join();
+
+        assertEquals("new.jwt.token", repository.getJwtCached("testClient").join());
+        assertEquals(1, repository.getCacheSize());
+    }
+
+    @Test
+    public void testGetJwtCachedWithNullClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.getJwtCached(null));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testSaveJwtWithEmptyToken() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.saveJwt("testClient", ""));
+
+        assertEquals("Token cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testNonAsciiClientIds() {
+        repository.saveJwt("cliente-ñandú", "token1").join();
+        repository.saveJwt("cliente-nandu", "token2").join();
+
+        assertEquals("token1", repository.getJwtCached("cliente-ñandú").join());
+        assertEquals("token2", repository.getJwtCached("cliente-nandu").join());
+    }
+
+    @Test
+    public void testTokenExpires() {
+        repository.saveJwt("testClient", "opaque-token").join();
+
+        time.advanceSeconds(3599);
+        assertEquals("opaque-token", repository.getJwtCached("testClient").join());
+        time.advanceSeconds(1);
+        assertNull(repository.getJwtCached("testClient").join());
+        assertEquals(0, repository.getCacheSize());
+    }
+
+    @Test
+    public void testFullCacheEvictsAndKeepsReferencedEntries() {
+        // Arrange - one segment of four slots
+        OffHeapJwtRepository small = new OffHeapJwtRepository(Runnable::run, 4, 256, 1, time);
+        for (int i = 0; i < 4; i++) {
+            small.saveJwt("client" + i, "token" + i).join();
+        }
+        small.getJwtCached("client0").join();
+
+        // Act
+        small.saveJwt("client4", "token4").join();
+
+        // Assert
+        assertEquals(4, small.getCacheSize());
+        assertEquals(1, small.evictionCount());
+        assertEquals("token0", small.getJwtCached("client0").join());
+        assertNull(small.getJwtCached("client1").join());
+        assertEquals("token4", small.getJwtCached("client4").join());
+    }
+
+    @Test
+    public void testRemovalKeepsProbeChainsIntact() {
+        // Arrange - more clients than slots so evictions delete from the middle of probe chains
+        OffHeapJwtRepository small = new OffHeapJwtRepository(Runnable::run, 64, 128, 1, time);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            small.saveJwt("client" + i, "token" + i).join();
+        }
+
+        // Assert - the most recent clients are all reachable
+        assertEquals(64, small.getCacheSize());
+        for (int i = 1000 - 32; i < 1000; i++) {
+            assertEquals("token" + i, small.getJwtCached("client" + i).join());
+        }
+    }
+
+    @Test
+    public void testOversizedTokenIsNotCached() {
+        repository.saveJwt("testClient", "short-token").join();
+
+        repository.saveJwt("testClient", "x".repeat(300)).join();
+
+        assertNull(repository.getJwtCached("testClient").join());
+        assertEquals(1, repository.oversizedCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() {
+        OffHeapJwtRepository shared = new OffHeapJwtRepository(10_000);
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            saves.add(shared.saveJwt("client" + i, "token" + i));
+        }
+        CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals("token" + i, shared.getJwtCached("client" + i).join());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        repository.saveJwt("client1", "token1").join();
+        repository.saveJwt("client2", "token2").join();
+
+        repository.clear();
+
+        assertEquals(0, repository.getCacheSize());
+        assertNull(repository.getJwtCached("client1").join());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapJwtRepository(Runnable::run, 0, 256, 4, time));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapJwtRepository(Runnable::run, 100, 8, 4, time));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapJwtRepository(Runnable::run, 100, 256, 3, time));
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}
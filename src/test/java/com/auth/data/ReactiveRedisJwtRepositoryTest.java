@@ -0,0 +1,267 @@
+package com.auth.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.markesiano.auth_service.infraestructure.data.ReactiveRedisJwtRepository;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.publisher.Mono;
+
+public class ReactiveRedisJwtRepositoryTest {
+
+    private HttpServer server;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private volatile int saveStatus = 200;
+    // Status the stub answers on the batch endpoints instead of serving them, 0 to serve them
+    private volatile int batchStatus = 0;
+    private final AtomicInteger requests = new AtomicInteger();
+    private ReactiveRedisJwtRepository repository;
+
+    // Minimal stand-in for the cached-redis proxy
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/cached-redis/token", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(exchange.getRequestMethod())) {
+                String token = tokens.get(path.substring(path.lastIndexOf('/') + 1));
+                respond(exchange, token == null ? 404 : 200, token == null ? "{\"error\":\"not found\"}" : token);
+            } else {
+                try (InputStream body = exchange.getRequestBody()) {
+                    String json = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                    if (saveStatus == 200) {
+                        tokens.put(field(json, "clientId"), field(json, "token"));
+                    }
+                }
+                respond(exchange, saveStatus, "");
+            }
+        });
+        server.createContext("/api/v1/cached-redis/tokens", exchange -> {
+            requests.incrementAndGet();
+            String json;
+            try (InputStream body = exchange.getRequestBody()) {
+                json = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (batchStatus != 0) {
+                respond(exchange, batchStatus, "");
+            } else if (exchange.getRequestURI().getPath().endsWith("/lookup")) {
+                StringBuilder found = new StringBuilder("{");
+                for (String clientId : json.replaceAll("[\\[\\]\"]", "").split(",")) {
+                    String token = tokens.get(clientId);
+                    if (token != null) {
+                        found.append(found.length() > 1 ? "," : "").append('"').append(clientId)
+                            .append("\":\"").append(token).append('"');
+                    }
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                byte[] bytes = found.append('}').toString().getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            } else {
+                for (String request : json.split("\\},\\{")) {
+                    tokens.put(field(request, "clientId"), field(request, "token"));
+                }
+                respond(exchange, 200, "");
+            }
+        });
+        server.start();
+        repository = new ReactiveRedisJwtRepository(
+            WebClient.create("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetJwtCachedWithNullClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.getJwtCached(null));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testSaveJwtWithEmptyToken() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> repository.saveJwt("testClient", ""));
+
+        assertEquals("Token cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testGetJwtCachedNotFoundIsEmpty() {
+        String token = repository.getJwtCached("unknownClient").block();
+
+        assertNull(token);
+    }
+
+    @Test
+    public void testSaveAndGetJwt() {
+        repository.saveJwt("testClient", "jwt.token.here").block();
+
+        assertEquals("jwt.token.here", repository.getJwtCached("testClient").block());
+    }
+
+    @Test
+    public void testSaveJwtServerError() {
+        saveStatus = 500;
+
+        assertThrows(WebClientResponseException.class, () -> repository.saveJwt("testClient", "token").block());
+    }
+
+    @Test
+    public void testRequestIsSentOnlyOnSubscription() {
+        WebClient webClient = mock(WebClient.class);
+        ReactiveRedisJwtRepository lazyRepository = new ReactiveRedisJwtRepository(webClient);
+
+        Mono<String> pending = lazyRepository.getJwtCached("testClient");
+
+        assertNotNull(pending);
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    public void testBatchesUseOneRequestEach() {
+        // Act
+        repository.saveAll(Map.of("client1", "token1", "client2", "token2", "client3", "token3")).block();
+        Map<String, String> found = repository.getAll(List.of("client1", "client3", "unknown")).block();
+
+        // Assert
+        assertEquals(2, requests.get());
+        assertEquals(Map.of("client1", "token1", "client3", "token3"), found);
+    }
+
+    @Test
+    public void testBatchesFallBackToSingleRequestsWithoutBatchEndpoints() {
+        // Arrange
+        batchStatus = 405;
+        tokens.put("client1", "token1");
+
+        // Act
+        Map<String, String> found = repository.getAll(List.of("client1", "unknown")).block();
+        repository.saveAll(Map.of("client2", "token2")).block();
+
+        // Assert - the first batch probed the endpoint, the second went straight to single requests
+        assertEquals(Map.of("client1", "token1"), found);
+        assertEquals("token2", tokens.get("client2"));
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void testLookupNotFoundFallsBackToSingleRequests() {
+        // Arrange - a proxy without the batch endpoints answers 404 to the unmapped POST path
+        batchStatus = 404;
+        tokens.put("client1", "token1");
+        tokens.put("client2", "token2");
+
+        // Act
+        Map<String, String> found = repository.getAll(List.of("client1", "client2")).block();
+
+        // Assert - the probe plus one lookup per client, cached tokens still found
+        assertEquals(Map.of("client1", "token1", "client2", "token2"), found);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testBatchEndpointsAreProbedAgainAfterRetryWindow() {
+        // Arrange
+        ManualTimeSource time = new ManualTimeSource();
+        ReactiveRedisJwtRepository timed = new ReactiveRedisJwtRepository(
+            WebClient.create("http://localhost:" + server.getAddress().getPort()), true, time);
+        batchStatus = 405;
+        timed.saveAll(Map.of("client1", "token1")).block();
+        batchStatus = 0;
+
+        // Act & Assert - inside the window batches still go one request per client
+        time.advanceSeconds(299);
+        requests.set(0);
+        timed.saveAll(Map.of("client2", "token2", "client3", "token3")).block();
+        assertEquals(2, requests.get());
+
+        // Act & Assert - once it is over the proxy is asked for the batch endpoint again
+        time.advanceSeconds(1);
+        requests.set(0);
+        Map<String, String> found = timed.getAll(List.of("client1", "client2", "client3")).block();
+        assertEquals(1, requests.get());
+        assertEquals(Map.of("client1", "token1", "client2", "token2", "client3", "token3"), found);
+    }
+
+    @Test
+    public void testBatchEndpointsCanBeTurnedOff() {
+        // Arrange
+        ReactiveRedisJwtRepository single = new ReactiveRedisJwtRepository(
+            WebClient.create("http://localhost:" + server.getAddress().getPort()), false);
+        batchStatus = 500;
+
+        // Act
+        single.saveAll(Map.of("client1", "token1", "client2", "token2")).block();
+        Map<String, String> found = single.getAll(List.of("client1", "unknown")).block();
+
+        // Assert - the batch endpoints were never called
+        assertEquals(Map.of("client1", "token1"), found);
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void testEmptyBatchSendsNothing() {
+        assertEquals(Map.of(), repository.getAll(List.of()).block());
+        repository.saveAll(Map.of()).block();
+
+        assertEquals(0, requests.get());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static String field(String json, String name) {
+        int start = json.indexOf("\"" + name + "\":\"") + name.length() + 4;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return nanos / 1_000_000L;
+        }
+    }
+}
@@ -3,8 +3,13 @@ package com.auth.data;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +19,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.markesiano.auth_service.infraestructure.data.RedisJwtRepository;
+import com.sun.net.httpserver.HttpServer;
 
 @ExtendWith(MockitoExtension.class)
 public class RedisJwtRepositoryTest {
@@ -172,6 +178,39 @@ public class RedisJwtRepositoryTest {
         assertThrows(CompletionException.class, () -> future.join());
     }
 
+    @Test
+    public void testGetJwtCachedDoesNotBlockCallerWhileProxyResponds() throws IOException, InterruptedException {
+        // Arrange - a proxy that holds the response until released
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/cached-redis/token", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "cached.jwt.token".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            RedisJwtRepository slowRepository = new RedisJwtRepository(
+                WebClient.create("http://localhost:" + server.getAddress().getPort()));
+
+            // Act
+            CompletableFuture<String> future = slowRepository.getJwtCached("slowClient");
+
+            // Assert - the call returned before the proxy answered
+            assertFalse(future.isDone());
+            release.countDown();
+            assertEquals("cached.jwt.token", future.orTimeout(5, TimeUnit.SECONDS).join());
+        } finally {
+            server.stop(0);
+        }
+    }
+
     // TokenNotFoundException Tests
     @Test
     public void testTokenNotFoundExceptionCreation() {
@@ -0,0 +1,123 @@
+package com.auth.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.markesiano.auth_service.infraestructure.execution.BoundedExecutor;
+
+public class BoundedExecutorTest {
+
+    private BoundedExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPlatformExecutorRunsOnNamedThreads() {
+        executor = BoundedExecutor.platform("test-cpu", 2, 4);
+
+        String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor).join();
+
+        assertTrue(threadName.startsWith("test-cpu-"));
+        assertEquals("test-cpu", executor.name());
+        assertEquals(6, executor.capacity());
+    }
+
+    @Test
+    public void testPlatformExecutorRejectsWhenSaturated() throws InterruptedException {
+        // Arrange - one thread busy and a queue of one
+        executor = BoundedExecutor.platform("test-cpu", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+
+        // Act & Assert
+        assertEquals(1, executor.queueDepth());
+        assertEquals(1, executor.activeCount());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, executor.rejectedCount());
+
+        release.countDown();
+    }
+
+    @Test
+    public void testVirtualExecutorRunsOnVirtualThreads() {
+        executor = BoundedExecutor.virtual("test-io", 4);
+
+        Boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+
+        assertTrue(virtual);
+    }
+
+    @Test
+    public void testVirtualExecutorRejectsAboveConcurrencyLimit() throws InterruptedException {
+        // Arrange
+        executor = BoundedExecutor.virtual("test-io", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertEquals(2, executor.activeCount());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, executor.rejectedCount());
+
+        // Permits are returned once the blocked tasks finish
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.activeCount() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertDoesNotThrow(() -> CompletableFuture.runAsync(() -> { }, executor).join());
+    }
+
+    @Test
+    public void testDirectExecutorRunsOnCallingThread() {
+        executor = BoundedExecutor.direct("test-direct");
+        Thread caller = Thread.currentThread();
+
+        Thread runner = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+
+        assertSame(caller, runner);
+        assertTrue(executor.isDirect());
+        assertEquals(0, executor.queueDepth());
+        assertEquals(0, executor.activeCount());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> BoundedExecutor.platform("bad", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> BoundedExecutor.platform("bad", 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> BoundedExecutor.virtual("bad", 0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
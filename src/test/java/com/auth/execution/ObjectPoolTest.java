@@ -0,0 +1,85 @@
+package com.auth.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.markesiano.auth_service.infraestructure.execution.ObjectPool;
+
+public class ObjectPoolTest {
+
+    @Test
+    public void testReleasedInstanceIsReused() {
+        // Arrange
+        AtomicInteger created = new AtomicInteger();
+        ObjectPool<Object> pool = new ObjectPool<>(4, () -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+
+        // Act
+        Object first = pool.acquire();
+        pool.release(first);
+        Object second = pool.acquire();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testCreatesWhenEveryInstanceIsTaken() {
+        // Arrange
+        ObjectPool<Object> pool = new ObjectPool<>(2, Object::new);
+
+        // Act
+        Object first = pool.acquire();
+        Object second = pool.acquire();
+
+        // Assert
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testIdleInstancesAreBoundedBySize() {
+        // Arrange
+        ObjectPool<Object> pool = new ObjectPool<>(3, Object::new);
+        List<Object> taken = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            taken.add(pool.acquire());
+        }
+
+        // Act
+        taken.forEach(pool::release);
+
+        // Assert
+        assertEquals(3, pool.idleCount());
+    }
+
+    @Test
+    public void testVirtualThreadsShareInstances() throws InterruptedException {
+        // Arrange
+        AtomicInteger created = new AtomicInteger();
+        ObjectPool<Object> pool = new ObjectPool<>(4, () -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+
+        // Act - one virtual thread per "request", one after another
+        for (int i = 0; i < 100; i++) {
+            Thread.ofVirtual().start(() -> pool.release(pool.acquire())).join();
+        }
+
+        // Assert
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testRejectsEmptyPool() {
+        assertThrows(IllegalArgumentException.class, () -> new ObjectPool<>(0, Object::new));
+    }
+}
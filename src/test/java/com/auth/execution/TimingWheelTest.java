@@ -0,0 +1,130 @@
+package com.auth.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.markesiano.auth_service.infraestructure.execution.TimingWheel;
+
+public class TimingWheelTest {
+
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
+    private List<String> fired;
+    private TimingWheel<String, Integer> wheel;
+
+    @BeforeEach
+    public void setUp() {
+        fired = new ArrayList<>();
+        wheel = new TimingWheel<>(TICK, 3, 0L, (key, value) -> fired.add(key));
+    }
+
+    @Test
+    public void testFiresAtDeadlineAndNotBefore() {
+        // Arrange
+        wheel.schedule("client", 1, 10 * TICK);
+
+        // Act & Assert
+        assertEquals(0, wheel.advance(9 * TICK));
+        assertTrue(fired.isEmpty());
+        assertEquals(1, wheel.advance(10 * TICK));
+        assertEquals(List.of("client"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDeadlinesOnHigherLevelsCascadeDown() {
+        // Arrange - one hour lands on the second level, a day on the third
+        wheel.schedule("hour", 1, 3600 * TICK);
+        wheel.schedule("day", 2, 86_400 * TICK);
+
+        // Act & Assert
+        assertEquals(0, wheel.advance(3599 * TICK));
+        assertEquals(1, wheel.advance(3600 * TICK));
+        assertEquals(0, wheel.advance(86_399 * TICK));
+        assertEquals(1, wheel.advance(86_400 * TICK));
+        assertEquals(List.of("hour", "day"), fired);
+    }
+
+    @Test
+    public void testDeadlineBeyondRangeIsRescheduled() {
+        long beyond = (64L * 64 * 64 + 100) * TICK;
+        wheel.schedule("far", 1, beyond);
+
+        assertEquals(0, wheel.advance(beyond - TICK));
+        assertEquals(1, wheel.advance(beyond));
+    }
+
+    @Test
+    public void testPastDeadlineFiresOnNextTick() {
+        wheel.advance(50 * TICK);
+        wheel.schedule("late", 1, 10 * TICK);
+
+        assertEquals(1, wheel.advance(51 * TICK));
+    }
+
+    @Test
+    public void testDeadlineIsRoundedUpToTick() {
+        wheel.schedule("client", 1, 5 * TICK + 1);
+
+        assertEquals(0, wheel.advance(5 * TICK));
+        assertEquals(1, wheel.advance(6 * TICK));
+    }
+
+    @Test
+    public void testManyTimersFireInDeadlineOrderOfTicks() {
+        // Arrange
+        for (int i = 1; i <= 5000; i++) {
+            wheel.schedule("client" + i, i, i * TICK);
+        }
+
+        // Act
+        int firstHalf = wheel.advance(2500 * TICK);
+        int secondHalf = wheel.advance(5000 * TICK);
+
+        // Assert
+        assertEquals(2500, firstHalf);
+        assertEquals(2500, secondHalf);
+        assertEquals("client1", fired.get(0));
+        assertEquals("client5000", fired.get(4999));
+    }
+
+    @Test
+    public void testCancelledTimerNeverFires() {
+        // Arrange
+        TimingWheel.Timer<String, Integer> replaced = wheel.schedule("replaced", 1, 10 * TICK);
+        wheel.schedule("kept", 2, 10 * TICK);
+
+        // Act
+        wheel.cancel(replaced);
+        wheel.cancel(replaced);
+
+        // Assert
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.advance(10 * TICK));
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    public void testClearDropsPendingTimers() {
+        wheel.schedule("client", 1, 10 * TICK);
+
+        wheel.clear();
+
+        assertEquals(0, wheel.advance(20 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new TimingWheel<String, Integer>(0, 3, 0L, (key, value) -> { }));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TimingWheel<String, Integer>(TICK, 0, 0L, (key, value) -> { }));
+    }
+}
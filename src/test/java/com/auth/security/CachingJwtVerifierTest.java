@@ -0,0 +1,188 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.infraestructure.security.CachingJwtVerifier;
+import com.markesiano.auth_service.infraestructure.security.CompactJwtProvider;
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+import com.markesiano.auth_service.infraestructure.security.RotatingKeyRing;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+public class CachingJwtVerifierTest {
+
+    private ManualTimeSource time;
+    private String secret;
+    private CompactJwtProvider jwtProvider;
+    private CachingJwtVerifier verifier;
+
+    @BeforeEach
+    public void setUp() {
+        time = new ManualTimeSource();
+        secret = newSecret();
+        jwtProvider = provider(secret);
+        verifier = new CachingJwtVerifier(secret, 100, time);
+    }
+
+    @Test
+    public void testValidTokenIsVerifiedOnceThenServedFromCache() {
+        // Arrange
+        String token = jwtProvider.encode("markepos01", time.currentTimeMillis());
+
+        // Act
+        TokenClaims first = verifier.verify(token);
+        TokenClaims second = verifier.verify(token);
+
+        // Assert
+        assertNotNull(first);
+        assertEquals("markepos01", first.clientId());
+        assertEquals(time.currentTimeMillis(), first.issuedAtMillis());
+        assertEquals(first.issuedAtMillis() + 3_600_000L, first.expiresAtMillis());
+        assertSame(first, second);
+        assertEquals(1, verifier.missCount());
+        assertEquals(1, verifier.hitCount());
+        assertEquals(0.5, verifier.hitRatio());
+    }
+
+    @Test
+    public void testTokenSignedWithAnotherSecretIsRejected() {
+        // Arrange
+        String forged = provider(newSecret()).encode("markepos01", time.currentTimeMillis());
+
+        // Act & Assert
+        assertNull(verifier.verify(forged));
+        assertNull(verifier.verify(forged));
+        assertEquals(2, verifier.rejectionCount());
+        assertEquals(0, verifier.getCacheSize());
+    }
+
+    @Test
+    public void testTamperedTokenDoesNotHitCachedOne() {
+        // Arrange
+        String token = jwtProvider.encode("markepos01", time.currentTimeMillis());
+        verifier.verify(token);
+        String otherPayload = jwtProvider.encode("markepos02", time.currentTimeMillis());
+        String tampered = otherPayload.substring(0, otherPayload.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        // Act & Assert
+        assertNull(verifier.verify(tampered));
+        assertEquals(0, verifier.hitCount());
+    }
+
+    @Test
+    public void testFollowsRotateSecretThroughSharedRing() {
+        // Arrange - provider and verifier share the ring, as the application wires them
+        RotatingKeyRing keyRing = new RotatingKeyRing(JwsKeyRing.of(HmacJwsKey.fromSecret(secret)), null,
+            Duration.ZERO, Duration.ofMinutes(10), time);
+        CompactJwtProvider sharedProvider = new CompactJwtProvider(keyRing, Runnable::run);
+        CachingJwtVerifier sharedVerifier = new CachingJwtVerifier(keyRing, 100, time);
+        String oldToken = sharedProvider.encode("markepos01", time.currentTimeMillis());
+        assertNotNull(sharedVerifier.verify(oldToken));
+
+        // Act
+        sharedProvider.rotateSecret(newSecret());
+        String newToken = sharedProvider.encode("markepos01", time.currentTimeMillis());
+
+        // Assert - the new key verifies at once, the old one only until its overlap is over
+        assertNotNull(sharedVerifier.verify(newToken));
+        assertNotNull(sharedVerifier.verify(oldToken));
+        time.advanceSeconds(600);
+        keyRing.retireExpired();
+        assertNull(sharedVerifier.verify(oldToken));
+        assertNotNull(sharedVerifier.verify(newToken));
+    }
+
+    @Test
+    public void testCachedTokenStopsVerifyingAtExpiry() {
+        // Arrange
+        String token = jwtProvider.encode("markepos01", time.currentTimeMillis());
+        assertNotNull(verifier.verify(token));
+
+        // Act
+        time.advanceSeconds(3_601);
+
+        // Assert
+        assertNull(verifier.verify(token));
+        assertEquals(0, verifier.hitCount());
+        assertEquals(0, verifier.getCacheSize());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        // Arrange
+        CachingJwtVerifier small = new CachingJwtVerifier(secret, 10, time);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(small.verify(jwtProvider.encode("client" + i, time.currentTimeMillis())));
+        }
+
+        // Assert
+        assertEquals(10, small.getCacheSize());
+        assertEquals(40, small.evictionCount());
+    }
+
+    @Test
+    public void testZeroEntriesDisablesCache() {
+        // Arrange
+        CachingJwtVerifier uncached = new CachingJwtVerifier(secret, 0, time);
+        String token = jwtProvider.encode("markepos01", time.currentTimeMillis());
+
+        // Act
+        uncached.verify(token);
+        uncached.verify(token);
+
+        // Assert
+        assertEquals(0, uncached.hitCount());
+        assertEquals(2, uncached.missCount());
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> verifier.verify(null));
+        assertThrows(IllegalArgumentException.class, () -> verifier.verify(""));
+        assertNull(verifier.verify("not-a-jwt"));
+        assertThrows(IllegalArgumentException.class, () -> new CachingJwtVerifier(secret, -1, time));
+    }
+
+    private static String newSecret() {
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        return Base64.getEncoder().encodeToString(secretBytes);
+    }
+
+    private static CompactJwtProvider provider(String secret) {
+        CompactJwtProvider provider = new CompactJwtProvider();
+        ReflectionTestUtils.setField(provider, "secret", secret);
+        return provider;
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}
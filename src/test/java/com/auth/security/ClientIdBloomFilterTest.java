@@ -0,0 +1,82 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.markesiano.auth_service.infraestructure.security.ClientIdBloomFilter;
+
+public class ClientIdBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        // Arrange
+        ClientIdBloomFilter filter = new ClientIdBloomFilter(10_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("markepos" + i);
+        }
+
+        // Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("markepos" + i));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysNearConfiguredRate() {
+        // Arrange
+        ClientIdBloomFilter filter = new ClientIdBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("markepos" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert - 1% expected, allow for variance
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    public void testBuildFromExistingIds() {
+        List<String> clientIds = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            clientIds.add("client" + i);
+        }
+
+        ClientIdBloomFilter filter = ClientIdBloomFilter.of(clientIds, clientIds.size(), 100, 0.001);
+
+        assertEquals(500, filter.insertionCount());
+        assertTrue(clientIds.stream().allMatch(filter::mightContain));
+        assertFalse(filter.mightContain("client-that-does-not-exist"));
+    }
+
+    @Test
+    public void testSaturatesPastExpectedInsertions() {
+        ClientIdBloomFilter filter = new ClientIdBloomFilter(10, 0.01);
+
+        for (int i = 0; i < 11; i++) {
+            filter.put("client" + i);
+        }
+
+        assertTrue(filter.isSaturated());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientIdBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIdBloomFilter(100, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIdBloomFilter(100, 1.0));
+    }
+}
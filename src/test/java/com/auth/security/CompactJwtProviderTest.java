@@ -0,0 +1,192 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.infraestructure.security.CompactJwtProvider;
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+public class CompactJwtProviderTest {
+
+    private CompactJwtProvider compactJwtProvider;
+    private String testSecret;
+
+    @BeforeEach
+    public void setUp() {
+        compactJwtProvider = new CompactJwtProvider();
+
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        testSecret = Base64.getEncoder().encodeToString(secretBytes);
+
+        ReflectionTestUtils.setField(compactJwtProvider, "secret", testSecret);
+    }
+
+    // Reference token built through the generic jjwt pipeline, as JwtProvider does
+    private String jjwtToken(String clientId, long issuedAtMillis) {
+        return Jwts.builder()
+            .setHeaderParam("alg", "HS256")
+            .setHeaderParam("kid", HmacJwsKey.fromSecret(testSecret).kid())
+            .setSubject(clientId)
+            .setIssuedAt(new Date(issuedAtMillis))
+            .setExpiration(new Date(issuedAtMillis + 3600000))
+            .signWith(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+            .compact();
+    }
+
+    @Test
+    public void testGenerateTokenWithNullClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> compactJwtProvider.generateToken(null));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testGenerateTokenWithEmptyClientId() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> compactJwtProvider.generateToken(""));
+
+        assertEquals("Client ID cannot be null or empty", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "markepos01",
+        "a",
+        "ab",
+        "abc",
+        "  client with spaces  ",
+        "client@#$%^&*()_+-=[]{}|;':\",./<>?",
+        "back\\slash/and\"quote",
+        "tab\tnew\nline\rform\fback\b",
+        "ctrl\u0000\u0001\u001f\u007f",
+        "客户端123ñáéíóú🚀",
+        "  ￿"
+    })
+    public void testTokenIsByteIdenticalToJjwt(String clientId) {
+        long issuedAt = 1_700_000_000_123L;
+
+        assertEquals(jjwtToken(clientId, issuedAt), compactJwtProvider.encode(clientId, issuedAt));
+    }
+
+    @Test
+    public void testLongClientIdIsByteIdenticalToJjwt() {
+        // Forces the pooled buffers to grow
+        String longClientId = "longclient".repeat(1000);
+        long issuedAt = System.currentTimeMillis();
+
+        assertEquals(jjwtToken("short", issuedAt), compactJwtProvider.encode("short", issuedAt));
+        assertEquals(jjwtToken(longClientId, issuedAt), compactJwtProvider.encode(longClientId, issuedAt));
+        assertEquals(jjwtToken("short", issuedAt), compactJwtProvider.encode("short", issuedAt));
+    }
+
+    @Test
+    public void testGenerateTokenIsVerifiable() {
+        // Arrange
+        String clientId = "testClient123";
+        long before = System.currentTimeMillis() / 1000 * 1000;
+
+        // Act
+        CompletableFuture<String> tokenFuture = compactJwtProvider.generateToken(clientId);
+        String token = tokenFuture.join();
+
+        // Assert
+        Claims claims = Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+
+        assertEquals(clientId, claims.getSubject());
+        assertTrue(claims.getIssuedAt().getTime() >= before);
+        assertEquals(3600000, claims.getExpiration().getTime() - claims.getIssuedAt().getTime());
+    }
+
+    @Test
+    public void testRotateSecretSignsWithNewKey() {
+        // Arrange
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        String rotatedSecret = Base64.getEncoder().encodeToString(secretBytes);
+        long issuedAt = System.currentTimeMillis();
+
+        // Act
+        compactJwtProvider.rotateSecret(rotatedSecret);
+        testSecret = rotatedSecret;
+
+        // Assert
+        assertEquals(jjwtToken("rotated", issuedAt), compactJwtProvider.encode("rotated", issuedAt));
+    }
+
+    @Test
+    public void testConcurrentEncodingUsesIsolatedBuffers() throws InterruptedException {
+        int threadCount = 10;
+        long issuedAt = System.currentTimeMillis();
+        String[] tokens = new String[threadCount];
+        Thread[] threads = new Thread[threadCount];
+
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < 200; n++) {
+                    tokens[index] = compactJwtProvider.encode("concurrentClient" + index, issuedAt);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < threadCount; i++) {
+            assertEquals(jjwtToken("concurrentClient" + i, issuedAt), tokens[i]);
+        }
+    }
+
+    @Test
+    public void testMintsRacingRotationNeverRestoreOldKey() throws InterruptedException {
+        // Arrange
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        String rotatedSecret = Base64.getEncoder().encodeToString(secretBytes);
+        long issuedAt = System.currentTimeMillis();
+        Thread[] minters = new Thread[8];
+        for (int i = 0; i < minters.length; i++) {
+            minters[i] = new Thread(() -> {
+                for (int n = 0; n < 2000; n++) {
+                    compactJwtProvider.encode("racingClient", issuedAt);
+                }
+            });
+            minters[i].start();
+        }
+
+        // Act
+        compactJwtProvider.rotateSecret(rotatedSecret);
+        for (Thread minter : minters) {
+            minter.join();
+        }
+        testSecret = rotatedSecret;
+
+        // Assert
+        assertEquals(jjwtToken("racingClient", issuedAt), compactJwtProvider.encode("racingClient", issuedAt));
+    }
+}
@@ -0,0 +1,109 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.markesiano.auth_service.infraestructure.security.HmacKeyMaterial;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+public class HmacKeyMaterialTest {
+
+    private String testSecret;
+
+    @BeforeEach
+    public void setUp() {
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        testSecret = Base64.getEncoder().encodeToString(secretBytes);
+    }
+
+    @Test
+    public void testDeriveWithNullSecret() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> HmacKeyMaterial.derive(null));
+
+        assertEquals("JWT secret cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testDeriveWithEmptySecret() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> HmacKeyMaterial.derive(""));
+
+        assertEquals("JWT secret cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testDeriveUsesHs256() {
+        HmacKeyMaterial material = HmacKeyMaterial.derive(testSecret);
+
+        assertEquals(SignatureAlgorithm.HS256, material.algorithm());
+        assertArrayEquals(testSecret.getBytes(StandardCharsets.UTF_8), material.key().getEncoded());
+    }
+
+    @Test
+    public void testSignMatchesPlainMac() throws Exception {
+        // Arrange
+        HmacKeyMaterial material = HmacKeyMaterial.derive(testSecret);
+        byte[] data = "header.payload".getBytes(StandardCharsets.US_ASCII);
+        Mac reference = Mac.getInstance("HmacSHA256");
+        reference.init(new SecretKeySpec(testSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+
+        // Act
+        byte[] first = material.sign(data);
+        byte[] second = material.sign(data);
+
+        // Assert - the pooled Mac is reset between signatures
+        assertArrayEquals(reference.doFinal(data), first);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void testSignFromManyVirtualThreads() throws Exception {
+        // Arrange
+        HmacKeyMaterial material = HmacKeyMaterial.derive(testSecret);
+        byte[] data = "header.payload".getBytes(StandardCharsets.US_ASCII);
+        byte[] expected = material.sign(data);
+        List<Future<byte[]>> signatures = new ArrayList<>();
+
+        // Act
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                signatures.add(requests.submit(() -> material.sign(data)));
+            }
+        }
+
+        // Assert
+        for (Future<byte[]> signature : signatures) {
+            assertArrayEquals(expected, signature.get());
+        }
+    }
+
+    @Test
+    public void testSignIntoBuffer() {
+        HmacKeyMaterial material = HmacKeyMaterial.derive(testSecret);
+        byte[] input = "..header.payload..".getBytes(StandardCharsets.US_ASCII);
+        byte[] output = new byte[40];
+
+        material.sign(input, 2, input.length - 4, output, 8);
+
+        assertArrayEquals(material.sign("header.payload".getBytes(StandardCharsets.US_ASCII)),
+            Arrays.copyOfRange(output, 8, 40));
+    }
+}
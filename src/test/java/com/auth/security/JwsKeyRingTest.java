@@ -0,0 +1,151 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.markesiano.auth_service.infraestructure.security.AsymmetricJwsKey;
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+
+public class JwsKeyRingTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testJwksPublishesOnlyPublicKeys() {
+        // Arrange
+        AsymmetricJwsKey es256 = AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+        AsymmetricJwsKey eddsa = AsymmetricJwsKey.generate(AsymmetricJwsKey.EDDSA);
+
+        HmacJwsKey hmac = HmacJwsKey.fromSecret(SECRET);
+
+        // Act
+        JwsKeyRing keyRing = new JwsKeyRing(es256, List.of(eddsa, hmac));
+        String jwks = new String(keyRing.jwks(), StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(jwks.startsWith("{\"keys\":[{\"crv\":\"P-256\",\"kty\":\"EC\""));
+        assertTrue(jwks.contains("\"kid\":\"" + es256.kid() + "\",\"alg\":\"ES256\",\"use\":\"sig\""));
+        assertTrue(jwks.contains("\"crv\":\"Ed25519\",\"kty\":\"OKP\""));
+        assertFalse(jwks.contains("\"d\""));
+        assertFalse(jwks.contains("HS256"));
+        assertSame(es256, keyRing.active());
+        assertSame(eddsa, keyRing.find(eddsa.kid()));
+        assertSame(hmac, keyRing.find(hmac.kid()));
+        assertNull(keyRing.find(null));
+        assertNull(keyRing.find("unknown"));
+    }
+
+    @Test
+    public void testHmacRingPublishesEmptyJwks() {
+        JwsKeyRing keyRing = JwsKeyRing.of(HmacJwsKey.fromSecret(SECRET));
+
+        assertEquals("{\"keys\":[]}", new String(keyRing.jwks(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testHmacKidIsFingerprintOfSecret() {
+        // Arrange
+        HmacJwsKey key = HmacJwsKey.fromSecret(SECRET);
+
+        // Act
+        HmacJwsKey sameSecret = HmacJwsKey.fromSecret(SECRET);
+        HmacJwsKey otherSecret = HmacJwsKey.fromSecret(SECRET + "-rotated");
+
+        // Assert
+        assertEquals(22, key.kid().length());
+        assertEquals(key.kid(), sameSecret.kid());
+        assertNotEquals(key.kid(), otherSecret.kid());
+        assertFalse(key.kid().contains(SECRET));
+    }
+
+    @Test
+    public void testTokenWithoutKidBelongsToActiveHmacKey() {
+        // Arrange
+        HmacJwsKey hmac = HmacJwsKey.fromSecret(SECRET);
+
+        // Act
+        JwsKeyRing hmacRing = JwsKeyRing.of(hmac);
+        JwsKeyRing es256Ring = new JwsKeyRing(AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256), List.of(hmac));
+
+        // Assert - tokens from before HMAC keys had a 'kid' still verify, but never count as current
+        assertSame(hmac, hmacRing.find(null));
+        assertNull(es256Ring.find(null));
+        assertFalse(hmacRing.hasKeyFor("eyJhbGciOiJIUzI1NiJ9.e30.sig"));
+        assertTrue(hmacRing.hasKeyFor(hmacRing.activeHeader() + ".e30.sig"));
+    }
+
+    @Test
+    public void testEtagFollowsDocument() {
+        // Arrange
+        AsymmetricJwsKey key = AsymmetricJwsKey.generate(AsymmetricJwsKey.EDDSA);
+
+        // Act
+        JwsKeyRing first = JwsKeyRing.of(key);
+        JwsKeyRing same = JwsKeyRing.of(key);
+        JwsKeyRing other = JwsKeyRing.of(AsymmetricJwsKey.generate(AsymmetricJwsKey.EDDSA));
+
+        // Assert
+        assertTrue(first.jwksEtag().startsWith("\"") && first.jwksEtag().endsWith("\""));
+        assertEquals(first.jwksEtag(), same.jwksEtag());
+        assertNotEquals(first.jwksEtag(), other.jwksEtag());
+    }
+
+    @Test
+    public void testKeyLoadedFromPemHasStableKid() throws Exception {
+        // Arrange
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        Path privateKey = writePem("private.pem", "PRIVATE KEY", pair.getPrivate().getEncoded());
+        Path publicKey = writePem("public.pem", "PUBLIC KEY", pair.getPublic().getEncoded());
+
+        // Act
+        AsymmetricJwsKey first = AsymmetricJwsKey.fromPem(AsymmetricJwsKey.ES256, privateKey, publicKey);
+        AsymmetricJwsKey second = AsymmetricJwsKey.fromPem(AsymmetricJwsKey.ES256, privateKey, publicKey);
+        byte[] signature = first.sign("header.payload".getBytes(StandardCharsets.US_ASCII));
+
+        // Assert - another instance with the same files verifies the first one's signatures
+        assertEquals(first.kid(), second.kid());
+        assertEquals(64, signature.length);
+        assertTrue(second.verify("header.payload".getBytes(StandardCharsets.US_ASCII), signature));
+        assertFalse(second.verify("header.tampered".getBytes(StandardCharsets.US_ASCII), signature));
+    }
+
+    @Test
+    public void testMalformedSignatureIsRejected() {
+        AsymmetricJwsKey key = AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+        byte[] input = "header.payload".getBytes(StandardCharsets.US_ASCII);
+
+        assertFalse(key.verify(input, new byte[3]));
+        assertTrue(key.verify(input, key.sign(input)));
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        AsymmetricJwsKey key = AsymmetricJwsKey.generate(AsymmetricJwsKey.EDDSA);
+
+        assertThrows(IllegalArgumentException.class, () -> AsymmetricJwsKey.generate("RS256"));
+        assertThrows(IllegalArgumentException.class, () -> new JwsKeyRing(key, List.of(key)));
+    }
+
+    private Path writePem(String name, String type, byte[] der) throws IOException {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return Files.writeString(directory.resolve(name), "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n");
+    }
+}
@@ -0,0 +1,41 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.infraestructure.security.JwtClaims;
+import com.markesiano.auth_service.infraestructure.security.JwtProvider;
+
+public class JwtClaimsTest {
+
+    @Test
+    public void testExpirationOfMintedToken() {
+        // Arrange
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        JwtProvider provider = new JwtProvider();
+        ReflectionTestUtils.setField(provider, "secret", Base64.getEncoder().encodeToString(secretBytes));
+        long before = System.currentTimeMillis();
+
+        // Act
+        String token = provider.generateToken("client").join();
+        long expiresAt = JwtClaims.expiresAtMillis(token);
+
+        // Assert - exp is stored in whole seconds, one hour after issuing
+        assertTrue(expiresAt > before + 3_590_000L);
+        assertTrue(expiresAt <= System.currentTimeMillis() + 3_600_000L);
+    }
+
+    @Test
+    public void testMalformedTokens() {
+        assertEquals(-1, JwtClaims.expiresAtMillis(null));
+        assertEquals(-1, JwtClaims.expiresAtMillis("not-a-jwt"));
+        assertEquals(-1, JwtClaims.expiresAtMillis("a.!!!.c"));
+        assertEquals(-1, JwtClaims.expiresAtMillis("eyJhbGciOiJIUzI1NiJ9.e30.sig"));
+    }
+}
@@ -12,10 +12,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
 import com.markesiano.auth_service.infraestructure.security.JwtProvider;
+import com.markesiano.auth_service.infraestructure.security.RotatingKeyRing;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
 public class JwtProviderTest {
@@ -478,4 +482,87 @@ public class JwtProviderTest {
                 .parseClaimsJws(token);
         }, "Token should not be verifiable with wrong secret");
     }
+
+    @Test
+    public void testTokenIsByteIdenticalToJjwtSigner() {
+        // Arrange
+        String clientId = "markepos01";
+        long issuedAt = 1_700_000_000_123L;
+        String reference = Jwts.builder()
+            .setHeaderParam("alg", "HS256")
+            .setHeaderParam("kid", HmacJwsKey.fromSecret(testSecret).kid())
+            .setSubject(clientId)
+            .setIssuedAt(new Date(issuedAt))
+            .setExpiration(new Date(issuedAt + 3600000))
+            .signWith(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+            .compact();
+
+        // Act
+        String token = jwtProvider.encode(clientId, issuedAt);
+
+        // Assert
+        assertEquals(reference, token);
+    }
+
+    // Key Material Tests
+    @Test
+    public void testRotateSecretSignsWithNewKey() {
+        // Arrange
+        String clientId = "rotationTestClient";
+        String rotatedSecret = generateSecureTestSecret();
+
+        // Act
+        jwtProvider.rotateSecret(rotatedSecret);
+        String token = jwtProvider.generateToken(clientId).join();
+
+        // Assert - Old secret no longer verifies, the rotated one does
+        assertThrows(Exception.class, () -> Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(token));
+
+        Claims claims = Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(rotatedSecret.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+        assertEquals(clientId, claims.getSubject());
+    }
+
+    @Test
+    public void testSignsWithActiveKeyOfSharedRing() {
+        // Arrange
+        RotatingKeyRing keyRing = RotatingKeyRing.fixed(JwsKeyRing.of(HmacJwsKey.fromSecret(testSecret)));
+        JwtProvider shared = new JwtProvider(keyRing, Runnable::run);
+        String rotatedSecret = generateSecureTestSecret();
+        HmacJwsKey rotated = HmacJwsKey.fromSecret(rotatedSecret);
+
+        // Act
+        String before = shared.generateToken("client").join();
+        keyRing.rotate(rotated);
+        String after = shared.generateToken("client").join();
+
+        // Assert - the header names the key that signed the token
+        assertTrue(keyRing.isRetired(before));
+        assertFalse(keyRing.isRetired(after));
+        assertTrue(after.startsWith(keyRing.current().activeHeader() + "."));
+        assertEquals("client", Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(rotatedSecret.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(after)
+            .getBody()
+            .getSubject());
+    }
+
+    @Test
+    public void testRotateSecretWithInvalidSecretKeepsCurrentKey() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> jwtProvider.rotateSecret(""));
+
+        String token = jwtProvider.generateToken("client").join();
+        assertDoesNotThrow(() -> Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(token));
+    }
 }
@@ -0,0 +1,79 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.markesiano.auth_service.application.entities.TokenClaims;
+import com.markesiano.auth_service.infraestructure.security.AsymmetricJwsKey;
+import com.markesiano.auth_service.infraestructure.security.CachingJwtVerifier;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+import com.markesiano.auth_service.infraestructure.security.KeyRingJwtProvider;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+public class KeyRingJwtProviderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {AsymmetricJwsKey.ES256, AsymmetricJwsKey.EDDSA})
+    public void testTokenCarriesAlgorithmAndKid(String algorithm) {
+        // Arrange
+        AsymmetricJwsKey key = AsymmetricJwsKey.generate(algorithm);
+        KeyRingJwtProvider provider = new KeyRingJwtProvider(JwsKeyRing.of(key), Runnable::run);
+
+        // Act
+        String token = provider.generateToken("markepos01").join();
+
+        // Assert
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+        assertEquals("{\"alg\":\"" + algorithm + "\",\"kid\":\"" + key.kid() + "\"}", header);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {AsymmetricJwsKey.ES256, AsymmetricJwsKey.EDDSA})
+    public void testTokenVerifiesWithSameKeyOnly(String algorithm) {
+        // Arrange
+        JwsKeyRing keyRing = JwsKeyRing.of(AsymmetricJwsKey.generate(algorithm));
+        JwsKeyRing otherRing = JwsKeyRing.of(AsymmetricJwsKey.generate(algorithm));
+        String token = new KeyRingJwtProvider(keyRing, Runnable::run).encode("markepos01", System.currentTimeMillis());
+
+        // Act
+        TokenClaims claims = new CachingJwtVerifier(keyRing, 10, TimeSource.SYSTEM).verify(token);
+        TokenClaims forged = new CachingJwtVerifier(otherRing, 10, TimeSource.SYSTEM).verify(token);
+
+        // Assert
+        assertNotNull(claims);
+        assertEquals("markepos01", claims.clientId());
+        assertEquals(claims.issuedAtMillis() + 3_600_000L, claims.expiresAtMillis());
+        assertNull(forged);
+    }
+
+    @Test
+    public void testEs256TokenVerifiesWithJjwt() {
+        // Arrange - an independent JWS implementation must accept the R||S signature
+        AsymmetricJwsKey key = AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+        String token = new KeyRingJwtProvider(JwsKeyRing.of(key), Runnable::run).encode("client\"quoted", System.currentTimeMillis());
+
+        // Act
+        Claims claims = Jwts.parserBuilder().setSigningKey(key.publicKey()).build().parseClaimsJws(token).getBody();
+
+        // Assert
+        assertEquals("client\"quoted", claims.getSubject());
+        assertNotNull(claims.getExpiration());
+    }
+
+    @Test
+    public void testGenerateTokenWithEmptyClientId() {
+        KeyRingJwtProvider provider = new KeyRingJwtProvider(JwsKeyRing.of(AsymmetricJwsKey.generate(AsymmetricJwsKey.EDDSA)), Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> provider.generateToken(null));
+        assertThrows(IllegalArgumentException.class, () -> provider.generateToken(""));
+    }
+}
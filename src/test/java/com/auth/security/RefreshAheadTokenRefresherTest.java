@@ -0,0 +1,160 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.markesiano.auth_service.application.interfaces.JwtKey;
+import com.markesiano.auth_service.application.interfaces.RepositoryJwt;
+import com.markesiano.auth_service.infraestructure.security.RefreshAheadTokenRefresher;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+public class RefreshAheadTokenRefresherTest {
+
+    @Mock
+    private JwtKey jwtProvider;
+    @Mock
+    private RepositoryJwt<String> repositoryJwt;
+
+    private ManualTimeSource time;
+    private RefreshAheadTokenRefresher refresher;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        time = new ManualTimeSource();
+        refresher = new RefreshAheadTokenRefresher(jwtProvider, repositoryJwt, 2, Duration.ofMinutes(2), 3, time);
+        when(repositoryJwt.saveJwt(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    public void testHotClientIsRefreshedBeforeExpiry() {
+        // Arrange
+        String current = token(time.currentTimeMillis() + 3_600_000L);
+        String replacement = token(time.currentTimeMillis() + 7_200_000L);
+        when(jwtProvider.generateToken("hotClient")).thenReturn(CompletableFuture.completedFuture(replacement));
+        for (int i = 0; i < 3; i++) {
+            refresher.onTokenServed("hotClient", current);
+        }
+
+        // Act - nothing is due until the token is within the lead time
+        refresher.refreshDueTokens();
+        time.advanceSeconds(3_600 - 119);
+        refresher.refreshDueTokens();
+
+        // Assert
+        verify(jwtProvider, times(1)).generateToken("hotClient");
+        verify(repositoryJwt).saveJwt("hotClient", replacement);
+        assertEquals(1, refresher.refreshCount());
+    }
+
+    @Test
+    public void testRefreshedClientIsNotRefreshedAgain() {
+        // Arrange
+        String current = token(time.currentTimeMillis() + 60_000L);
+        when(jwtProvider.generateToken("hotClient"))
+            .thenReturn(CompletableFuture.completedFuture(token(time.currentTimeMillis() + 3_600_000L)));
+        for (int i = 0; i < 3; i++) {
+            refresher.onTokenServed("hotClient", current);
+        }
+
+        // Act
+        refresher.refreshDueTokens();
+        refresher.refreshDueTokens();
+
+        // Assert
+        verify(jwtProvider, times(1)).generateToken("hotClient");
+    }
+
+    @Test
+    public void testColdClientIsDroppedInsteadOfRefreshed() {
+        // Arrange
+        refresher.onTokenServed("coldClient", token(time.currentTimeMillis() + 60_000L));
+
+        // Act
+        refresher.refreshDueTokens();
+
+        // Assert
+        verify(jwtProvider, never()).generateToken(anyString());
+        assertEquals(0, refresher.trackedClients());
+    }
+
+    @Test
+    public void testPoolSizeBoundsTrackedClients() {
+        // Arrange
+        String current = token(time.currentTimeMillis() + 3_600_000L);
+
+        // Act
+        refresher.onTokenServed("client1", current);
+        refresher.onTokenServed("client2", current);
+        refresher.onTokenServed("client3", current);
+
+        // Assert
+        assertEquals(2, refresher.trackedClients());
+        assertEquals(1, refresher.untrackedCount());
+    }
+
+    @Test
+    public void testFailedRefreshIsCountedAndRetried() {
+        // Arrange
+        String current = token(time.currentTimeMillis() + 60_000L);
+        when(jwtProvider.generateToken("hotClient"))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("signer down")));
+        for (int i = 0; i < 3; i++) {
+            refresher.onTokenServed("hotClient", current);
+        }
+
+        // Act
+        refresher.refreshDueTokens();
+        refresher.refreshDueTokens();
+
+        // Assert
+        assertEquals(2, refresher.refreshFailureCount());
+        assertEquals(0, refresher.refreshCount());
+        verify(repositoryJwt, never()).saveJwt(anyString(), anyString());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new RefreshAheadTokenRefresher(jwtProvider, repositoryJwt, 0, Duration.ofMinutes(2), 3, time));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RefreshAheadTokenRefresher(jwtProvider, repositoryJwt, 10, Duration.ZERO, 3, time));
+    }
+
+    private static String token(long expiresAtMillis) {
+        String payload = "{\"sub\":\"client\",\"exp\":" + expiresAtMillis / 1000 + "}";
+        return "eyJhbGciOiJIUzI1NiJ9."
+            + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + ".signature";
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.markesiano.auth_service.config.SigningKeyConfig;
+import com.markesiano.auth_service.infraestructure.security.AsymmetricJwsKey;
+import com.markesiano.auth_service.infraestructure.security.CachingJwtVerifier;
+import com.markesiano.auth_service.infraestructure.security.CompactJwtProvider;
+import com.markesiano.auth_service.infraestructure.security.HmacJwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKey;
+import com.markesiano.auth_service.infraestructure.security.JwsKeyRing;
+import com.markesiano.auth_service.infraestructure.security.KeyRingJwtProvider;
+import com.markesiano.auth_service.infraestructure.security.RotatingKeyRing;
+import com.markesiano.auth_service.infraestructure.time.TimeSource;
+
+public class RotatingKeyRingTest {
+
+    private ManualTimeSource time;
+    private JwsKey firstKey;
+    private RotatingKeyRing keyRing;
+    private KeyRingJwtProvider provider;
+    private CachingJwtVerifier verifier;
+
+    @BeforeEach
+    public void setUp() {
+        time = new ManualTimeSource();
+        firstKey = AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+        keyRing = new RotatingKeyRing(JwsKeyRing.of(firstKey), null, Duration.ZERO, Duration.ofMinutes(10), time);
+        provider = new KeyRingJwtProvider(keyRing, Runnable::run);
+        verifier = new CachingJwtVerifier(keyRing, 100, time);
+    }
+
+    @Test
+    public void testRetiringKeyKeepsVerifyingDuringOverlap() {
+        // Arrange
+        String oldToken = provider.encode("markepos01", time.currentTimeMillis());
+        JwsKey secondKey = AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+
+        // Act
+        assertTrue(keyRing.rotate(secondKey));
+        String newToken = provider.encode("markepos01", time.currentTimeMillis());
+
+        // Assert
+        assertSame(secondKey, keyRing.current().active());
+        assertEquals(2, keyRing.keyCount());
+        assertNotNull(verifier.verify(oldToken));
+        assertNotNull(verifier.verify(newToken));
+        assertFalse(keyRing.isRetired(oldToken));
+        assertFalse(keyRing.isRetired(newToken));
+        assertNotEquals(oldToken.substring(0, oldToken.indexOf('.')), newToken.substring(0, newToken.indexOf('.')));
+    }
+
+    @Test
+    public void testTokensOfRetiredKeyAreRejectedAfterOverlap() {
+        // Arrange - the old token is verified, and cached, before its key retires
+        String oldToken = provider.encode("markepos01", time.currentTimeMillis());
+        assertNotNull(verifier.verify(oldToken));
+        keyRing.rotate(AsymmetricJwsKey.generate(AsymmetricJwsKey.EDDSA));
+        String newToken = provider.encode("markepos01", time.currentTimeMillis());
+
+        // Act
+        time.advanceSeconds(599);
+        int retiredEarly = keyRing.retireExpired();
+        time.advanceSeconds(1);
+        int retired = keyRing.retireExpired();
+
+        // Assert
+        assertEquals(0, retiredEarly);
+        assertEquals(1, retired);
+        assertEquals(1, keyRing.retiredCount());
+        assertTrue(keyRing.isRetired(oldToken));
+        assertNull(verifier.verify(oldToken));
+        assertFalse(keyRing.isRetired(newToken));
+        assertNotNull(verifier.verify(newToken));
+        assertFalse(keyRing.current().contains(firstKey));
+    }
+
+    @Test
+    public void testRotationWithSameKidIsIgnored() {
+        // Act
+        boolean rotated = keyRing.rotate(firstKey);
+
+        // Assert
+        assertFalse(rotated);
+        assertEquals(0, keyRing.rotationCount());
+        assertEquals(1, keyRing.keyCount());
+    }
+
+    @Test
+    public void testScheduledRotationTakesNextKeyWhenDue() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        RotatingKeyRing scheduled = new RotatingKeyRing(JwsKeyRing.of(firstKey), () -> {
+            loads.incrementAndGet();
+            return AsymmetricJwsKey.generate(AsymmetricJwsKey.ES256);
+        }, Duration.ofHours(24), Duration.ofHours(1), time);
+
+        // Act
+        boolean early = scheduled.rotateIfDue();
+        time.advanceSeconds(86_400);
+        boolean due = scheduled.rotateIfDue();
+        boolean again = scheduled.rotateIfDue();
+
+        // Assert
+        assertFalse(early);
+        assertTrue(due);
+        assertFalse(again);
+        assertEquals(1, loads.get());
+        assertEquals(2, scheduled.keyCount());
+        scheduled.destroy();
+    }
+
+    @Test
+    public void testFailingKeySourceIsCounted() {
+        // Arrange
+        RotatingKeyRing scheduled = new RotatingKeyRing(JwsKeyRing.of(firstKey), () -> {
+            throw new IllegalStateException("key files are being replaced");
+        }, Duration.ofMinutes(5), Duration.ofHours(1), time);
+        time.advanceSeconds(300);
+
+        // Act
+        boolean rotated = scheduled.rotateIfDue();
+
+        // Assert
+        assertFalse(rotated);
+        assertEquals(1, scheduled.rotationFailureCount());
+        assertSame(firstKey, scheduled.current().active());
+        scheduled.destroy();
+    }
+
+    @Test
+    public void testHmacTokensBelongToHmacRing() {
+        // Arrange
+        String secret = "mySecretKeyForTestingPurposesOnly1234567890123456789012345678901234567890";
+        CompactJwtProvider compactJwtProvider = new CompactJwtProvider();
+        ReflectionTestUtils.setField(compactJwtProvider, "secret", secret);
+        RotatingKeyRing hmacRing = RotatingKeyRing.fixed(JwsKeyRing.of(HmacJwsKey.fromSecret(secret)));
+
+        // Act
+        String token = compactJwtProvider.encode("markepos01", time.currentTimeMillis());
+
+        // Assert
+        assertFalse(hmacRing.isRetired(token));
+        assertTrue(keyRing.isRetired(token));
+    }
+
+    @Test
+    public void testHmacSecretRotatesWithOverlap() {
+        // Arrange
+        String secret = "mySecretKeyForTestingPurposesOnly1234567890123456789012345678901234567890";
+        RotatingKeyRing hmacRing = new RotatingKeyRing(JwsKeyRing.of(HmacJwsKey.fromSecret(secret)), null,
+            Duration.ZERO, Duration.ofMinutes(10), time);
+        CompactJwtProvider compactJwtProvider = new CompactJwtProvider(hmacRing, Runnable::run);
+        CachingJwtVerifier hmacVerifier = new CachingJwtVerifier(hmacRing, 100, time);
+        String oldToken = compactJwtProvider.encode("markepos01", time.currentTimeMillis());
+
+        // Act
+        assertTrue(hmacRing.rotate(HmacJwsKey.fromSecret(secret + "-rotated")));
+        assertFalse(hmacRing.rotate(HmacJwsKey.fromSecret(secret + "-rotated")));
+        String newToken = compactJwtProvider.encode("markepos01", time.currentTimeMillis());
+
+        // Assert - the old secret verifies during the overlap and is retired after it
+        assertNotEquals(oldToken.substring(0, oldToken.indexOf('.')), newToken.substring(0, newToken.indexOf('.')));
+        assertNotNull(hmacVerifier.verify(oldToken));
+        assertNotNull(hmacVerifier.verify(newToken));
+        time.advanceSeconds(600);
+        hmacRing.retireExpired();
+        assertTrue(hmacRing.isRetired(oldToken));
+        assertNull(hmacVerifier.verify(oldToken));
+        assertNotNull(hmacVerifier.verify(newToken));
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new RotatingKeyRing(JwsKeyRing.of(firstKey), null, Duration.ofHours(1), Duration.ofHours(1), time));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RotatingKeyRing(JwsKeyRing.of(firstKey), null, Duration.ZERO, Duration.ofHours(-1), time));
+    }
+
+    @Test
+    public void testConfigRejectsOverlapShorterThanTokenLifetime() {
+        // Arrange
+        SigningKeyConfig config = new SigningKeyConfig();
+        String secret = "test-secret-key-that-is-long-enough-for-hs256";
+
+        // Act & Assert - cached tokens of the previous key would stop verifying before 'exp'
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> config.signingKeyRing(
+            secret, "jjwt", "", "", "", Duration.ZERO, Duration.ofMinutes(30)));
+        assertTrue(exception.getMessage().contains("jwt.signer.rotation.overlap"));
+        assertDoesNotThrow(() -> config.signingKeyRing(secret, "jjwt", "", "", "", Duration.ZERO, Duration.ofHours(1)));
+    }
+
+    private static final class ManualTimeSource implements TimeSource {
+        private long nanos = 1_000_000_000L;
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            nanos += seconds * 1_000_000_000L;
+            millis += seconds * 1000L;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}